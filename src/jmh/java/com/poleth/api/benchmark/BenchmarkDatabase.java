@@ -0,0 +1,78 @@
+// BenchmarkDatabase.java
+package com.poleth.api.benchmark;
+
+import com.poleth.api.config.DatabaseConfig;
+import jakarta.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import org.hibernate.Session;
+
+// Base de datos H2 en memoria para los benchmarks: no necesita MySQL ni red
+public class BenchmarkDatabase {
+
+    private static final String[] TIPOS = {"Mantenimiento", "Queja", "Pago", "Ruido", ""};
+    private static final String[] USUARIOS = {"admin", "propietario1", "propietario2", "soporte", ""};
+
+    // Método para apuntar DatabaseConfig a H2 (se puede sobrescribir con -D)
+    public static synchronized void iniciar() {
+        setDefault("db.url", "jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        setDefault("db.driver", "org.h2.Driver");
+        setDefault("db.user", "sa");
+        setDefault("db.password", "");
+        setDefault("db.pool.leak-detection-ms", "0");
+        setDefault("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        setDefault("hibernate.show_sql", "false");
+        setDefault("hibernate.format_sql", "false");
+        setDefault("hibernate.use_sql_comments", "false");
+        DatabaseConfig.initialize();
+    }
+
+    public static void cerrar() {
+        DatabaseConfig.close();
+    }
+
+    // Método para cargar N historiales sintéticos con JDBC por lotes (mucho más rápido que JPA)
+    public static void cargarHistoriales(int filas) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (Statement st = connection.createStatement()) {
+                    st.executeUpdate("DELETE FROM Historial_Reportes");
+                }
+                String sql = "INSERT INTO Historial_Reportes (id_reporte, nombre_reporte_hist, tipo_reporte_hist, " +
+                        "descripcion_hist, fecha_registro, usuario_registro) VALUES (?, ?, ?, ?, ?, ?)";
+                LocalDateTime ahora = LocalDateTime.now();
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < filas; i++) {
+                        ps.setInt(1, i % 1000 + 1);
+                        ps.setString(2, "Reporte " + i);
+                        ps.setString(3, TIPOS[i % TIPOS.length]);
+                        ps.setString(4, "Descripción sintética del historial " + i);
+                        ps.setTimestamp(5, Timestamp.valueOf(ahora.minusHours(i % (24 * 90))));
+                        ps.setString(6, USUARIOS[(i / 7) % USUARIOS.length]);
+                        ps.addBatch();
+                        if (i % 1000 == 999) {
+                            ps.executeBatch();
+                        }
+                    }
+                    ps.executeBatch();
+                }
+            });
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
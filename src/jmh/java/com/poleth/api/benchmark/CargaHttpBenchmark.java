@@ -0,0 +1,76 @@
+// CargaHttpBenchmark.java
+package com.poleth.api.benchmark;
+
+import com.poleth.api.App;
+import com.poleth.api.model.Rol;
+import com.poleth.api.model.Usuario;
+import com.poleth.api.util.JWTUtil;
+import io.javalin.Javalin;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Carga HTTP concurrente contra el servidor completo, con handlers en hilos de plataforma
+// o en hilos virtuales. En H2 la consulta apenas espera; para una comparación realista:
+//   -Djmh.args="CargaHttp -t 400 -jvmArgsAppend -Ddb.url=jdbc:mysql://..."
+// (hilosVirtuales=true solo tiene efecto con Java 21+: ejecutar con JAVA_HOME y PATH apuntando a un
+// JDK 21, que activa el perfil jdk21: mvn -P benchmarks,jdk21 test-compile exec:exec -Djmh.args="CargaHttp -f 1")
+// Referencia (JDK 21.0.1, H2 en memoria, 1 CPU compartida con el cliente, 200 hilos, ops/s):
+//   hilosVirtuales=false  367 (245 / 431 / 426)
+//   hilosVirtuales=true  1819 (1307 / 2136 / 2015)
+// Con un solo núcleo el error es muy alto; son un orden de magnitud, no una medida precisa
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(200)
+public class CargaHttpBenchmark {
+
+    @Param({"false", "true"})
+    public boolean hilosVirtuales;
+
+    private Javalin app;
+    private HttpClient client;
+    private HttpRequest pagina;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("server.virtual-threads", String.valueOf(hilosVirtuales));
+        BenchmarkDatabase.iniciar();
+        BenchmarkDatabase.cargarHistoriales(10000);
+        app = App.iniciar(0);
+
+        Rol rol = new Rol("administrador");
+        rol.setIdRoles(1);
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(1);
+        usuario.setUsername("carga");
+        usuario.setEmail("carga@example.com");
+        usuario.setRol(rol);
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        pagina = HttpRequest.newBuilder(URI.create("http://localhost:" + app.port() + "/api/historial-reportes?limit=20"))
+                .header("Authorization", "Bearer " + JWTUtil.generarToken(usuario))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.stop();
+        BenchmarkDatabase.cerrar();
+    }
+
+    @Benchmark
+    public int paginaHistoriales() throws Exception {
+        HttpResponse<byte[]> response = client.send(pagina, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Respuesta inesperada: " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
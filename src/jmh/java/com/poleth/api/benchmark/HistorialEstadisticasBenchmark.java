@@ -0,0 +1,40 @@
+// HistorialEstadisticasBenchmark.java
+package com.poleth.api.benchmark;
+
+import com.poleth.api.repository.HistorialReporteRepository;
+import com.poleth.api.service.HistorialReporteService;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// HistorialReporteService.getEstadisticasHistoriales sobre tablas sintéticas en H2
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class HistorialEstadisticasBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int filas;
+
+    private HistorialReporteService historialReporteService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkDatabase.iniciar();
+        BenchmarkDatabase.cargarHistoriales(filas);
+        historialReporteService = new HistorialReporteService(new HistorialReporteRepository());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.cerrar();
+    }
+
+    @Benchmark
+    public Map<String, Object> getEstadisticasHistoriales() {
+        return historialReporteService.getEstadisticasHistoriales();
+    }
+}
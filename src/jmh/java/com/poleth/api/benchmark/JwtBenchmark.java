@@ -0,0 +1,42 @@
+// JwtBenchmark.java
+package com.poleth.api.benchmark;
+
+import com.poleth.api.model.Rol;
+import com.poleth.api.model.Usuario;
+import com.poleth.api.util.JWTUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Generación y validación de tokens JWT
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtBenchmark {
+
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setup() {
+        Rol rol = new Rol("administrador");
+        rol.setIdRoles(1);
+        usuario = new Usuario();
+        usuario.setIdUsuario(1);
+        usuario.setUsername("admin");
+        usuario.setEmail("admin@example.com");
+        usuario.setRol(rol);
+        token = JWTUtil.generarToken(usuario);
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return JWTUtil.generarToken(usuario);
+    }
+
+    @Benchmark
+    public boolean validarToken() {
+        return JWTUtil.validarToken(token);
+    }
+}
@@ -0,0 +1,50 @@
+// PagoValidacionBenchmark.java
+package com.poleth.api.benchmark;
+
+import com.poleth.api.model.Pago;
+import com.poleth.api.repository.PagoRepository;
+import com.poleth.api.service.PagoService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Validaciones de PagoService.createPago sin acceso a la base de datos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PagoValidacionBenchmark {
+
+    private PagoService pagoService;
+
+    @Setup
+    public void setup() {
+        // El repositorio devuelve el mismo pago: solo se mide la validación
+        pagoService = new PagoService(new PagoRepository() {
+            @Override
+            public Pago save(Pago pago) {
+                return pago;
+            }
+        });
+    }
+
+    @Benchmark
+    public Pago createPagoValido() {
+        Pago pago = new Pago(1, 2, LocalDate.now().minusDays(1), "Renta mensual",
+                new BigDecimal("3500.00"), "transferencia", "pendiente");
+        return pagoService.createPago(pago);
+    }
+
+    @Benchmark
+    public Object createPagoInvalido() {
+        Pago pago = new Pago(1, 2, LocalDate.now().minusDays(1), "Renta mensual",
+                new BigDecimal("3500.00"), "transferencia", "desconocido");
+        try {
+            return pagoService.createPago(pago);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
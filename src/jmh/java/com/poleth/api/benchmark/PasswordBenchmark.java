@@ -0,0 +1,32 @@
+// PasswordBenchmark.java
+package com.poleth.api.benchmark;
+
+import com.poleth.api.util.PasswordUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Verificación de contraseñas con BCrypt (coste intencionalmente alto: pocas iteraciones)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class PasswordBenchmark {
+
+    private String hash;
+
+    @Setup
+    public void setup() {
+        hash = PasswordUtil.hashPassword("contraseñaSegura123");
+    }
+
+    @Benchmark
+    public boolean checkPasswordCorrecta() {
+        return PasswordUtil.checkPassword("contraseñaSegura123", hash);
+    }
+
+    @Benchmark
+    public boolean checkPasswordIncorrecta() {
+        return PasswordUtil.checkPassword("otraContraseña", hash);
+    }
+}
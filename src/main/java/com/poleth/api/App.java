@@ -1,26 +1,80 @@
 // App.java
 package com.poleth.api;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.config.UnitOfWork;
 import com.poleth.api.controller.*;
+import com.poleth.api.estadisticas.ReconciliadorEstadisticas;
+import com.poleth.api.eventos.BusNotificaciones;
+import com.poleth.api.middleware.AuthMiddleware;
+import com.poleth.api.middleware.RolAcceso;
 import com.poleth.api.repository.*;
 import com.poleth.api.routes.*;
+import com.poleth.api.search.IndiceBusqueda;
 import com.poleth.api.service.*;
+import com.poleth.api.tareas.BarridoContratos;
+import com.poleth.api.util.DetectorUrgencia;
+import com.poleth.api.util.ServicioSaturadoException;
 import io.javalin.Javalin;
 import io.javalin.http.staticfiles.Location;
+import io.javalin.json.JavalinJackson;
 import io.javalin.plugin.bundled.CorsPluginConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class App {
+
+    private static final Logger log = LoggerFactory.getLogger(App.class);
+
     public static void main(String[] args) {
+        // Prioridad de los reportes aún sin clasificar (o de todos con reportes.urgencia.reclasificar=true)
+        int reclasificados = clasificarUrgenciaReportes();
+
+        // Índice de búsqueda de texto (se reconstruye desde la base de datos si está vacío). Se abre y
+        // reconstruye antes de aceptar peticiones: con el índice cerrado las altas no se registran, y
+        // una reconstrucción en curso podría pisar los cambios que se confirmen mientras tanto
+        IndiceBusqueda.iniciar();
+        if (reclasificados > 0) {
+            // El UPDATE masivo no pasa por save: el JSON indexado se regenera con la prioridad
+            IndiceBusqueda.reconstruir();
+        }
+
+        Javalin app = iniciar(DatabaseConfig.getIntProperty("server.port", 8000));
+
+        // Reconciliación periódica de las estadísticas mantenidas en memoria
+        ReconciliadorEstadisticas.iniciar();
+
+        // Vencimientos de contratos y avisos de pago en segundo plano
+        BarridoContratos.iniciar();
+
+        // Cerrar el servidor y el pool de conexiones al detener la aplicación
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ReconciliadorEstadisticas.detener();
+            BarridoContratos.detener();
+            app.stop();
+            BusNotificaciones.detener();
+            IndiceBusqueda.detener();
+            DatabaseConfig.close();
+        }));
+
+        log.info("Servidor Poleth iniciado en http://localhost:{} (hilos virtuales: {})",
+                app.port(), usarHilosVirtuales() ? "activados" : "desactivados");
+    }
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
+    // Método para crear y arrancar el servidor con todas las rutas (también lo usan los benchmarks)
+    public static Javalin iniciar(int puerto) {
 
         // ✅ Configuración del servidor Javalin con CORS (Javalin 6)
         Javalin app = Javalin.create(config -> {
             config.http.defaultContentType = "application/json";
 
+            // Handlers en hilos virtuales (requiere Java 21): -Dserver.virtual-threads=true
+            config.useVirtualThreads = usarHilosVirtuales();
+
+            // Un único ObjectMapper para ctx.json y para los controladores
+            config.jsonMapper(new JavalinJackson(JsonConfig.getMapper(), false));
+
             // Configuración de CORS
             config.bundledPlugins.enableCors(cors -> {
                 cors.addRule(rule -> {
@@ -32,7 +86,21 @@ public class App {
             // Solo agregar archivos estáticos si la carpeta existe
             // config.staticFiles.add("/public", Location.CLASSPATH);
 
-        }).start(8000);
+        }).start(puerto);
+
+        // Unidad de trabajo por petición: un EntityManager y una transacción por llamada HTTP
+        app.before(ctx -> UnitOfWork.begin());
+        app.after(ctx -> {
+            try {
+                UnitOfWork.end(ctx.status().getCode() < 400);
+            } catch (RuntimeException e) {
+                log.error("Error al cerrar la unidad de trabajo de {} {}", ctx.method(), ctx.path(), e);
+                ctx.status(500).json("{\"error\": \"Error al guardar los cambios: " + e.getMessage() + "\"}");
+            }
+        });
+
+        // Autenticación: verifica el token una vez y aplica el RolAcceso declarado en cada ruta
+        app.beforeMatched(AuthMiddleware::handle);
 
         // === INICIALIZACIÓN DE MÓDULOS ===
 
@@ -60,7 +128,8 @@ public class App {
         HistorialReporteService historialReporteService = new HistorialReporteService(historialReporteRepository);
         CuartoMuebleService cuartoMuebleService = new CuartoMuebleService(cuartoMuebleRepository);
         PagoService pagoService = new PagoService(pagoRepository);
-        NotificacionService notificacionService = new NotificacionService(notificacionRepository, usuarioRepository);
+        NotificacionService notificacionService = new NotificacionService(notificacionRepository,
+                usuarioRepository, contratoRepository);
 
         // Controladores (con dependencias corregidas)
         UsuarioController usuarioController = new UsuarioController(usuarioService);
@@ -74,6 +143,7 @@ public class App {
         CuartoMuebleController cuartoMuebleController = new CuartoMuebleController(cuartoMuebleService);
         PagoController pagoController = new PagoController(pagoService);
         NotificacionController notificacionController = new NotificacionController(notificacionService);
+        MetricsController metricsController = new MetricsController();
 
         // Rutas
         UsuarioRoutes usuarioRoutes = new UsuarioRoutes(usuarioController);
@@ -87,6 +157,7 @@ public class App {
         CuartoMuebleRoutes cuartoMuebleRoutes = new CuartoMuebleRoutes(cuartoMuebleController);
         PagoRoutes pagoRoutes = new PagoRoutes(pagoController);
         NotificacionRoutes notificacionRoutes = new NotificacionRoutes(notificacionController);
+        MetricsRoutes metricsRoutes = new MetricsRoutes(metricsController);
 
         // Registrar rutas (agregando UsuarioRoutes que faltaba)
         usuarioRoutes.configureRoutes(app);
@@ -100,18 +171,25 @@ public class App {
         cuartoMuebleRoutes.configureRoutes(app);
         pagoRoutes.configureRoutes(app);
         notificacionRoutes.configureRoutes(app);
+        metricsRoutes.configureRoutes(app);
 
         // Endpoint de prueba
-        app.get("/", ctx -> ctx.result("🚀 API Poleth funcionando correctamente con CORS habilitado"));
+        app.get("/", ctx -> ctx.result("🚀 API Poleth funcionando correctamente con CORS habilitado"),
+                RolAcceso.PUBLICO);
 
         // Health check endpoint
         app.get("/api/health", ctx -> {
             ctx.json("{\"status\": \"ok\", \"message\": \"API funcionando correctamente\"}");
+        }, RolAcceso.PUBLICO);
+
+        // Pools acotados (p. ej. BCrypt) sin capacidad: se pide al cliente que reintente
+        app.exception(ServicioSaturadoException.class, (e, ctx) -> {
+            ctx.status(429).header("Retry-After", "1").json("{\"error\": \"" + e.getMessage() + "\"}");
         });
 
         // Manejo de excepciones global
         app.exception(Exception.class, (e, ctx) -> {
-            e.printStackTrace();
+            log.error("Error no controlado en {} {}", ctx.method(), ctx.path(), e);
             ctx.status(500).json("{\"error\": \"Error interno del servidor: " + e.getMessage() + "\"}");
         });
 
@@ -119,10 +197,26 @@ public class App {
             ctx.json("{\"error\": \"Endpoint no encontrado: " + ctx.path() + "\"}");
         });
 
-        System.out.println("==================================================");
-        System.out.println("🚀 Servidor Poleth iniciado correctamente!");
-        System.out.println("📍 URL: http://localhost:8000");
-        System.out.println("📊 Endpoints disponibles:");
-        System.out.println("==================================================");
+        return app;
+    }
+
+    private static int clasificarUrgenciaReportes() {
+        boolean todos = Boolean.parseBoolean(DatabaseConfig.getProperty("reportes.urgencia.reclasificar", "false"));
+        try {
+            int clasificados = new ReporteInquilinoRepository().clasificarUrgencia(DetectorUrgencia::prioridad, todos);
+            if (clasificados > 0) {
+                log.info("Prioridad calculada para {} reportes", clasificados);
+            }
+            return clasificados;
+        } catch (RuntimeException e) {
+            log.error("Error al clasificar la urgencia de los reportes: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    // Los hilos virtuales solo se activan si se piden y el JDK los soporta
+    private static boolean usarHilosVirtuales() {
+        boolean pedidos = Boolean.parseBoolean(DatabaseConfig.getProperty("server.virtual-threads", "false"));
+        return pedidos && Runtime.version().feature() >= 21;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+// AsesorIndices.java
+package com.poleth.api.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Asesor de índices para la base de datos local (db.explain.enabled=true).
+// Al arrancar comprueba que existan los índices declarados en @Table(indexes = ...) de cada entidad,
+// y la primera vez que se ejecuta cada SELECT lanza EXPLAIN con los mismos parámetros y avisa
+// si el plan recorre una tabla completa. Los repositorios construyen el JPQL al llamarse,
+// así que las consultas se analizan según se ejecutan y no todas en el arranque.
+public class AsesorIndices {
+
+    private static final Logger log = LoggerFactory.getLogger(AsesorIndices.class);
+
+    private static final int MAX_CONSULTAS = 1000;
+    private static final Pattern COMENTARIOS_INICIALES = Pattern.compile("^\\s*(/\\*.*?\\*/\\s*)*", Pattern.DOTALL);
+    // En H2 el plan marca los recorridos completos como /* PUBLIC.TABLA.tableScan */
+    private static final Pattern ESCANEO_H2 = Pattern.compile("(\\w+)\\.tableScan");
+
+    private static final Set<String> analizadas = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong consultasAnalizadas = new AtomicLong();
+    private static final List<Map<String, Object>> escaneosCompletos = new CopyOnWriteArrayList<>();
+    private static final List<String> indicesFaltantes = new CopyOnWriteArrayList<>();
+
+    private static volatile DataSource origen;
+    private static volatile ThreadPoolExecutor ejecutor;
+
+    public static boolean isActivo() {
+        return Boolean.parseBoolean(DatabaseConfig.getProperty("db.explain.enabled", "false"));
+    }
+
+    // Método para crear el listener que DatabaseConfig añade al DataSource de Hibernate;
+    // EXPLAIN se ejecuta sobre el DataSource original
+    static QueryExecutionListener iniciar(DataSource dataSource) {
+        origen = dataSource;
+        // Un solo hilo y cola acotada: si se llena, las consultas se descartan en lugar de frenar peticiones
+        ThreadPoolExecutor nuevo = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), r -> {
+                    Thread hilo = new Thread(r, "asesor-indices");
+                    hilo.setDaemon(true);
+                    return hilo;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        ejecutor = nuevo;
+        return new Escucha();
+    }
+
+    static void detener() {
+        ThreadPoolExecutor actual = ejecutor;
+        if (actual != null) {
+            actual.shutdownNow();
+        }
+        ejecutor = null;
+        origen = null;
+    }
+
+    // Método para comprobar que cada índice declarado en las entidades existe en la base de datos
+    static void verificarIndices(EntityManagerFactory emf, DataSource dataSource) {
+        indicesFaltantes.clear();
+        try (Connection conexion = dataSource.getConnection()) {
+            DatabaseMetaData metaData = conexion.getMetaData();
+            for (EntityType<?> entidad : emf.getMetamodel().getEntities()) {
+                Table tabla = entidad.getJavaType().getAnnotation(Table.class);
+                if (tabla == null || tabla.indexes().length == 0) {
+                    continue;
+                }
+                Set<String> existentes = indicesDeTabla(metaData, conexion, tabla.name());
+                for (Index indice : tabla.indexes()) {
+                    if (!existentes.contains(indice.name().toLowerCase(Locale.ROOT))) {
+                        indicesFaltantes.add(tabla.name() + "." + indice.name());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error al verificar los índices declarados: {}", e.getMessage());
+            return;
+        }
+        if (!indicesFaltantes.isEmpty()) {
+            log.warn("Índices declarados que no existen en la base de datos: {}", indicesFaltantes);
+        }
+    }
+
+    // Método para obtener las consultas analizadas, los recorridos completos y los índices que faltan
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (origen == null) {
+            metrics.put("estado", "desactivado");
+            return metrics;
+        }
+        metrics.put("estado", "activo");
+        metrics.put("consultasAnalizadas", consultasAnalizadas.get());
+        metrics.put("escaneosCompletos", new ArrayList<>(escaneosCompletos));
+        metrics.put("indicesFaltantes", new ArrayList<>(indicesFaltantes));
+        return metrics;
+    }
+
+    private static Set<String> indicesDeTabla(DatabaseMetaData metaData, Connection conexion, String tabla) throws Exception {
+        Set<String> nombres = new TreeSet<>();
+        // Según el motor la tabla se guarda tal cual, en mayúsculas o en minúsculas
+        Set<String> variantes = new LinkedHashSet<>(List.of(tabla,
+                tabla.toUpperCase(Locale.ROOT), tabla.toLowerCase(Locale.ROOT)));
+        for (String variante : variantes) {
+            try (ResultSet rs = metaData.getIndexInfo(conexion.getCatalog(), null, variante, false, true)) {
+                while (rs.next()) {
+                    String nombre = rs.getString("INDEX_NAME");
+                    if (nombre != null) {
+                        nombres.add(nombre.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            if (!nombres.isEmpty()) {
+                break;
+            }
+        }
+        return nombres;
+    }
+
+    private static void analizar(String sql, List<ParameterSetOperation> parametros) {
+        DataSource dataSource = origen;
+        if (dataSource == null) {
+            return;
+        }
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement ps = conexion.prepareStatement("EXPLAIN " + sql)) {
+            for (ParameterSetOperation operacion : parametros) {
+                operacion.getMethod().invoke(ps, operacion.getArgs());
+            }
+            List<String> tablas = new ArrayList<>();
+            long filas = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData columnas = rs.getMetaData();
+                while (rs.next()) {
+                    if (columnas.getColumnCount() == 1) {
+                        Matcher matcher = ESCANEO_H2.matcher(rs.getString(1));
+                        while (matcher.find()) {
+                            tablas.add(matcher.group(1).toLowerCase(Locale.ROOT));
+                        }
+                    } else if ("ALL".equalsIgnoreCase(rs.getString("type")) && rs.getString("possible_keys") == null) {
+                        // MySQL: recorrido completo sin ningún índice candidato
+                        tablas.add(rs.getString("table"));
+                        filas += rs.getLong("rows");
+                    }
+                }
+            }
+            conexion.rollback();
+            consultasAnalizadas.incrementAndGet();
+            if (!tablas.isEmpty()) {
+                Map<String, Object> escaneo = new LinkedHashMap<>();
+                escaneo.put("sql", sql);
+                escaneo.put("tablas", tablas);
+                escaneo.put("filas", filas);
+                escaneosCompletos.add(escaneo);
+                log.warn("Recorrido completo de {} en: {}", tablas, sql);
+            }
+        } catch (Exception e) {
+            log.warn("Error al ejecutar EXPLAIN: {}", e.getMessage());
+        }
+    }
+
+    // Los SELECT sin WHERE recorren la tabla por diseño y no indican un índice ausente
+    private static boolean debeAnalizarse(String sql) {
+        String minusculas = sql.toLowerCase(Locale.ROOT);
+        return minusculas.startsWith("select") && minusculas.contains(" where ");
+    }
+
+    private static class Escucha implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            ThreadPoolExecutor actual = ejecutor;
+            if (actual == null || !execInfo.isSuccess()) {
+                return;
+            }
+            for (QueryInfo queryInfo : queryInfoList) {
+                String sql = COMENTARIOS_INICIALES.matcher(queryInfo.getQuery()).replaceFirst("").trim();
+                if (!debeAnalizarse(sql) || analizadas.size() >= MAX_CONSULTAS || !analizadas.add(sql)) {
+                    continue;
+                }
+                // Se copian los parámetros: el proxy reutiliza sus listas en la siguiente ejecución
+                List<ParameterSetOperation> parametros = queryInfo.getParametersList().isEmpty()
+                        ? List.of()
+                        : new ArrayList<>(queryInfo.getParametersList().get(0));
+                actual.execute(() -> analizar(sql, parametros));
+            }
+        }
+    }
+}
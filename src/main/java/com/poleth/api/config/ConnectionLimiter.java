@@ -0,0 +1,68 @@
+// ConnectionLimiter.java
+package com.poleth.api.config;
+
+import com.poleth.api.util.LatencyHistogram;
+import com.poleth.api.util.ServicioSaturadoException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Limita cuántas peticiones usan la base de datos a la vez. Con hilos virtuales puede haber
+// miles de peticiones simultáneas: sin este límite todas esperarían dentro de Hikari (y del
+// driver) en lugar de hacer cola aquí con un tiempo máximo y una respuesta 429 al agotarse
+final class ConnectionLimiter {
+
+    private static volatile Semaphore permisos;
+    private static volatile int totalPermisos;
+    private static volatile long timeoutMs;
+
+    private static final LatencyHistogram espera = new LatencyHistogram();
+    private static final LongAdder rechazos = new LongAdder();
+
+    private ConnectionLimiter() {
+    }
+
+    static void configurar(int permisosMaximos, long timeoutMillis) {
+        totalPermisos = permisosMaximos;
+        timeoutMs = timeoutMillis;
+        permisos = new Semaphore(permisosMaximos, true);
+    }
+
+    // Método para reservar un permiso; lanza ServicioSaturadoException si no llega a tiempo
+    static Semaphore adquirir() {
+        Semaphore actual = permisos;
+        if (actual == null) {
+            DatabaseConfig.initialize();
+            actual = permisos;
+        }
+        long inicio = System.nanoTime();
+        boolean obtenido;
+        try {
+            obtenido = actual.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido esperando una conexión a la base de datos", e);
+        } finally {
+            espera.registrarDesde(inicio);
+        }
+        if (!obtenido) {
+            rechazos.increment();
+            throw new ServicioSaturadoException("Base de datos ocupada, intente de nuevo");
+        }
+        // Se devuelve el semáforo usado para liberar el mismo aunque se reconfigure entretanto
+        return actual;
+    }
+
+    static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Semaphore actual = permisos;
+        metrics.put("permisos", totalPermisos);
+        metrics.put("disponibles", actual != null ? actual.availablePermits() : 0);
+        metrics.put("esperando", actual != null ? actual.getQueueLength() : 0);
+        metrics.put("rechazos", rechazos.sum());
+        metrics.put("espera", espera.snapshot());
+        return metrics;
+    }
+}
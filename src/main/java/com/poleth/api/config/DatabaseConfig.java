@@ -1,19 +1,88 @@
 // DatabaseConfig.java
 package com.poleth.api.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class DatabaseConfig {
 
-    private static EntityManagerFactory emf;
+    private static final String PROPERTIES_FILE = "database.properties";
+
+    private static volatile EntityManagerFactory emf;
+    private static HikariDataSource dataSource;
+    private static PoolMetricsTracker poolMetrics;
+    private static volatile Properties properties;
+
+    // ReentrantLock en lugar de synchronized: un hilo virtual que espera aquí no bloquea su hilo portador
+    private static final ReentrantLock LOCK = new ReentrantLock();
 
     public static void initialize() {
-        emf = Persistence.createEntityManagerFactory("demo-pu");
+        LOCK.lock();
+        try {
+            if (emf != null) {
+                return;
+            }
+            dataSource = createDataSource();
+            try {
+                Migraciones.aplicar(dataSource);
+            } catch (RuntimeException e) {
+                // Sin esquema no se crea el EntityManagerFactory: el siguiente intento abre un pool nuevo
+                dataSource.close();
+                throw e;
+            }
+            ConnectionLimiter.configurar(
+                    getIntProperty("db.limiter.permits", dataSource.getMaximumPoolSize()),
+                    getLongProperty("db.limiter.timeout-ms", dataSource.getConnectionTimeout()));
+
+            // Hibernate usa el pool como DataSource en lugar de su pool interno
+            Map<String, Object> overrides = new HashMap<>();
+            boolean asesor = AsesorIndices.isActivo();
+            overrides.put("jakarta.persistence.nonJtaDataSource", envolverDataSource(dataSource, asesor));
+
+            // Las propiedades hibernate.* pasadas con -D sustituyen a las de persistence.xml
+            // (p. ej. -Dhibernate.dialect=org.hibernate.dialect.H2Dialect para pruebas con H2)
+            for (String key : System.getProperties().stringPropertyNames()) {
+                if (key.startsWith("hibernate.")) {
+                    overrides.put(key, System.getProperty(key));
+                }
+            }
+            emf = Persistence.createEntityManagerFactory("demo-pu", overrides);
+            if (asesor) {
+                AsesorIndices.verificarIndices(emf, dataSource);
+            }
+        } finally {
+            LOCK.unlock();
+        }
     }
 
+    // Dentro de una petición HTTP devuelve el EntityManager compartido de la unidad de trabajo
     public static EntityManager createEntityManager() {
+        if (UnitOfWork.isActive()) {
+            return UnitOfWork.currentEntityManager();
+        }
+        return openEntityManager();
+    }
+
+    static EntityManager openEntityManager() {
         if (emf == null) {
             initialize();
         }
@@ -21,8 +90,197 @@ public class DatabaseConfig {
     }
 
     public static void close() {
-        if (emf != null && emf.isOpen()) {
-            emf.close();
+        LOCK.lock();
+        try {
+            if (emf != null && emf.isOpen()) {
+                emf.close();
+            }
+            emf = null;
+            AsesorIndices.detener();
+            if (dataSource != null && !dataSource.isClosed()) {
+                dataSource.close();
+            }
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    // Método para obtener una propiedad: -Dclave > variable de entorno > database.properties
+    public static String getProperty(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(key.toUpperCase().replace('.', '_').replace('-', '_'));
+        }
+        if (value == null) {
+            value = loadProperties().getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    // Filas que el driver trae por viaje al recorrer consultas de exportación
+    public static int getStreamFetchSize() {
+        return getIntProperty("db.stream.fetch-size", 500);
+    }
+
+    public static long getLongProperty(String key, long defaultValue) {
+        String value = getProperty(key, null);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    // Método para obtener el estado y las métricas del pool de conexiones
+    public static Map<String, Object> getPoolMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (dataSource == null || dataSource.isClosed()) {
+            metrics.put("estado", "no_inicializado");
+            return metrics;
+        }
+
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        metrics.put("estado", "activo");
+        metrics.put("tamanoMaximo", dataSource.getMaximumPoolSize());
+        metrics.put("activas", pool.getActiveConnections());
+        metrics.put("inactivas", pool.getIdleConnections());
+        metrics.put("total", pool.getTotalConnections());
+        metrics.put("hilosEsperando", pool.getThreadsAwaitingConnection());
+        metrics.put("conexionesCreadas", poolMetrics.getConexionesCreadas());
+        metrics.put("timeouts", poolMetrics.getTimeouts());
+        metrics.put("latenciaAdquisicion", poolMetrics.getLatenciaAdquisicion().snapshot());
+        metrics.put("tiempoEnUso", poolMetrics.getTiempoEnUso().snapshot());
+        metrics.put("limitador", ConnectionLimiter.getMetrics());
+        return metrics;
+    }
+
+    // Método para obtener los aciertos/fallos de la caché de segundo nivel y de consultas
+    public static Map<String, Object> getCacheMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (emf == null) {
+            metrics.put("estado", "no_inicializado");
+            return metrics;
+        }
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        metrics.put("estado", "activo");
+        metrics.put("consultasBaseDatos", stats.getPrepareStatementCount());
+        metrics.put("entidadesCargadas", stats.getEntityLoadCount());
+        metrics.put("segundoNivel", cacheCounters(stats.getSecondLevelCacheHitCount(),
+                stats.getSecondLevelCacheMissCount(), stats.getSecondLevelCachePutCount()));
+        metrics.put("consultas", cacheCounters(stats.getQueryCacheHitCount(),
+                stats.getQueryCacheMissCount(), stats.getQueryCachePutCount()));
+
+        Map<String, Object> regiones = new LinkedHashMap<>();
+        for (String region : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = stats.getCacheRegionStatistics(region);
+            if (regionStats == null) {
+                continue;
+            }
+            Map<String, Object> counters = cacheCounters(regionStats.getHitCount(),
+                    regionStats.getMissCount(), regionStats.getPutCount());
+            // JCache no informa el tamaño de la región (Hibernate devuelve un valor negativo)
+            if (regionStats.getElementCountInMemory() >= 0) {
+                counters.put("elementos", regionStats.getElementCountInMemory());
+            }
+            regiones.put(region, counters);
+        }
+        metrics.put("regiones", regiones);
+        return metrics;
+    }
+
+    private static Map<String, Object> cacheCounters(long hits, long misses, long puts) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("aciertos", hits);
+        counters.put("fallos", misses);
+        counters.put("escrituras", puts);
+        long total = hits + misses;
+        counters.put("tasaAciertos", total == 0 ? 0.0 : (double) hits / total);
+        return counters;
+    }
+
+    // Hibernate recibe el pool envuelto por los listeners de consultas activos (tiempos y
+    // consultas lentas, asesor de índices); sin ninguno recibe el pool directamente
+    private static DataSource envolverDataSource(HikariDataSource pool, boolean asesor) {
+        List<QueryExecutionListener> listeners = new ArrayList<>();
+        if (RegistroConsultas.isActivo()) {
+            listeners.add(RegistroConsultas.iniciar());
+        }
+        if (asesor) {
+            listeners.add(AsesorIndices.iniciar(pool));
+        }
+        if (listeners.isEmpty()) {
+            return pool;
+        }
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(pool).name("poleth-proxy");
+        listeners.forEach(builder::listener);
+        return builder.build();
+    }
+
+    private static HikariDataSource createDataSource() {
+        // Validación al prestar: Hikari verifica la conexión si estuvo inactiva más que esta ventana
+        System.setProperty("com.zaxxer.hikari.aliveBypassWindowMs",
+                getProperty("db.pool.validation-bypass-ms", "500"));
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("poleth-pool");
+        config.setDriverClassName(getProperty("db.driver", "com.mysql.cj.jdbc.Driver"));
+        config.setJdbcUrl(getProperty("db.url", null));
+        config.setUsername(getProperty("db.user", null));
+        config.setPassword(getProperty("db.password", null));
+
+        config.setMaximumPoolSize(getIntProperty("db.pool.max-size", 10));
+        config.setMinimumIdle(getIntProperty("db.pool.min-idle", 2));
+        config.setConnectionTimeout(getLongProperty("db.pool.connection-timeout-ms", 5000));
+        config.setIdleTimeout(getLongProperty("db.pool.idle-timeout-ms", 300000));
+        config.setMaxLifetime(getLongProperty("db.pool.max-lifetime-ms", 1500000));
+        config.setKeepaliveTime(getLongProperty("db.pool.keepalive-time-ms", 120000));
+        config.setValidationTimeout(getLongProperty("db.pool.validation-timeout-ms", 2000));
+        config.setLeakDetectionThreshold(getLongProperty("db.pool.leak-detection-ms", 0));
+
+        // Hibernate gestiona las transacciones (hibernate.connection.provider_disables_autocommit)
+        config.setAutoCommit(false);
+
+        // Caché de sentencias preparadas en el driver de MySQL
+        if (config.getJdbcUrl() != null && config.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", getProperty("db.pool.prep-stmt-cache-size", "250"));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", getProperty("db.pool.prep-stmt-cache-sql-limit", "2048"));
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            // Cursor en el servidor: con fetchSize > 0 el driver no carga todo el resultado en memoria
+            config.addDataSourceProperty("useCursorFetch", "true");
+            // Los lotes JDBC se envían como un único INSERT multi-fila
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
+
+        poolMetrics = new PoolMetricsTracker();
+        config.setMetricsTrackerFactory(poolMetrics);
+
+        return new HikariDataSource(config);
+    }
+
+    private static Properties loadProperties() {
+        Properties loaded = properties;
+        if (loaded != null) {
+            return loaded;
+        }
+        LOCK.lock();
+        try {
+            if (properties == null) {
+                loaded = new Properties();
+                try (InputStream in = DatabaseConfig.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+                    if (in != null) {
+                        loaded.load(in);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException("Error al leer " + PROPERTIES_FILE, e);
+                }
+                properties = loaded;
+            }
+            return properties;
+        } finally {
+            LOCK.unlock();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+// JsonConfig.java
+package com.poleth.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ObjectMapper único de la aplicación: lo usan ctx.json (registrado como JsonMapper de Javalin)
+// y todos los controladores al leer el cuerpo de las peticiones.
+// Tiene la misma configuración que el mapper por defecto de Javalin (ObjectMapper + JavaTimeModule),
+// así las respuestas mantienen su formato.
+public class JsonConfig {
+
+    private static final ObjectMapper MAPPER = createMapper();
+
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private JsonConfig() {
+    }
+
+    public static ObjectMapper getMapper() {
+        return MAPPER;
+    }
+
+    // Método para obtener el lector de un tipo (se crea una vez y se reutiliza)
+    public static ObjectReader readerFor(Class<?> tipo) {
+        return READERS.computeIfAbsent(tipo, MAPPER::readerFor);
+    }
+
+    // Método para obtener el escritor de un tipo (se crea una vez y se reutiliza)
+    public static ObjectWriter writerFor(Class<?> tipo) {
+        return WRITERS.computeIfAbsent(tipo, MAPPER::writerFor);
+    }
+
+    private static ObjectMapper createMapper() {
+        // Módulos registrados explícitamente: findAndRegisterModules() recorre el classpath al arrancar
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+
+        // Blackbird genera accesores con LambdaMetafactory en lugar de reflexión
+        // (json.blackbird=false para desactivarlo)
+        if (Boolean.parseBoolean(DatabaseConfig.getProperty("json.blackbird", "true"))) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        return mapper;
+    }
+}
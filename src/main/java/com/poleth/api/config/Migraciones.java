@@ -0,0 +1,54 @@
+// Migraciones.java
+package com.poleth.api.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+
+// Migraciones versionadas del esquema (Flyway): cada script de db/migration/{vendor} se aplica una
+// sola vez y queda registrado en flyway_schema_history. Sustituye a hibernate.hbm2ddl.auto=update,
+// que inspeccionaba todo el esquema remoto en cada arranque.
+public class Migraciones {
+
+    private static final Logger log = LoggerFactory.getLogger(Migraciones.class);
+
+    // Método para aplicar los scripts pendientes antes de crear el EntityManagerFactory
+    static void aplicar(DataSource dataSource) {
+        if (!Boolean.parseBoolean(DatabaseConfig.getProperty("db.migrations.enabled", "true"))) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        String ubicaciones = DatabaseConfig.getProperty("db.migrations.locations", "classpath:db/migration/{vendor}");
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations(ubicaciones.replace("{vendor}", motor(dataSource)))
+                // Las bases creadas por hbm2ddl ya tienen el esquema de V1: se registran en la
+                // versión 1 y solo se les aplica lo posterior
+                .baselineOnMigrate(Boolean.parseBoolean(
+                        DatabaseConfig.getProperty("db.migrations.baseline-on-migrate", "true")))
+                .baselineVersion("1")
+                .load();
+        try {
+            MigrateResult resultado = flyway.migrate();
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Esquema en la versión {} ({} migraciones aplicadas en {} ms)",
+                    resultado.targetSchemaVersion, resultado.migrationsExecuted, ms);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al aplicar las migraciones del esquema: " + e.getMessage(), e);
+        }
+    }
+
+    // Método para obtener la carpeta de scripts del motor de la conexión (mysql, h2)
+    private static String motor(DataSource dataSource) {
+        try (Connection conexion = dataSource.getConnection()) {
+            return conexion.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al identificar el motor de la base de datos: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+// PoolMetricsTracker.java
+package com.poleth.api.config;
+
+import com.poleth.api.util.LatencyHistogram;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.util.concurrent.atomic.LongAdder;
+
+// Recolector de métricas del pool de conexiones (HikariCP)
+public class PoolMetricsTracker implements MetricsTrackerFactory, IMetricsTracker {
+
+    private final LatencyHistogram latenciaAdquisicion = new LatencyHistogram();
+    private final LatencyHistogram tiempoEnUso = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder conexionesCreadas = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        conexionesCreadas.increment();
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        latenciaAdquisicion.registrarNanos(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        tiempoEnUso.registrarNanos(elapsedBorrowedMillis * 1_000_000L);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public LatencyHistogram getLatenciaAdquisicion() {
+        return latenciaAdquisicion;
+    }
+
+    public LatencyHistogram getTiempoEnUso() {
+        return tiempoEnUso;
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getConexionesCreadas() {
+        return conexionesCreadas.sum();
+    }
+}
@@ -0,0 +1,157 @@
+// RegistroConsultas.java
+package com.poleth.api.config;
+
+import com.poleth.api.util.LatencyHistogram;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Registro de consultas SQL: un histograma de tiempos por sentencia y un log de consultas lentas.
+// Sustituye a hibernate.show_sql: solo se escriben las consultas que superan db.query-log.slow-ms,
+// y de ellas una fracción (db.query-log.sample-rate) para no saturar el log. Los valores de los
+// parámetros solo se escriben con db.query-log.parameters=true, y aun así sin datos sensibles.
+public class RegistroConsultas {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroConsultas.class);
+
+    private static final String INICIO = "registroConsultas.inicio";
+    private static final int MAX_VALOR_PARAMETRO = 100;
+    private static final Pattern COMENTARIOS_INICIALES = Pattern.compile("^\\s*(/\\*.*?\\*/\\s*)*", Pattern.DOTALL);
+    // Sentencias cuyos parámetros no se escriben: no se sabe a qué columna va cada "?"
+    private static final Pattern COLUMNAS_SENSIBLES = Pattern.compile("\\b(password|email)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HASH_BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$.*");
+    private static final String OCULTO = "***";
+
+    private static final Map<String, LatencyHistogram> porConsulta = new ConcurrentHashMap<>();
+    private static final LatencyHistogram todas = new LatencyHistogram();
+    private static final LongAdder lentas = new LongAdder();
+    private static final LongAdder registradas = new LongAdder();
+
+    private static volatile long umbralNanos;
+    private static volatile double muestreo;
+    private static volatile int maxConsultas;
+    private static volatile boolean conParametros;
+
+    public static boolean isActivo() {
+        return Boolean.parseBoolean(DatabaseConfig.getProperty("db.query-log.enabled", "true"));
+    }
+
+    // Método para crear el listener que DatabaseConfig añade al DataSource de Hibernate
+    static QueryExecutionListener iniciar() {
+        umbralNanos = DatabaseConfig.getLongProperty("db.query-log.slow-ms", 200) * 1_000_000L;
+        muestreo = Double.parseDouble(DatabaseConfig.getProperty("db.query-log.sample-rate", "1.0"));
+        maxConsultas = DatabaseConfig.getIntProperty("db.query-log.max-queries", 500);
+        conParametros = Boolean.parseBoolean(DatabaseConfig.getProperty("db.query-log.parameters", "false"));
+        return new Escucha();
+    }
+
+    // Método para obtener el histograma global y los de las sentencias más ejecutadas
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (!isActivo()) {
+            metrics.put("estado", "desactivado");
+            return metrics;
+        }
+        metrics.put("estado", "activo");
+        metrics.put("umbralLentaMs", umbralNanos / 1_000_000L);
+        metrics.put("lentas", lentas.sum());
+        metrics.put("lentasRegistradas", registradas.sum());
+        metrics.put("todas", todas.snapshot());
+
+        List<Map.Entry<String, LatencyHistogram>> entradas = new ArrayList<>(porConsulta.entrySet());
+        entradas.sort(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().getTotal()).reversed());
+        List<Map<String, Object>> consultas = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entrada : entradas.subList(0, Math.min(50, entradas.size()))) {
+            Map<String, Object> consulta = new LinkedHashMap<>();
+            consulta.put("sql", entrada.getKey());
+            consulta.putAll(entrada.getValue().snapshot());
+            consultas.add(consulta);
+        }
+        metrics.put("consultas", consultas);
+        return metrics;
+    }
+
+    private static void registrar(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long inicio = execInfo.getCustomValue(INICIO, Long.class);
+        if (inicio == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long nanos = System.nanoTime() - inicio;
+        todas.registrarNanos(nanos);
+
+        String sql = COMENTARIOS_INICIALES.matcher(queryInfoList.get(0).getQuery()).replaceFirst("").trim();
+        LatencyHistogram histograma = porConsulta.get(sql);
+        if (histograma == null && porConsulta.size() < maxConsultas) {
+            histograma = porConsulta.computeIfAbsent(sql, k -> new LatencyHistogram());
+        }
+        if (histograma != null) {
+            histograma.registrarNanos(nanos);
+        }
+
+        if (nanos < umbralNanos) {
+            return;
+        }
+        lentas.increment();
+        if (muestreo < 1.0 && ThreadLocalRandom.current().nextDouble() >= muestreo) {
+            return;
+        }
+        registradas.increment();
+        log.atWarn()
+                .addKeyValue("ms", nanos / 1_000_000L)
+                .addKeyValue("exito", execInfo.isSuccess())
+                .addKeyValue("lote", execInfo.isBatch() ? execInfo.getBatchSize() : 0)
+                .addKeyValue("sql", sql)
+                .addKeyValue("parametros", parametros(sql, queryInfoList.get(0)))
+                .log("Consulta lenta");
+    }
+
+    // En los lotes solo se escriben los parámetros de la primera fila
+    private static String parametros(String sql, QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return "[]";
+        }
+        List<ParameterSetOperation> operaciones = queryInfo.getParametersList().get(0);
+        if (!conParametros) {
+            return "[" + operaciones.size() + " parámetros]";
+        }
+        boolean sensible = COLUMNAS_SENSIBLES.matcher(sql).find();
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation operacion : operaciones) {
+            Object[] args = operacion.getArgs();
+            String valor = args.length > 1 ? String.valueOf(args[1]) : "";
+            if (sensible || HASH_BCRYPT.matcher(valor).matches()) {
+                valor = OCULTO;
+            } else if (valor.length() > MAX_VALOR_PARAMETRO) {
+                valor = valor.substring(0, MAX_VALOR_PARAMETRO) + "...";
+            }
+            joiner.add(args[0] + "=" + valor);
+        }
+        return joiner.toString();
+    }
+
+    private static class Escucha implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            execInfo.addCustomValue(INICIO, System.nanoTime());
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            registrar(execInfo, queryInfoList);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+// UnitOfWork.java
+package com.poleth.api.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+// Unidad de trabajo por petición HTTP: un único EntityManager y una única transacción
+// compartidos por todos los repositorios que se usen durante la misma petición.
+//
+// Los repositorios siguen llamando a begin/commit/rollback/close sobre su EntityManager;
+// dentro de una unidad de trabajo esas llamadas se redirigen así:
+//   - begin:    no hace nada (la transacción ya está abierta)
+//   - commit:   flush, para que los errores aparezcan en el mismo punto que antes
+//   - rollback: marca la transacción para deshacerse al final de la petición
+//   - close:    no hace nada (se cierra al terminar la petición)
+public class UnitOfWork {
+
+    private static final Logger log = LoggerFactory.getLogger(UnitOfWork.class);
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private EntityManager entityManager;
+    private EntityManager sharedProxy;
+    private boolean rollbackOnly;
+    private Semaphore permiso;
+    private List<Runnable> despuesDelCommit;
+    private List<Runnable> despuesDelRollback;
+
+    private UnitOfWork() {
+    }
+
+    // Método para abrir la unidad de trabajo (se llama en el before de Javalin)
+    public static void begin() {
+        UnitOfWork previous = CURRENT.get();
+        if (previous != null) {
+            previous.finish(false);
+        }
+        CURRENT.set(new UnitOfWork());
+    }
+
+    // Método para cerrar la unidad de trabajo: confirma si exito es true y no hubo errores
+    public static void end(boolean exito) {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        CURRENT.remove();
+        current.finish(exito);
+    }
+
+    // Método para ejecutar una acción solo si la petición confirma su transacción
+    // (fuera de una unidad de trabajo los repositorios ya confirmaron, así que se ejecuta ya)
+    public static void afterCommit(Runnable accion) {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            accion.run();
+            return;
+        }
+        if (current.despuesDelCommit == null) {
+            current.despuesDelCommit = new ArrayList<>();
+        }
+        current.despuesDelCommit.add(accion);
+    }
+
+    // Método para ejecutar una acción si la petición termina sin confirmar su transacción
+    // (fuera de una unidad de trabajo no hay nada pendiente de deshacer, así que no se ejecuta)
+    public static void afterRollback(Runnable accion) {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        if (current.despuesDelRollback == null) {
+            current.despuesDelRollback = new ArrayList<>();
+        }
+        current.despuesDelRollback.add(accion);
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // Método para obtener el EntityManager compartido de la petición (se crea al primer uso)
+    static EntityManager currentEntityManager() {
+        UnitOfWork current = CURRENT.get();
+        if (current.entityManager == null) {
+            // El permiso del limitador se reserva antes de pedir la conexión y se libera al terminar
+            current.permiso = ConnectionLimiter.adquirir();
+            try {
+                current.entityManager = DatabaseConfig.openEntityManager();
+                current.entityManager.getTransaction().begin();
+            } catch (RuntimeException e) {
+                if (current.entityManager != null) {
+                    current.entityManager.close();
+                    current.entityManager = null;
+                }
+                current.liberarPermiso();
+                throw e;
+            }
+            current.sharedProxy = current.createProxy();
+        }
+        return current.sharedProxy;
+    }
+
+    private void finish(boolean exito) {
+        if (entityManager == null) {
+            if (exito) {
+                ejecutar(despuesDelCommit);
+            } else {
+                ejecutar(despuesDelRollback);
+            }
+            return;
+        }
+        boolean confirmada = false;
+        try {
+            EntityTransaction tx = entityManager.getTransaction();
+            if (tx.isActive()) {
+                if (exito && !rollbackOnly && !tx.getRollbackOnly()) {
+                    tx.commit();
+                    confirmada = true;
+                } else {
+                    tx.rollback();
+                }
+            }
+            if (confirmada) {
+                ejecutar(despuesDelCommit);
+            }
+        } catch (RuntimeException e) {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al confirmar la transacción de la petición", e);
+        } finally {
+            try {
+                if (!confirmada) {
+                    ejecutar(despuesDelRollback);
+                }
+                entityManager.close();
+            } finally {
+                liberarPermiso();
+            }
+        }
+    }
+
+    // Un fallo en una acción posterior no debe convertir en error una petición ya terminada
+    private void ejecutar(List<Runnable> acciones) {
+        if (acciones == null) {
+            return;
+        }
+        for (Runnable accion : acciones) {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                log.error("Error en una acción posterior al fin de la transacción", e);
+            }
+        }
+        acciones.clear();
+    }
+
+    private void liberarPermiso() {
+        if (permiso != null) {
+            permiso.release();
+            permiso = null;
+        }
+    }
+
+    private EntityManager createProxy() {
+        EntityTransaction sharedTransaction = (EntityTransaction) Proxy.newProxyInstance(
+                EntityTransaction.class.getClassLoader(),
+                new Class<?>[]{EntityTransaction.class},
+                new TransactionHandler());
+
+        return (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "getTransaction":
+                            return sharedTransaction;
+                        default:
+                            return invoke(entityManager, method, args);
+                    }
+                });
+    }
+
+    private class TransactionHandler implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            EntityTransaction tx = entityManager.getTransaction();
+            switch (method.getName()) {
+                case "begin":
+                    return null;
+                case "commit":
+                    entityManager.flush();
+                    return null;
+                case "rollback":
+                case "setRollbackOnly":
+                    rollbackOnly = true;
+                    return null;
+                case "getRollbackOnly":
+                    return rollbackOnly || tx.getRollbackOnly();
+                default:
+                    return UnitOfWork.invoke(tx, method, args);
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,9 +1,9 @@
 // CatalogoMuebleController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
 import com.poleth.api.model.CatalogoMueble;
 import com.poleth.api.service.CatalogoMuebleService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 
@@ -12,17 +12,15 @@ import java.util.Optional;
 
 public class CatalogoMuebleController {
     private final CatalogoMuebleService catalogoMuebleService;
-    private final ObjectMapper objectMapper;
 
     public CatalogoMuebleController(CatalogoMuebleService catalogoMuebleService) {
         this.catalogoMuebleService = catalogoMuebleService;
-        this.objectMapper = new ObjectMapper();
     }
 
     // POST: Crear nuevo mueble en el catálogo
     public void createCatalogoMueble(Context ctx) {
         try {
-            CatalogoMueble catalogoMueble = objectMapper.readValue(ctx.body(), CatalogoMueble.class);
+            CatalogoMueble catalogoMueble = JsonConfig.readerFor(CatalogoMueble.class).readValue(ctx.body());
 
             CatalogoMueble savedCatalogoMueble = catalogoMuebleService.createCatalogoMueble(catalogoMueble);
             ctx.status(HttpStatus.CREATED)
@@ -72,7 +70,7 @@ public class CatalogoMuebleController {
     public void updateCatalogoMueble(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            CatalogoMueble catalogoMuebleActualizado = objectMapper.readValue(ctx.body(), CatalogoMueble.class);
+            CatalogoMueble catalogoMuebleActualizado = JsonConfig.readerFor(CatalogoMueble.class).readValue(ctx.body());
 
             CatalogoMueble updatedCatalogoMueble = catalogoMuebleService.updateCatalogoMueble(id, catalogoMuebleActualizado);
             ctx.json(updatedCatalogoMueble);
@@ -192,7 +190,7 @@ public class CatalogoMuebleController {
     public void cambiarEstadoMueble(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            CambioEstadoRequest request = objectMapper.readValue(ctx.body(), CambioEstadoRequest.class);
+            CambioEstadoRequest request = JsonConfig.readerFor(CambioEstadoRequest.class).readValue(ctx.body());
 
             CatalogoMueble catalogoMueble = catalogoMuebleService.cambiarEstadoMueble(id, request.getEstado());
             ctx.json(catalogoMueble);
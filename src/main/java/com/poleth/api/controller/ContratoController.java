@@ -1,45 +1,44 @@
 // ContratoController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Contrato;
 import com.poleth.api.service.ContratoService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Optional;
 
 public class ContratoController {
-    private final ContratoService contratoService;
-    private final ObjectMapper objectMapper;
 
-    public ContratoController(ContratoService contratoService) {
-        this.contratoService = contratoService;
-        this.objectMapper = new ObjectMapper();
+    private static final Logger log = LoggerFactory.getLogger(ContratoController.class);
 
-        // Registrar el módulo para manejar LocalDate, LocalDateTime, etc.
-        this.objectMapper.registerModule(new JavaTimeModule());
+    // Las respuestas de contratos se escriben con fechas ISO (no como arrays) y sin fallar en beans vacíos
+    private static final ObjectWriter JSON_WRITER = JsonConfig.getMapper().writer()
+            .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .without(SerializationFeature.FAIL_ON_EMPTY_BEANS);
 
-        // CORRECCIÓN: Configurar ObjectMapper para manejar lazy loading
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        this.objectMapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+    private final ContratoService contratoService;
 
-        // Esto es importante para que no serialice fechas como timestamps
-        this.objectMapper.findAndRegisterModules();
+    public ContratoController(ContratoService contratoService) {
+        this.contratoService = contratoService;
     }
 
     // POST: Crear nuevo contrato
     public void createContrato(Context ctx) {
         try {
-            Contrato contrato = objectMapper.readValue(ctx.body(), Contrato.class);
+            Contrato contrato = JsonConfig.readerFor(Contrato.class).readValue(ctx.body());
 
             Contrato savedContrato = contratoService.createContrato(contrato);
 
             // CORRECCIÓN: Serializar manualmente para control total
-            String jsonResponse = objectMapper.writeValueAsString(savedContrato);
+            String jsonResponse = JSON_WRITER.writeValueAsString(savedContrato);
             ctx.status(HttpStatus.CREATED)
                     .contentType("application/json")
                     .result(jsonResponse);
@@ -48,7 +47,7 @@ public class ContratoController {
                     .contentType("application/json")
                     .result("{\"error\": \"" + e.getMessage().replace("\"", "\\\"") + "\"}");
         } catch (Exception e) {
-            e.printStackTrace(); // Para debugging
+            log.error("Error en {} {}", ctx.method(), ctx.path(), e);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .contentType("application/json")
                     .result("{\"error\": \"Error interno al crear el contrato: " + e.getMessage().replace("\"", "\\\"") + "\"}");
@@ -58,14 +57,27 @@ public class ContratoController {
     // GET: Obtener todos los contratos
     public void getAllContratos(Context ctx) {
         try {
+            // Con ?cursor= o ?limit= se devuelve una página en lugar de la lista completa
+            if (ctx.queryParam("cursor") != null || ctx.queryParam("limit") != null) {
+                PaginaCursor<Contrato> pagina = contratoService.getContratosPagina(ctx.queryParam("cursor"),
+                        PaginaCursor.parseLimite(ctx.queryParam("limit")));
+                ctx.contentType("application/json")
+                        .result(JSON_WRITER.writeValueAsString(pagina));
+                return;
+            }
+
             List<Contrato> contratos = contratoService.getAllContratos();
 
             // CORRECCIÓN: Serializar manualmente
-            String jsonResponse = objectMapper.writeValueAsString(contratos);
+            String jsonResponse = JSON_WRITER.writeValueAsString(contratos);
             ctx.contentType("application/json")
                     .result(jsonResponse);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .contentType("application/json")
+                    .result("{\"error\": \"" + e.getMessage().replace("\"", "\\\"") + "\"}");
         } catch (Exception e) {
-            e.printStackTrace(); // Para debugging
+            log.error("Error en {} {}", ctx.method(), ctx.path(), e);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .contentType("application/json")
                     .result("{\"error\": \"Error al obtener los contratos: " + e.getMessage().replace("\"", "\\\"") + "\"}");
@@ -79,7 +91,7 @@ public class ContratoController {
             Optional<Contrato> contrato = contratoService.getContratoById(id);
 
             if (contrato.isPresent()) {
-                String jsonResponse = objectMapper.writeValueAsString(contrato.get());
+                String jsonResponse = JSON_WRITER.writeValueAsString(contrato.get());
                 ctx.contentType("application/json")
                         .result(jsonResponse);
             } else {
@@ -92,7 +104,7 @@ public class ContratoController {
                     .contentType("application/json")
                     .result("{\"error\": \"ID de contrato inválido\"}");
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error en {} {}", ctx.method(), ctx.path(), e);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .contentType("application/json")
                     .result("{\"error\": \"Error al obtener el contrato: " + e.getMessage().replace("\"", "\\\"") + "\"}");
@@ -105,7 +117,7 @@ public class ContratoController {
             Integer idCuarto = Integer.parseInt(ctx.pathParam("idCuarto"));
             List<Contrato> contratos = contratoService.getContratosByCuarto(idCuarto);
 
-            String jsonResponse = objectMapper.writeValueAsString(contratos);
+            String jsonResponse = JSON_WRITER.writeValueAsString(contratos);
             ctx.contentType("application/json")
                     .result(jsonResponse);
         } catch (NumberFormatException e) {
@@ -113,7 +125,7 @@ public class ContratoController {
                     .contentType("application/json")
                     .result("{\"error\": \"ID de cuarto inválido\"}");
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error en {} {}", ctx.method(), ctx.path(), e);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .contentType("application/json")
                     .result("{\"error\": \"Error al obtener contratos del cuarto: " + e.getMessage().replace("\"", "\\\"") + "\"}");
@@ -126,7 +138,7 @@ public class ContratoController {
             Integer idInquilino = Integer.parseInt(ctx.pathParam("idInquilino"));
             List<Contrato> contratos = contratoService.getContratosByInquilino(idInquilino);
 
-            String jsonResponse = objectMapper.writeValueAsString(contratos);
+            String jsonResponse = JSON_WRITER.writeValueAsString(contratos);
             ctx.contentType("application/json")
                     .result(jsonResponse);
         } catch (NumberFormatException e) {
@@ -134,7 +146,7 @@ public class ContratoController {
                     .contentType("application/json")
                     .result("{\"error\": \"ID de inquilino inválido\"}");
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error en {} {}", ctx.method(), ctx.path(), e);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .contentType("application/json")
                     .result("{\"error\": \"Error al obtener contratos del inquilino: " + e.getMessage().replace("\"", "\\\"") + "\"}");
@@ -145,11 +157,11 @@ public class ContratoController {
     public void updateContrato(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            Contrato contratoActualizado = objectMapper.readValue(ctx.body(), Contrato.class);
+            Contrato contratoActualizado = JsonConfig.readerFor(Contrato.class).readValue(ctx.body());
 
             Contrato updatedContrato = contratoService.updateContrato(id, contratoActualizado);
 
-            String jsonResponse = objectMapper.writeValueAsString(updatedContrato);
+            String jsonResponse = JSON_WRITER.writeValueAsString(updatedContrato);
             ctx.contentType("application/json")
                     .result(jsonResponse);
         } catch (NumberFormatException e) {
@@ -161,7 +173,7 @@ public class ContratoController {
                     .contentType("application/json")
                     .result("{\"error\": \"" + e.getMessage().replace("\"", "\\\"") + "\"}");
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error en {} {}", ctx.method(), ctx.path(), e);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .contentType("application/json")
                     .result("{\"error\": \"Error interno al actualizar el contrato: " + e.getMessage().replace("\"", "\\\"") + "\"}");
@@ -187,7 +199,7 @@ public class ContratoController {
                     .contentType("application/json")
                     .result("{\"error\": \"ID de contrato inválido\"}");
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error en {} {}", ctx.method(), ctx.path(), e);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .contentType("application/json")
                     .result("{\"error\": \"Error al eliminar el contrato: " + e.getMessage().replace("\"", "\\\"") + "\"}");
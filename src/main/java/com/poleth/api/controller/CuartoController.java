@@ -1,9 +1,10 @@
 // CuartoController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Cuarto;
 import com.poleth.api.service.CuartoService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 
@@ -13,17 +14,15 @@ import java.util.Optional;
 
 public class CuartoController {
     private final CuartoService cuartoService;
-    private final ObjectMapper objectMapper;
 
     public CuartoController(CuartoService cuartoService) {
         this.cuartoService = cuartoService;
-        this.objectMapper = new ObjectMapper();
     }
 
     // POST: Crear un nuevo cuarto
     public void createCuarto(Context ctx) {
         try {
-            Cuarto cuarto = objectMapper.readValue(ctx.body(), Cuarto.class);
+            Cuarto cuarto = JsonConfig.readerFor(Cuarto.class).readValue(ctx.body());
 
             // Usar el método createCuarto que incluye validaciones
             Cuarto savedCuarto = cuartoService.createCuarto(cuarto);
@@ -41,8 +40,18 @@ public class CuartoController {
     // GET: Obtener todos los cuartos
     public void getAllCuartos(Context ctx) {
         try {
+            // Con ?cursor= o ?limit= se devuelve una página en lugar de la lista completa
+            if (ctx.queryParam("cursor") != null || ctx.queryParam("limit") != null) {
+                ctx.json(cuartoService.getCuartosPagina(ctx.queryParam("cursor"),
+                        PaginaCursor.parseLimite(ctx.queryParam("limit"))));
+                return;
+            }
+
             List<Cuarto> cuartos = cuartoService.getAllCuartos();
             ctx.json(cuartos);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json("Error de paginación: " + e.getMessage());
         } catch (Exception e) {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .json("Error al obtener los cuartos: " + e.getMessage());
@@ -89,7 +98,7 @@ public class CuartoController {
     public void updateCuarto(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            Cuarto cuartoActualizado = objectMapper.readValue(ctx.body(), Cuarto.class);
+            Cuarto cuartoActualizado = JsonConfig.readerFor(Cuarto.class).readValue(ctx.body());
 
             // Usar el método updateCuarto que incluye validaciones
             Cuarto updatedCuarto = cuartoService.updateCuarto(id, cuartoActualizado);
@@ -113,7 +122,7 @@ public class CuartoController {
             String body = ctx.body();
 
             // Extraer nuevoEstado del cuerpo JSON
-            String nuevoEstado = objectMapper.readTree(body).get("estado_cuarto").asText();
+            String nuevoEstado = JsonConfig.getMapper().readTree(body).get("estado_cuarto").asText();
 
             Cuarto cuarto = cuartoService.cambiarEstadoCuarto(idCuarto, nuevoEstado);
             ctx.json(cuarto);
@@ -136,7 +145,7 @@ public class CuartoController {
             String body = ctx.body();
 
             // Extraer nuevoPrecio del cuerpo JSON
-            BigDecimal nuevoPrecio = new BigDecimal(objectMapper.readTree(body).get("precio_alquiler").asText());
+            BigDecimal nuevoPrecio = new BigDecimal(JsonConfig.getMapper().readTree(body).get("precio_alquiler").asText());
 
             Cuarto cuarto = cuartoService.actualizarPrecioCuarto(idCuarto, nuevoPrecio);
             ctx.json(cuarto);
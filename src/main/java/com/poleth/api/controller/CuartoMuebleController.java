@@ -1,9 +1,9 @@
 // CuartoMuebleController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
 import com.poleth.api.model.CuartoMueble;
 import com.poleth.api.service.CuartoMuebleService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 
@@ -12,17 +12,15 @@ import java.util.Optional;
 
 public class CuartoMuebleController {
     private final CuartoMuebleService cuartoMuebleService;
-    private final ObjectMapper objectMapper;
 
     public CuartoMuebleController(CuartoMuebleService cuartoMuebleService) {
         this.cuartoMuebleService = cuartoMuebleService;
-        this.objectMapper = new ObjectMapper();
     }
 
     // POST: Crear nuevo cuarto mueble
     public void createCuartoMueble(Context ctx) {
         try {
-            CuartoMueble cuartoMueble = objectMapper.readValue(ctx.body(), CuartoMueble.class);
+            CuartoMueble cuartoMueble = JsonConfig.readerFor(CuartoMueble.class).readValue(ctx.body());
 
             CuartoMueble savedCuartoMueble = cuartoMuebleService.createCuartoMueble(cuartoMueble);
             ctx.status(HttpStatus.CREATED)
@@ -146,7 +144,7 @@ public class CuartoMuebleController {
     public void updateCuartoMueble(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            CuartoMueble cuartoMueble = objectMapper.readValue(ctx.body(), CuartoMueble.class);
+            CuartoMueble cuartoMueble = JsonConfig.readerFor(CuartoMueble.class).readValue(ctx.body());
 
             CuartoMueble updatedCuartoMueble = cuartoMuebleService.updateCuartoMueble(id, cuartoMueble);
             ctx.json(updatedCuartoMueble);
@@ -166,7 +164,7 @@ public class CuartoMuebleController {
     public void updateCantidad(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            CantidadRequest request = objectMapper.readValue(ctx.body(), CantidadRequest.class);
+            CantidadRequest request = JsonConfig.readerFor(CantidadRequest.class).readValue(ctx.body());
 
             if (request.getCantidad() == null) {
                 ctx.status(HttpStatus.BAD_REQUEST)
@@ -1,46 +1,41 @@
 // HistorialReporteController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.HistorialReporte;
 import com.poleth.api.model.ReporteInquilino;
 import com.poleth.api.service.HistorialReporteService;
+import com.poleth.api.util.JsonStreamUtil;
 import com.poleth.api.service.ReporteInquilinoService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.annotation.JsonInclude;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public class HistorialReporteController {
+
+    private static final Logger log = LoggerFactory.getLogger(HistorialReporteController.class);
+
     private final HistorialReporteService historialReporteService;
     private final ReporteInquilinoService reporteInquilinoService;
-    private final ObjectMapper objectMapper;
 
     public HistorialReporteController(HistorialReporteService historialReporteService,
                                       ReporteInquilinoService reporteInquilinoService) {
         this.historialReporteService = historialReporteService;
         this.reporteInquilinoService = reporteInquilinoService;
-        this.objectMapper = createConfiguredObjectMapper();
-    }
-
-    private ObjectMapper createConfiguredObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        return mapper;
     }
 
     // POST: Crear nuevo historial de reporte
     public void createHistorialReporte(Context ctx) {
         try {
             String requestBody = ctx.body();
-            HistorialReporte historialReporte = objectMapper.readValue(requestBody, HistorialReporte.class);
+            HistorialReporte historialReporte = JsonConfig.readerFor(HistorialReporte.class).readValue(requestBody);
 
             // Validar campos requeridos
             if (historialReporte.getIdReporte() == null) {
@@ -113,7 +108,7 @@ public class HistorialReporteController {
         try {
             Integer idReporte = Integer.parseInt(ctx.pathParam("idReporte"));
             String requestBody = ctx.body();
-            CrearHistorialRequest request = objectMapper.readValue(requestBody, CrearHistorialRequest.class);
+            CrearHistorialRequest request = JsonConfig.readerFor(CrearHistorialRequest.class).readValue(requestBody);
 
             // Validar usuario
             if (request.getUsuarioRegistro() == null || request.getUsuarioRegistro().trim().isEmpty()) {
@@ -175,14 +170,52 @@ public class HistorialReporteController {
     // GET: Obtener todos los historiales de reportes
     public void getAllHistorialReportes(Context ctx) {
         try {
+            // Con ?cursor= o ?limit= se devuelve una página en lugar de la lista completa
+            if (ctx.queryParam("cursor") != null || ctx.queryParam("limit") != null) {
+                ctx.json(historialReporteService.getHistorialReportesPagina(ctx.queryParam("cursor"),
+                        PaginaCursor.parseLimite(ctx.queryParam("limit"))));
+                return;
+            }
+
             List<HistorialReporte> historialesReportes = historialReporteService.getAllHistorialReportes();
             ctx.json(historialesReportes);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json("Error de paginación: " + e.getMessage());
         } catch (Exception e) {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .json("Error al obtener los historiales de reportes: " + e.getMessage());
         }
     }
 
+    // GET: Histograma por fecha (?granularidad=dia|semana|mes&cubetas=N)
+    public void getHistogramaHistoriales(Context ctx) {
+        try {
+            ctx.json(historialReporteService.getHistogramaHistoriales(
+                    Granularidad.parse(ctx.queryParam("granularidad")),
+                    Granularidad.parseCubetas(ctx.queryParam("cubetas"))));
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json(e.getMessage());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener el histograma de historiales de reportes: " + e.getMessage());
+        }
+    }
+
+    // GET: Exportar todos los historiales de reportes como array JSON en streaming (memoria constante)
+    public void exportarHistorialReportes(Context ctx) {
+        try {
+            JsonStreamUtil.escribirArray(ctx, HistorialReporte.class, historialReporteService::exportarHistorialReportes);
+        } catch (Exception e) {
+            log.error("Error al exportar los historiales de reportes", e);
+            if (!ctx.res().isCommitted()) {
+                ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .json("Error al exportar los historiales de reportes: " + e.getMessage());
+            }
+        }
+    }
+
     // GET: Obtener historial por ID
     public void getHistorialReporteById(Context ctx) {
         try {
@@ -209,7 +242,7 @@ public class HistorialReporteController {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
             String requestBody = ctx.body();
-            HistorialReporte historialActualizado = objectMapper.readValue(requestBody, HistorialReporte.class);
+            HistorialReporte historialActualizado = JsonConfig.readerFor(HistorialReporte.class).readValue(requestBody);
 
             // Validar campos requeridos
             if (historialActualizado.getNombreReporteHist() == null ||
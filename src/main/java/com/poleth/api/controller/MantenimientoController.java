@@ -1,12 +1,16 @@
 // MantenimientoController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Mantenimiento;
 import com.poleth.api.service.MantenimientoService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.poleth.api.util.JsonStreamUtil;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -14,13 +18,13 @@ import java.util.List;
 import java.util.Optional;
 
 public class MantenimientoController {
+
+    private static final Logger log = LoggerFactory.getLogger(MantenimientoController.class);
+
     private final MantenimientoService mantenimientoService;
-    private final ObjectMapper objectMapper;
 
     public MantenimientoController(MantenimientoService mantenimientoService) {
         this.mantenimientoService = mantenimientoService;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
     }
 
     // POST: Crear nuevo mantenimiento
@@ -28,7 +32,7 @@ public class MantenimientoController {
         try {
             // Leer JSON y mapear a objeto
             String requestBody = ctx.body();
-            Mantenimiento mantenimiento = objectMapper.readValue(requestBody, Mantenimiento.class);
+            Mantenimiento mantenimiento = JsonConfig.readerFor(Mantenimiento.class).readValue(requestBody);
 
             // Validar campos requeridos
             if (mantenimiento.getIdCuarto() == null) {
@@ -76,14 +80,52 @@ public class MantenimientoController {
     // GET: Obtener todos los mantenimientos
     public void getAllMantenimientos(Context ctx) {
         try {
+            // Con ?cursor= o ?limit= se devuelve una página en lugar de la lista completa
+            if (ctx.queryParam("cursor") != null || ctx.queryParam("limit") != null) {
+                ctx.json(mantenimientoService.getMantenimientosPagina(ctx.queryParam("cursor"),
+                        PaginaCursor.parseLimite(ctx.queryParam("limit"))));
+                return;
+            }
+
             List<Mantenimiento> mantenimientos = mantenimientoService.getAllMantenimientos();
             ctx.json(mantenimientos);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json("Error de paginación: " + e.getMessage());
         } catch (Exception e) {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .json("Error al obtener los mantenimientos: " + e.getMessage());
         }
     }
 
+    // GET: Histograma por fecha (?granularidad=dia|semana|mes&cubetas=N)
+    public void getHistogramaMantenimientos(Context ctx) {
+        try {
+            ctx.json(mantenimientoService.getHistogramaMantenimientos(
+                    Granularidad.parse(ctx.queryParam("granularidad")),
+                    Granularidad.parseCubetas(ctx.queryParam("cubetas"))));
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json(e.getMessage());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener el histograma de mantenimientos: " + e.getMessage());
+        }
+    }
+
+    // GET: Exportar todos los mantenimientos como array JSON en streaming (memoria constante)
+    public void exportarMantenimientos(Context ctx) {
+        try {
+            JsonStreamUtil.escribirArray(ctx, Mantenimiento.class, mantenimientoService::exportarMantenimientos);
+        } catch (Exception e) {
+            log.error("Error al exportar los mantenimientos", e);
+            if (!ctx.res().isCommitted()) {
+                ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .json("Error al exportar los mantenimientos: " + e.getMessage());
+            }
+        }
+    }
+
     // GET: Obtener mantenimiento por ID
     public void getMantenimientoById(Context ctx) {
         try {
@@ -143,6 +185,16 @@ public class MantenimientoController {
         }
     }
 
+    // GET: Estadísticas de mantenimientos (totales, por estado y costo total)
+    public void getEstadisticasMantenimientos(Context ctx) {
+        try {
+            ctx.json(mantenimientoService.getEstadisticasMantenimientos());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las estadísticas de mantenimientos: " + e.getMessage());
+        }
+    }
+
     // GET: Obtener mantenimientos completados
     public void getMantenimientosCompletados(Context ctx) {
         try {
@@ -172,7 +224,7 @@ public class MantenimientoController {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
             String requestBody = ctx.body();
-            Mantenimiento mantenimientoActualizado = objectMapper.readValue(requestBody, Mantenimiento.class);
+            Mantenimiento mantenimientoActualizado = JsonConfig.readerFor(Mantenimiento.class).readValue(requestBody);
 
             // Validar campos requeridos
             if (mantenimientoActualizado.getIdCuarto() == null) {
@@ -215,7 +267,7 @@ public class MantenimientoController {
             String requestBody = ctx.body();
 
             // Parsear request body manualmente
-            AtenderMantenimientoRequest request = objectMapper.readValue(requestBody, AtenderMantenimientoRequest.class);
+            AtenderMantenimientoRequest request = JsonConfig.readerFor(AtenderMantenimientoRequest.class).readValue(requestBody);
 
             // Validar campos requeridos
             if (request.getFechaAtencion() == null) {
@@ -248,7 +300,7 @@ public class MantenimientoController {
         try {
             Integer idMantenimiento = Integer.parseInt(ctx.pathParam("id"));
             String requestBody = ctx.body();
-            EstadoMantenimientoRequest request = objectMapper.readValue(requestBody, EstadoMantenimientoRequest.class);
+            EstadoMantenimientoRequest request = JsonConfig.readerFor(EstadoMantenimientoRequest.class).readValue(requestBody);
 
             // Validar campo requerido
             if (request.getEstado() == null || request.getEstado().trim().isEmpty()) {
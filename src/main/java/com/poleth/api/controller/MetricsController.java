@@ -0,0 +1,100 @@
+// MetricsController.java
+package com.poleth.api.controller;
+
+import com.poleth.api.config.AsesorIndices;
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.config.RegistroConsultas;
+import com.poleth.api.estadisticas.ContadorNoLeidas;
+import com.poleth.api.eventos.BusNotificaciones;
+import com.poleth.api.middleware.AuthMiddleware;
+import com.poleth.api.tareas.BarridoContratos;
+import com.poleth.api.util.PasswordUtil;
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class MetricsController {
+
+    // GET: Métricas del pool de conexiones
+    public void getPoolMetrics(Context ctx) {
+        try {
+            ctx.json(DatabaseConfig.getPoolMetrics());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las métricas del pool: " + e.getMessage());
+        }
+    }
+
+    // GET: Aciertos y fallos de la caché de segundo nivel y de consultas
+    public void getCacheMetrics(Context ctx) {
+        try {
+            ctx.json(DatabaseConfig.getCacheMetrics());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las métricas de la caché: " + e.getMessage());
+        }
+    }
+
+    // GET: Tiempo de verificación de tokens y peticiones rechazadas
+    public void getAuthMetrics(Context ctx) {
+        try {
+            ctx.json(AuthMiddleware.getMetrics());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las métricas de autenticación: " + e.getMessage());
+        }
+    }
+
+    // GET: Estado y latencias del pool de BCrypt
+    public void getPasswordMetrics(Context ctx) {
+        try {
+            ctx.json(PasswordUtil.getMetrics());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las métricas de contraseñas: " + e.getMessage());
+        }
+    }
+
+    // GET: Consultas analizadas con EXPLAIN, recorridos completos e índices que faltan
+    public void getIndexMetrics(Context ctx) {
+        try {
+            ctx.json(AsesorIndices.getMetrics());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las métricas de índices: " + e.getMessage());
+        }
+    }
+
+    // GET: Histogramas de tiempo por consulta SQL y consultas lentas
+    public void getQueryMetrics(Context ctx) {
+        try {
+            ctx.json(RegistroConsultas.getMetrics());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las métricas de consultas: " + e.getMessage());
+        }
+    }
+
+    // GET: Conexiones push de notificaciones, mensajes enviados y contador de no leídas
+    public void getPushMetrics(Context ctx) {
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>(BusNotificaciones.getMetrics());
+            metrics.put("contadorNoLeidas", ContadorNoLeidas.getMetrics());
+            ctx.json(metrics);
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las métricas de notificaciones push: " + e.getMessage());
+        }
+    }
+
+    // GET: Última ejecución de cada tarea del barrido de contratos
+    public void getBarridoMetrics(Context ctx) {
+        try {
+            ctx.json(BarridoContratos.getMetrics());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener las métricas del barrido de contratos: " + e.getMessage());
+        }
+    }
+}
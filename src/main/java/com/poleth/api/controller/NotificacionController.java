@@ -1,28 +1,44 @@
 // NotificacionController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.dto.DifusionNotificacion;
+import com.poleth.api.dto.NotificacionResumen;
+import com.poleth.api.dto.PaginaCursor;
+import com.poleth.api.dto.ResultadoLote;
+import com.poleth.api.eventos.BusNotificaciones;
+import com.poleth.api.middleware.AuthMiddleware;
 import com.poleth.api.model.Notificacion;
 import com.poleth.api.service.NotificacionService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poleth.api.util.TokenPrincipal;
+import io.javalin.http.BadRequestResponse;
 import io.javalin.http.Context;
+import io.javalin.http.ForbiddenResponse;
 import io.javalin.http.HttpStatus;
+import io.javalin.websocket.WsConfig;
+import io.javalin.websocket.WsContext;
 import java.sql.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 public class NotificacionController {
+    private static final String SUSCRIPCION = "suscripcion";
+    private static final long PING_SEGUNDOS = DatabaseConfig.getLongProperty("notificaciones.push.ping-segundos", 30);
+
     private final NotificacionService notificacionService;
-    private final ObjectMapper objectMapper;
 
     public NotificacionController(NotificacionService notificacionService) {
         this.notificacionService = notificacionService;
-        this.objectMapper = new ObjectMapper();
     }
 
     // POST: Crear nueva notificación
     public void createNotificacion(Context ctx) {
         try {
-            Notificacion notificacion = objectMapper.readValue(ctx.body(), Notificacion.class);
+            Notificacion notificacion = JsonConfig.readerFor(Notificacion.class).readValue(ctx.body());
 
             Notificacion savedNotificacion = notificacionService.createNotificacion(notificacion);
             ctx.status(HttpStatus.CREATED)
@@ -36,11 +52,28 @@ public class NotificacionController {
         }
     }
 
+    // POST: Crear la misma notificación para varios contratos o inquilinos
+    public void difundirNotificacion(Context ctx) {
+        try {
+            DifusionNotificacion difusion = JsonConfig.readerFor(DifusionNotificacion.class).readValue(ctx.body());
+
+            ResultadoLote resultado = notificacionService.difundirNotificacion(difusion);
+            ctx.status(resultado.getGuardados() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST)
+                    .json(resultado);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json(new ErrorResponse("Error al difundir la notificación: " + e.getMessage()));
+        }
+    }
+
     // PUT: Actualizar notificación
     public void updateNotificacion(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            Notificacion notificacion = objectMapper.readValue(ctx.body(), Notificacion.class);
+            Notificacion notificacion = JsonConfig.readerFor(Notificacion.class).readValue(ctx.body());
 
             Notificacion updatedNotificacion = notificacionService.updateNotificacion(id, notificacion);
             ctx.json(updatedNotificacion);
@@ -74,11 +107,41 @@ public class NotificacionController {
         }
     }
 
+    // PATCH: Marcar como leídas todas las notificaciones de un inquilino
+    public void marcarTodasComoLeidas(Context ctx) {
+        try {
+            Integer idInquilino = Integer.parseInt(ctx.pathParam("idInquilino"));
+            if (!autorizarInquilino(ctx, idInquilino)) {
+                return;
+            }
+            int actualizadas = notificacionService.marcarTodasComoLeidas(idInquilino);
+            Map<String, Object> respuesta = new LinkedHashMap<>();
+            respuesta.put("actualizadas", actualizadas);
+            ctx.json(respuesta);
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json(new ErrorResponse("ID de inquilino inválido"));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json(new ErrorResponse("Error al marcar las notificaciones como leídas: " + e.getMessage()));
+        }
+    }
+
     // GET: Obtener todas las notificaciones
     public void getAllNotificaciones(Context ctx) {
         try {
-            List<Notificacion> notificaciones = notificacionService.getAllNotificaciones();
+            // Con ?cursor= o ?limit= se devuelve una página en lugar de la lista completa
+            if (ctx.queryParam("cursor") != null || ctx.queryParam("limit") != null) {
+                ctx.json(notificacionService.getNotificacionesPagina(ctx.queryParam("cursor"),
+                        PaginaCursor.parseLimite(ctx.queryParam("limit"))));
+                return;
+            }
+
+            List<NotificacionResumen> notificaciones = notificacionService.getAllNotificaciones();
             ctx.json(notificaciones);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .json(new ErrorResponse("Error al obtener las notificaciones: " + e.getMessage()));
@@ -110,7 +173,10 @@ public class NotificacionController {
     public void getNotificacionesByInquilino(Context ctx) {
         try {
             Integer idInquilino = Integer.parseInt(ctx.pathParam("idInquilino"));
-            List<Notificacion> notificaciones = notificacionService.getNotificacionesByInquilino(idInquilino);
+            if (!autorizarInquilino(ctx, idInquilino)) {
+                return;
+            }
+            List<NotificacionResumen> notificaciones = notificacionService.getNotificacionesByInquilino(idInquilino);
             ctx.json(notificaciones);
         } catch (NumberFormatException e) {
             ctx.status(HttpStatus.BAD_REQUEST)
@@ -125,7 +191,7 @@ public class NotificacionController {
     public void getNotificacionesByContrato(Context ctx) {
         try {
             Integer idContrato = Integer.parseInt(ctx.pathParam("idContrato"));
-            List<Notificacion> notificaciones = notificacionService.getNotificacionesByContrato(idContrato);
+            List<NotificacionResumen> notificaciones = notificacionService.getNotificacionesByContrato(idContrato);
             ctx.json(notificaciones);
         } catch (NumberFormatException e) {
             ctx.status(HttpStatus.BAD_REQUEST)
@@ -142,7 +208,7 @@ public class NotificacionController {
             String fechaStr = ctx.pathParam("fecha");
             Date fecha = Date.valueOf(fechaStr);
 
-            List<Notificacion> notificaciones = notificacionService.getNotificacionesByFechaUtilizacion(fecha);
+            List<NotificacionResumen> notificaciones = notificacionService.getNotificacionesByFechaUtilizacion(fecha);
             ctx.json(notificaciones);
         } catch (IllegalArgumentException e) {
             ctx.status(HttpStatus.BAD_REQUEST)
@@ -157,7 +223,10 @@ public class NotificacionController {
     public void getNotificacionesNoLeidasByInquilino(Context ctx) {
         try {
             Integer idInquilino = Integer.parseInt(ctx.pathParam("idInquilino"));
-            List<Notificacion> notificaciones = notificacionService.getNotificacionesNoLeidasByInquilino(idInquilino);
+            if (!autorizarInquilino(ctx, idInquilino)) {
+                return;
+            }
+            List<NotificacionResumen> notificaciones = notificacionService.getNotificacionesNoLeidasByInquilino(idInquilino);
             ctx.json(notificaciones);
         } catch (NumberFormatException e) {
             ctx.status(HttpStatus.BAD_REQUEST)
@@ -172,6 +241,9 @@ public class NotificacionController {
     public void getContadorNoLeidasByInquilino(Context ctx) {
         try {
             Integer idInquilino = Integer.parseInt(ctx.pathParam("idInquilino"));
+            if (!autorizarInquilino(ctx, idInquilino)) {
+                return;
+            }
             Long count = notificacionService.contarNotificacionesNoLeidasByInquilino(idInquilino);
             ctx.json(new ContadorResponse(count));
         } catch (NumberFormatException e) {
@@ -183,6 +255,62 @@ public class NotificacionController {
         }
     }
 
+    // WS (antes de abrir): token en la cabecera o en ?token=, y solo el propio inquilino o un administrador
+    public void autorizarPush(Context ctx) {
+        TokenPrincipal principal = AuthMiddleware.autenticarConexion(ctx);
+        Integer idInquilino;
+        try {
+            idInquilino = Integer.parseInt(ctx.pathParam("idInquilino"));
+        } catch (NumberFormatException e) {
+            throw new BadRequestResponse("ID de inquilino inválido");
+        }
+        if (!esPropioOAdministrador(principal, idInquilino)) {
+            throw new ForbiddenResponse("Solo se pueden recibir las notificaciones propias");
+        }
+    }
+
+    // Las rutas /inquilino/{idInquilino}/... solo las usa el propio inquilino o un administrador
+    private boolean autorizarInquilino(Context ctx, Integer idInquilino) {
+        if (!esPropioOAdministrador(AuthMiddleware.getPrincipal(ctx), idInquilino)) {
+            ctx.status(HttpStatus.FORBIDDEN)
+                    .json(new ErrorResponse("Solo se pueden consultar o modificar las notificaciones propias"));
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean esPropioOAdministrador(TokenPrincipal principal, Integer idInquilino) {
+        return principal != null
+                && (idInquilino.equals(principal.getIdUsuario()) || AuthMiddleware.esAdministrador(principal));
+    }
+
+    // WS: Eventos de las notificaciones del inquilino (creada, actualizada, leida, leidas-todas, eliminada)
+    public void pushNotificaciones(WsConfig ws) {
+        ws.onConnect(ctx -> {
+            Integer idInquilino = Integer.parseInt(ctx.pathParam("idInquilino"));
+            ctx.enableAutomaticPings(PING_SEGUNDOS, TimeUnit.SECONDS);
+            BusNotificaciones.Suscripcion suscripcion =
+                    BusNotificaciones.suscribir(idInquilino, ctx.session.getRemote()::sendString);
+            ctx.attribute(SUSCRIPCION, suscripcion);
+
+            // Estado inicial: un solo COUNT por conexión en lugar de uno por sondeo.
+            // Los eventos "creada" que lleguen antes ya están incluidos en este contador
+            Map<String, Object> contador = new LinkedHashMap<>();
+            contador.put("tipo", "contador");
+            contador.put("noLeidas", notificacionService.contarNotificacionesNoLeidasByInquilino(idInquilino));
+            BusNotificaciones.enviarA(suscripcion, contador);
+        });
+        ws.onClose(this::cancelarPush);
+        ws.onError(this::cancelarPush);
+    }
+
+    private void cancelarPush(WsContext ctx) {
+        BusNotificaciones.Suscripcion suscripcion = ctx.attribute(SUSCRIPCION);
+        if (suscripcion != null) {
+            suscripcion.cancelar();
+        }
+    }
+
     // GET: Obtener notificaciones recientes
     public void getNotificacionesRecientes(Context ctx) {
         try {
@@ -193,7 +321,7 @@ public class NotificacionController {
                 throw new IllegalArgumentException("El límite debe estar entre 1 y 100");
             }
 
-            List<Notificacion> notificaciones = notificacionService.getNotificacionesRecientes(limite);
+            List<NotificacionResumen> notificaciones = notificacionService.getNotificacionesRecientes(limite);
             ctx.json(notificaciones);
         } catch (NumberFormatException e) {
             ctx.status(HttpStatus.BAD_REQUEST)
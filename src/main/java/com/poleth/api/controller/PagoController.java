@@ -1,37 +1,38 @@
 // PagoController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
+import com.poleth.api.dto.ResultadoLote;
 import com.poleth.api.model.Pago;
 import com.poleth.api.service.PagoService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.poleth.api.util.JsonStreamUtil;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 public class PagoController {
+
+    private static final Logger log = LoggerFactory.getLogger(PagoController.class);
+
     private final PagoService pagoService;
-    private final ObjectMapper objectMapper;
 
     public PagoController(PagoService pagoService) {
         this.pagoService = pagoService;
-        this.objectMapper = new ObjectMapper();
-
-        // Registrar el módulo para manejar LocalDate, LocalDateTime, etc.
-        this.objectMapper.registerModule(new JavaTimeModule());
-
-        // Esto es importante para que no serialice fechas como timestamps
-        this.objectMapper.findAndRegisterModules();
     }
 
     // POST: Crear nuevo pago
     public void createPago(Context ctx) {
         try {
-            Pago pago = objectMapper.readValue(ctx.body(), Pago.class);
+            Pago pago = JsonConfig.readerFor(Pago.class).readValue(ctx.body());
 
             Pago savedPago = pagoService.createPago(pago);
             ctx.status(HttpStatus.CREATED)
@@ -45,16 +46,71 @@ public class PagoController {
         }
     }
 
+    // POST: Crear varios pagos en una sola transacción (body: array de pagos)
+    public void createPagosBatch(Context ctx) {
+        try {
+            List<Pago> pagos = Arrays.asList(JsonConfig.readerFor(Pago[].class).readValue(ctx.body()));
+
+            ResultadoLote resultado = pagoService.createPagos(pagos);
+            ctx.status(resultado.getGuardados() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST)
+                    .json(resultado);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json("Error de validación: " + e.getMessage());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json("Error al crear el lote de pagos: " + e.getMessage());
+        }
+    }
+
     // GET: Obtener todos los pagos
     public void getAllPagos(Context ctx) {
         try {
+            // Con ?cursor= o ?limit= se devuelve una página en lugar de la lista completa
+            if (ctx.queryParam("cursor") != null || ctx.queryParam("limit") != null) {
+                ctx.json(pagoService.getPagosPagina(ctx.queryParam("cursor"),
+                        PaginaCursor.parseLimite(ctx.queryParam("limit"))));
+                return;
+            }
+
             ctx.json(pagoService.getAllPagos());
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json("Error de paginación: " + e.getMessage());
         } catch (Exception e) {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .json("Error al obtener los pagos: " + e.getMessage());
         }
     }
 
+    // GET: Histograma por fecha (?granularidad=dia|semana|mes&cubetas=N)
+    public void getHistogramaPagos(Context ctx) {
+        try {
+            ctx.json(pagoService.getHistogramaPagos(
+                    Granularidad.parse(ctx.queryParam("granularidad")),
+                    Granularidad.parseCubetas(ctx.queryParam("cubetas"))));
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json(e.getMessage());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener el histograma de pagos: " + e.getMessage());
+        }
+    }
+
+    // GET: Exportar todos los pagos como array JSON en streaming (memoria constante)
+    public void exportarPagos(Context ctx) {
+        try {
+            JsonStreamUtil.escribirArray(ctx, Pago.class, pagoService::exportarPagos);
+        } catch (Exception e) {
+            log.error("Error al exportar los pagos", e);
+            if (!ctx.res().isCommitted()) {
+                ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .json("Error al exportar los pagos: " + e.getMessage());
+            }
+        }
+    }
+
     // GET: Obtener pago por ID
     public void getPagoById(Context ctx) {
         try {
@@ -236,7 +292,7 @@ public class PagoController {
     public void updatePago(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            Pago pagoActualizado = objectMapper.readValue(ctx.body(), Pago.class);
+            Pago pagoActualizado = JsonConfig.readerFor(Pago.class).readValue(ctx.body());
 
             Pago updatedPago = pagoService.updatePago(id, pagoActualizado);
             ctx.json(updatedPago);
@@ -259,7 +315,7 @@ public class PagoController {
             String body = ctx.body();
 
             // Extraer nuevoEstado del cuerpo JSON
-            String nuevoEstado = objectMapper.readTree(body).get("estado_pago").asText();
+            String nuevoEstado = JsonConfig.getMapper().readTree(body).get("estado_pago").asText();
 
             Pago pago = pagoService.cambiarEstadoPago(idPago, nuevoEstado);
             ctx.json(pago);
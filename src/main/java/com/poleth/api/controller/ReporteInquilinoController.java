@@ -1,14 +1,16 @@
 //ReporteInquilinoController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.ReporteInquilino;
 import com.poleth.api.service.ReporteInquilinoService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.poleth.api.util.JsonStreamUtil;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -17,27 +19,20 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ReporteInquilinoController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReporteInquilinoController.class);
+
     private final ReporteInquilinoService reporteInquilinoService;
-    private final ObjectMapper objectMapper;
 
     public ReporteInquilinoController(ReporteInquilinoService reporteInquilinoService) {
         this.reporteInquilinoService = reporteInquilinoService;
-        this.objectMapper = createConfiguredObjectMapper();
-    }
-
-    private ObjectMapper createConfiguredObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        return mapper;
     }
 
     // POST: Crear nuevo reporte de inquilino
     public void createReporteInquilino(Context ctx) {
         try {
             String requestBody = ctx.body();
-            ReporteInquilino reporteInquilino = objectMapper.readValue(requestBody, ReporteInquilino.class);
+            ReporteInquilino reporteInquilino = JsonConfig.readerFor(ReporteInquilino.class).readValue(requestBody);
 
             // Validar campos requeridos
             if (reporteInquilino.getIdInquilino() == null) {
@@ -90,14 +85,52 @@ public class ReporteInquilinoController {
     // GET: Obtener todos los reportes de inquilinos
     public void getAllReportesInquilinos(Context ctx) {
         try {
+            // Con ?cursor= o ?limit= se devuelve una página en lugar de la lista completa
+            if (ctx.queryParam("cursor") != null || ctx.queryParam("limit") != null) {
+                ctx.json(reporteInquilinoService.getReportesInquilinosPagina(ctx.queryParam("cursor"),
+                        PaginaCursor.parseLimite(ctx.queryParam("limit"))));
+                return;
+            }
+
             List<ReporteInquilino> reportesInquilinos = reporteInquilinoService.getAllReportesInquilinos();
             ctx.json(reportesInquilinos);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json("Error de paginación: " + e.getMessage());
         } catch (Exception e) {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .json("Error al obtener los reportes de inquilinos: " + e.getMessage());
         }
     }
 
+    // GET: Histograma por fecha (?granularidad=dia|semana|mes&cubetas=N)
+    public void getHistogramaReportes(Context ctx) {
+        try {
+            ctx.json(reporteInquilinoService.getHistogramaReportes(
+                    Granularidad.parse(ctx.queryParam("granularidad")),
+                    Granularidad.parseCubetas(ctx.queryParam("cubetas"))));
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json(e.getMessage());
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener el histograma de reportes de inquilinos: " + e.getMessage());
+        }
+    }
+
+    // GET: Exportar todos los reportes de inquilinos como array JSON en streaming (memoria constante)
+    public void exportarReportesInquilinos(Context ctx) {
+        try {
+            JsonStreamUtil.escribirArray(ctx, ReporteInquilino.class, reporteInquilinoService::exportarReportesInquilinos);
+        } catch (Exception e) {
+            log.error("Error al exportar los reportes de inquilinos", e);
+            if (!ctx.res().isCommitted()) {
+                ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .json("Error al exportar los reportes de inquilinos: " + e.getMessage());
+            }
+        }
+    }
+
     // GET: Obtener reporte por ID
     public void getReporteInquilinoById(Context ctx) {
         try {
@@ -124,7 +157,7 @@ public class ReporteInquilinoController {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
             String requestBody = ctx.body();
-            ReporteInquilino reporteActualizado = objectMapper.readValue(requestBody, ReporteInquilino.class);
+            ReporteInquilino reporteActualizado = JsonConfig.readerFor(ReporteInquilino.class).readValue(requestBody);
 
             // Validar campos requeridos
             if (reporteActualizado.getIdInquilino() == null) {
@@ -172,7 +205,7 @@ public class ReporteInquilinoController {
             String requestBody = ctx.body();
 
             // Parsear request body
-            CerrarReporteRequest request = objectMapper.readValue(requestBody, CerrarReporteRequest.class);
+            CerrarReporteRequest request = JsonConfig.readerFor(CerrarReporteRequest.class).readValue(requestBody);
 
             // Validar acciones tomadas
             if (request.getAccionesTomadas() == null || request.getAccionesTomadas().trim().isEmpty()) {
@@ -204,7 +237,7 @@ public class ReporteInquilinoController {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
             String requestBody = ctx.body();
-            EstadoReporteRequest request = objectMapper.readValue(requestBody, EstadoReporteRequest.class);
+            EstadoReporteRequest request = JsonConfig.readerFor(EstadoReporteRequest.class).readValue(requestBody);
 
             // Validar campo requerido
             if (request.getEstado() == null || request.getEstado().trim().isEmpty()) {
@@ -302,6 +335,17 @@ public class ReporteInquilinoController {
         }
     }
 
+    // GET: Cola de reportes urgentes abiertos, ordenada por prioridad y fecha
+    public void getReportesUrgentes(Context ctx) {
+        try {
+            List<ReporteInquilino> reportes = reporteInquilinoService.getReportesUrgentes();
+            ctx.json(reportes);
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .json("Error al obtener reportes urgentes: " + e.getMessage());
+        }
+    }
+
     // GET: Obtener reportes cerrados
     public void getReportesCerrados(Context ctx) {
         try {
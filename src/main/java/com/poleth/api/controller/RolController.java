@@ -1,9 +1,9 @@
 // RolController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
 import com.poleth.api.model.Rol;
 import com.poleth.api.service.RolService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 
@@ -11,17 +11,15 @@ import java.util.Optional;
 
 public class RolController {
     private final RolService rolService;
-    private final ObjectMapper objectMapper;
 
     public RolController(RolService rolService) {
         this.rolService = rolService;
-        this.objectMapper = new ObjectMapper();
     }
 
     // Crear un nuevo rol
     public void createRol(Context ctx) {
         try {
-            Rol rol = objectMapper.readValue(ctx.body(), Rol.class);
+            Rol rol = JsonConfig.readerFor(Rol.class).readValue(ctx.body());
 
             // Validar que el título no esté vacío
             if (rol.getTitulo() == null || rol.getTitulo().trim().isEmpty()) {
@@ -99,7 +97,7 @@ public class RolController {
     public void updateRol(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            Rol rol = objectMapper.readValue(ctx.body(), Rol.class);
+            Rol rol = JsonConfig.readerFor(Rol.class).readValue(ctx.body());
 
             Rol updatedRol = rolService.updateRol(id, rol);
             ctx.json(updatedRol);
@@ -1,9 +1,14 @@
 //UsuarioController.java
 package com.poleth.api.controller;
 
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.dto.PaginaCursor;
+import com.poleth.api.middleware.AuthMiddleware;
 import com.poleth.api.model.Usuario;
 import com.poleth.api.service.UsuarioService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poleth.api.util.AccesoDenegadoException;
+import com.poleth.api.util.ServicioSaturadoException;
+import com.poleth.api.util.TokenPrincipal;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 
@@ -12,17 +17,15 @@ import java.util.Optional;
 
 public class UsuarioController {
     private final UsuarioService usuarioService;
-    private final ObjectMapper objectMapper;
 
     public UsuarioController(UsuarioService usuarioService) {
         this.usuarioService = usuarioService;
-        this.objectMapper = new ObjectMapper();
     }
 
     // Método para login
     public void login(Context ctx) {
         try {
-            LoginRequest loginRequest = objectMapper.readValue(ctx.body(), LoginRequest.class);
+            LoginRequest loginRequest = JsonConfig.readerFor(LoginRequest.class).readValue(ctx.body());
 
             // Validaciones básicas
             if (loginRequest.getUsername() == null || loginRequest.getUsername().trim().isEmpty()) {
@@ -49,6 +52,10 @@ public class UsuarioController {
             ctx.status(HttpStatus.OK)
                     .json(response);
 
+        } catch (ServicioSaturadoException e) {
+            ctx.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "1")
+                    .json(new LoginResponse(false, e.getMessage(), null, null));
         } catch (IllegalArgumentException e) {
             ctx.status(HttpStatus.UNAUTHORIZED)
                     .json(new LoginResponse(false, e.getMessage(), null, null));
@@ -58,10 +65,21 @@ public class UsuarioController {
         }
     }
 
+    // GET: Datos del usuario autenticado, tomados del token (sin consultar la base de datos)
+    public void getUsuarioActual(Context ctx) {
+        TokenPrincipal principal = AuthMiddleware.getPrincipal(ctx);
+        if (principal == null) {
+            ctx.status(HttpStatus.UNAUTHORIZED)
+                    .json("No hay un usuario autenticado");
+            return;
+        }
+        ctx.json(principal);
+    }
+
     // Crear un nuevo usuario
     public void createUsuario(Context ctx) {
         try {
-            Usuario usuario = objectMapper.readValue(ctx.body(), Usuario.class);
+            Usuario usuario = JsonConfig.readerFor(Usuario.class).readValue(ctx.body());
 
             // Validaciones básicas
             if (usuario.getUsername() == null || usuario.getUsername().trim().isEmpty()) {
@@ -82,16 +100,15 @@ public class UsuarioController {
                 return;
             }
 
-            if (usuario.getRol() == null || usuario.getRol().getIdRoles() == null) {
-                ctx.status(HttpStatus.BAD_REQUEST)
-                        .json("El rol es requerido");
-                return;
-            }
-
-            Usuario savedUsuario = usuarioService.createUsuario(usuario);
+            // El registro es público: el rol del cuerpo solo se respeta si lo crea un administrador
+            boolean esAdministrador = AuthMiddleware.esAdministrador(AuthMiddleware.getPrincipal(ctx));
+            Usuario savedUsuario = usuarioService.createUsuario(usuario, esAdministrador);
             ctx.status(HttpStatus.CREATED)
                     .json(savedUsuario);
         } catch (Exception e) {
+            if (responderSiSaturado(ctx, e)) {
+                return;
+            }
             ctx.status(HttpStatus.BAD_REQUEST)
                     .json("Error al crear el usuario: " + e.getMessage());
         }
@@ -100,7 +117,17 @@ public class UsuarioController {
     // Obtener todos los usuarios
     public void getAllUsuarios(Context ctx) {
         try {
+            // Con ?cursor= o ?limit= se devuelve una página en lugar de la lista completa
+            if (ctx.queryParam("cursor") != null || ctx.queryParam("limit") != null) {
+                ctx.json(usuarioService.getUsuariosPagina(ctx.queryParam("cursor"),
+                        PaginaCursor.parseLimite(ctx.queryParam("limit"))));
+                return;
+            }
+
             ctx.json(usuarioService.getAllUsuarios());
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json("Error de paginación: " + e.getMessage());
         } catch (Exception e) {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .json("Error al obtener los usuarios: " + e.getMessage());
@@ -168,17 +195,27 @@ public class UsuarioController {
     public void updateUsuario(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            Usuario usuario = objectMapper.readValue(ctx.body(), Usuario.class);
+            if (!autorizarModificacion(ctx, id)) {
+                return;
+            }
+            Usuario usuario = JsonConfig.readerFor(Usuario.class).readValue(ctx.body());
 
-            Usuario updatedUsuario = usuarioService.updateUsuario(id, usuario);
+            boolean esAdministrador = AuthMiddleware.esAdministrador(AuthMiddleware.getPrincipal(ctx));
+            Usuario updatedUsuario = usuarioService.updateUsuario(id, usuario, esAdministrador);
             ctx.json(updatedUsuario);
         } catch (NumberFormatException e) {
             ctx.status(HttpStatus.BAD_REQUEST)
                     .json("ID de usuario inválido");
+        } catch (AccesoDenegadoException e) {
+            ctx.status(HttpStatus.FORBIDDEN)
+                    .json(e.getMessage());
         } catch (IllegalArgumentException e) {
             ctx.status(HttpStatus.BAD_REQUEST)
                     .json("Error al actualizar el usuario: " + e.getMessage());
         } catch (Exception e) {
+            if (responderSiSaturado(ctx, e)) {
+                return;
+            }
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .json("Error al actualizar el usuario: " + e.getMessage());
         }
@@ -188,6 +225,9 @@ public class UsuarioController {
     public void deleteUsuario(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
+            if (!autorizarModificacion(ctx, id)) {
+                return;
+            }
 
             // Verificar si el usuario existe antes de eliminarlo
             Optional<Usuario> usuario = usuarioService.getUsuarioById(id);
@@ -236,7 +276,10 @@ public class UsuarioController {
     public void cambiarEstadoUsuario(Context ctx) {
         try {
             Integer id = Integer.parseInt(ctx.pathParam("id"));
-            CambioEstadoRequest request = objectMapper.readValue(ctx.body(), CambioEstadoRequest.class);
+            if (!autorizarModificacion(ctx, id)) {
+                return;
+            }
+            CambioEstadoRequest request = JsonConfig.readerFor(CambioEstadoRequest.class).readValue(ctx.body());
 
             Usuario usuarioActualizado = usuarioService.cambiarEstadoUsuario(id, request.getEstado());
             ctx.json(usuarioActualizado);
@@ -252,6 +295,22 @@ public class UsuarioController {
         }
     }
 
+    // Solo el propio usuario o un administrador pueden modificar o eliminar una cuenta
+    private boolean autorizarModificacion(Context ctx, Integer idUsuario) {
+        TokenPrincipal principal = AuthMiddleware.getPrincipal(ctx);
+        if (principal == null) {
+            ctx.status(HttpStatus.UNAUTHORIZED)
+                    .json("No hay un usuario autenticado");
+            return false;
+        }
+        if (!idUsuario.equals(principal.getIdUsuario()) && !AuthMiddleware.esAdministrador(principal)) {
+            ctx.status(HttpStatus.FORBIDDEN)
+                    .json("Solo el propio usuario o un administrador pueden modificar esta cuenta");
+            return false;
+        }
+        return true;
+    }
+
     // Obtener usuarios por estado
     public void getUsuariosByEstado(Context ctx) {
         try {
@@ -279,6 +338,18 @@ public class UsuarioController {
         }
     }
 
+    // El hash de la contraseña ocurre al leer el JSON, así que la saturación puede venir envuelta
+    private boolean responderSiSaturado(Context ctx, Exception e) {
+        ServicioSaturadoException saturado = ServicioSaturadoException.buscarEn(e);
+        if (saturado == null) {
+            return false;
+        }
+        ctx.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .json(saturado.getMessage());
+        return true;
+    }
+
     // Clases internas para requests/responses
     private static class LoginRequest {
         private String username;
@@ -0,0 +1,22 @@
+// ConteoAgrupado.java
+package com.poleth.api.dto;
+
+// Fila de una consulta agregada: valor de la columna agrupada y cuántas filas lo tienen
+// (se construye desde JPQL con SELECT new com.poleth.api.dto.ConteoAgrupado(..., COUNT(...)))
+public class ConteoAgrupado {
+    private final String clave;
+    private final long total;
+
+    public ConteoAgrupado(String clave, Long total) {
+        this.clave = clave;
+        this.total = total != null ? total : 0L;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
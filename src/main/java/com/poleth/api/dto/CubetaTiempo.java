@@ -0,0 +1,38 @@
+// CubetaTiempo.java
+package com.poleth.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Una cubeta de un histograma por fecha: [inicio, fin) con su cantidad y, si aplica, la suma de un monto
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CubetaTiempo {
+    private final LocalDate inicio;
+    private final LocalDate fin;
+    private final long cantidad;
+    private final BigDecimal suma;
+
+    public CubetaTiempo(LocalDate inicio, LocalDate fin, long cantidad, BigDecimal suma) {
+        this.inicio = inicio;
+        this.fin = fin;
+        this.cantidad = cantidad;
+        this.suma = suma;
+    }
+
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public LocalDate getFin() {
+        return fin;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public BigDecimal getSuma() {
+        return suma;
+    }
+}
@@ -0,0 +1,55 @@
+// DifusionNotificacion.java
+package com.poleth.api.dto;
+
+import java.sql.Date;
+import java.util.List;
+
+// Cuerpo de POST /api/notificaciones/broadcast: el mismo contenido para varios destinatarios,
+// indicados por contrato (idsContrato) o por inquilino (idsInquilino), pero no de las dos formas a la vez
+public class DifusionNotificacion {
+    private List<Integer> idsContrato;
+    private List<Integer> idsInquilino;
+    private String tipoNotificacion;
+    private String detalles;
+    private Date fechaUtilizacion;
+
+    public List<Integer> getIdsContrato() {
+        return idsContrato;
+    }
+
+    public void setIdsContrato(List<Integer> idsContrato) {
+        this.idsContrato = idsContrato;
+    }
+
+    public List<Integer> getIdsInquilino() {
+        return idsInquilino;
+    }
+
+    public void setIdsInquilino(List<Integer> idsInquilino) {
+        this.idsInquilino = idsInquilino;
+    }
+
+    public String getTipoNotificacion() {
+        return tipoNotificacion;
+    }
+
+    public void setTipoNotificacion(String tipoNotificacion) {
+        this.tipoNotificacion = tipoNotificacion;
+    }
+
+    public String getDetalles() {
+        return detalles;
+    }
+
+    public void setDetalles(String detalles) {
+        this.detalles = detalles;
+    }
+
+    public Date getFechaUtilizacion() {
+        return fechaUtilizacion;
+    }
+
+    public void setFechaUtilizacion(Date fechaUtilizacion) {
+        this.fechaUtilizacion = fechaUtilizacion;
+    }
+}
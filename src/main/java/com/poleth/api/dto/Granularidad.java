@@ -0,0 +1,61 @@
+// Granularidad.java
+package com.poleth.api.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Tamaño de cubeta de los histogramas por fecha (semanas ISO: empiezan en lunes)
+public enum Granularidad {
+    DIA, SEMANA, MES;
+
+    public static final int CUBETAS_POR_DEFECTO = 6;
+    public static final int CUBETAS_MAXIMO = 366;
+
+    // Método para interpretar ?granularidad= (dia, semana, mes; vacío = mes)
+    public static Granularidad parse(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return MES;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Granularidad inválida: use dia, semana o mes");
+        }
+    }
+
+    // Método para interpretar ?cubetas= (vacío = valor por defecto)
+    public static int parseCubetas(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return CUBETAS_POR_DEFECTO;
+        }
+        int cubetas = Integer.parseInt(valor.trim());
+        if (cubetas < 1 || cubetas > CUBETAS_MAXIMO) {
+            throw new IllegalArgumentException("El número de cubetas debe estar entre 1 y " + CUBETAS_MAXIMO);
+        }
+        return cubetas;
+    }
+
+    // Primer día de la cubeta que contiene la fecha
+    public LocalDate inicioDe(LocalDate fecha) {
+        switch (this) {
+            case DIA:
+                return fecha;
+            case SEMANA:
+                return fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            default:
+                return fecha.withDayOfMonth(1);
+        }
+    }
+
+    public LocalDate sumar(LocalDate inicio, long cubetas) {
+        switch (this) {
+            case DIA:
+                return inicio.plusDays(cubetas);
+            case SEMANA:
+                return inicio.plusWeeks(cubetas);
+            default:
+                return inicio.plusMonths(cubetas);
+        }
+    }
+}
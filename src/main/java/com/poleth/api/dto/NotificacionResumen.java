@@ -0,0 +1,72 @@
+// NotificacionResumen.java
+package com.poleth.api.dto;
+
+import com.poleth.api.model.Notificacion;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+// Fila de los listados de notificaciones: solo las columnas de la tabla, con el id del inquilino
+// en lugar del usuario completo (se construye desde JPQL con SELECT new com.poleth.api.dto.NotificacionResumen(...))
+public class NotificacionResumen {
+    private final Integer idNotificacion;
+    private final Integer idInquilino;
+    private final Integer idContrato;
+    private final String tipoNotificacion;
+    private final String detalles;
+    private final String estadoNotificacion;
+    private final Date fechaUtilizacion;
+    private final Timestamp createdAt;
+
+    public NotificacionResumen(Integer idNotificacion, Integer idInquilino, Integer idContrato,
+                               String tipoNotificacion, String detalles, String estadoNotificacion,
+                               Date fechaUtilizacion, Timestamp createdAt) {
+        this.idNotificacion = idNotificacion;
+        this.idInquilino = idInquilino;
+        this.idContrato = idContrato;
+        this.tipoNotificacion = tipoNotificacion;
+        this.detalles = detalles;
+        this.estadoNotificacion = estadoNotificacion;
+        this.fechaUtilizacion = fechaUtilizacion;
+        this.createdAt = createdAt;
+    }
+
+    // Método para obtener el resumen de una notificación ya cargada (sin inicializar el inquilino)
+    public static NotificacionResumen de(Notificacion notificacion) {
+        return new NotificacionResumen(notificacion.getIdNotificacion(),
+                notificacion.getInquilino() != null ? notificacion.getInquilino().getIdUsuario() : null,
+                notificacion.getIdContrato(), notificacion.getTipoNotificacion(), notificacion.getDetalles(),
+                notificacion.getEstadoNotificacion(), notificacion.getFechaUtilizacion(), notificacion.getCreatedAt());
+    }
+
+    public Integer getIdNotificacion() {
+        return idNotificacion;
+    }
+
+    public Integer getIdInquilino() {
+        return idInquilino;
+    }
+
+    public Integer getIdContrato() {
+        return idContrato;
+    }
+
+    public String getTipoNotificacion() {
+        return tipoNotificacion;
+    }
+
+    public String getDetalles() {
+        return detalles;
+    }
+
+    public String getEstadoNotificacion() {
+        return estadoNotificacion;
+    }
+
+    public Date getFechaUtilizacion() {
+        return fechaUtilizacion;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,49 @@
+// PaginaCursor.java
+package com.poleth.api.dto;
+
+import java.util.List;
+
+// Página de resultados con paginación por cursor (keyset)
+public class PaginaCursor<T> {
+    public static final int LIMITE_POR_DEFECTO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private final List<T> datos;
+    private final String siguienteCursor;
+    private final int limite;
+
+    public PaginaCursor(List<T> datos, String siguienteCursor, int limite) {
+        this.datos = datos;
+        this.siguienteCursor = siguienteCursor;
+        this.limite = limite;
+    }
+
+    // Método para interpretar el parámetro ?limit= (vacío = valor por defecto)
+    public static int parseLimite(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return LIMITE_POR_DEFECTO;
+        }
+        int limite = Integer.parseInt(valor.trim());
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return limite;
+    }
+
+    public List<T> getDatos() {
+        return datos;
+    }
+
+    // null cuando no hay más resultados
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public boolean isHayMas() {
+        return siguienteCursor != null;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+}
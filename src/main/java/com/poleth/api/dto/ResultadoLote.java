@@ -0,0 +1,76 @@
+// ResultadoLote.java
+package com.poleth.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+// Resultado de una operación por lotes: un resumen y el resultado de cada fila en el orden recibido
+public class ResultadoLote {
+    private final int total;
+    private final int guardados;
+    private final int rechazados;
+    private final List<Fila> resultados;
+
+    public ResultadoLote(List<Fila> resultados) {
+        this.resultados = resultados;
+        this.total = resultados.size();
+        int conError = 0;
+        for (Fila fila : resultados) {
+            if (fila.getError() != null) {
+                conError++;
+            }
+        }
+        this.rechazados = conError;
+        this.guardados = total - conError;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getGuardados() {
+        return guardados;
+    }
+
+    public int getRechazados() {
+        return rechazados;
+    }
+
+    public List<Fila> getResultados() {
+        return resultados;
+    }
+
+    // Resultado de una fila: id generado si se guardó, mensaje de error si se rechazó
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Fila {
+        private final int indice;
+        private final Integer id;
+        private final String error;
+
+        private Fila(int indice, Integer id, String error) {
+            this.indice = indice;
+            this.id = id;
+            this.error = error;
+        }
+
+        public static Fila guardada(int indice, Integer id) {
+            return new Fila(indice, id, null);
+        }
+
+        public static Fila rechazada(int indice, String error) {
+            return new Fila(indice, null, error);
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+// ContadorAgrupado.java
+package com.poleth.api.estadisticas;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Conteos por clave actualizables desde varios hilos sin bloqueos
+class ContadorAgrupado {
+    // Se sustituye entero al reemplazar: los lectores ven los conteos anteriores o los nuevos, nunca una mezcla
+    private volatile ConcurrentHashMap<String, LongAdder> conteos = new ConcurrentHashMap<>();
+
+    void sumar(String clave, long delta) {
+        if (clave == null || delta == 0) {
+            return;
+        }
+        conteos.computeIfAbsent(clave, k -> new LongAdder()).add(delta);
+    }
+
+    long get(String clave) {
+        LongAdder conteo = conteos.get(clave);
+        return conteo != null ? conteo.sum() : 0L;
+    }
+
+    // Método para obtener una copia ordenada sin las claves que quedaron en cero
+    Map<String, Long> snapshot() {
+        Map<String, Long> copia = new TreeMap<>();
+        conteos.forEach((clave, conteo) -> {
+            long valor = conteo.sum();
+            if (valor != 0) {
+                copia.put(clave, valor);
+            }
+        });
+        return copia;
+    }
+
+    // Quien llama debe impedir sumar() concurrentes (lock de escritura), o esas sumas se perderían
+    void reemplazar(Map<String, Long> nuevos) {
+        ConcurrentHashMap<String, LongAdder> reemplazo = new ConcurrentHashMap<>();
+        nuevos.forEach((clave, valor) -> {
+            if (clave != null && valor != 0) {
+                reemplazo.computeIfAbsent(clave, k -> new LongAdder()).add(valor);
+            }
+        });
+        conteos = reemplazo;
+    }
+}
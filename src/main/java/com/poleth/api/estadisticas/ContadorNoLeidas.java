@@ -0,0 +1,247 @@
+// ContadorNoLeidas.java
+package com.poleth.api.estadisticas;
+
+import com.poleth.api.config.UnitOfWork;
+import com.poleth.api.model.Notificacion;
+import com.poleth.api.repository.NotificacionRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Notificaciones no leídas por inquilino mantenidas en memoria para el contador de la bandeja.
+// Cada inquilino se carga de la base de datos la primera vez que se consulta y desde entonces
+// se actualiza con cada alta, cambio o baja confirmada.
+//
+// La carga y la reconciliación siguen el esquema de EstadisticasReportes: cada cambio incrementa
+// la versión de su franja de inquilinos (bajo el lock de lectura) y el valor leído de la base de
+// datos solo se guarda (bajo el lock de escritura) si la versión no se movió durante la consulta
+// y no hay cambios registrados pendientes de confirmar; si no, se repite la consulta. Así un
+// cambio nunca se cuenta dos veces (en la consulta y en su delta) ni se pierde.
+public class ContadorNoLeidas {
+
+    public static final String NO_LEIDO = "no_leido";
+
+    private static final int TAMANO_LOTE = 500;
+    private static final int INTENTOS = 3;
+    private static final int FRANJAS = 64;
+
+    private static final ConcurrentHashMap<Integer, LongAdder> noLeidas = new ConcurrentHashMap<>();
+    private static final LongAdder aciertos = new LongAdder();
+    private static final LongAdder cargas = new LongAdder();
+    private static final LongAdder cargasSinGuardar = new LongAdder();
+
+    // Por franja (idInquilino % FRANJAS): cambios aplicados y cambios registrados aún sin confirmar
+    private static final AtomicLongArray versiones = new AtomicLongArray(FRANJAS);
+    private static final AtomicLongArray enCurso = new AtomicLongArray(FRANJAS);
+
+    // Los cambios comparten el lock de lectura; guardar un valor leído de la base de datos toma el de escritura
+    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
+
+    private static volatile Fuente fuente = new FuenteRepositorio(new NotificacionRepository());
+
+    // Conteos de no leídas en la base de datos (sustituible en las pruebas)
+    interface Fuente {
+        long contar(Integer idInquilino);
+
+        Map<Integer, Long> contarAgrupado(Collection<Integer> idsInquilino);
+    }
+
+    // Datos de una notificación que afectan al contador
+    public static final class Huella {
+        private final Integer idInquilino;
+        private final boolean noLeida;
+
+        private Huella(Integer idInquilino, boolean noLeida) {
+            this.idInquilino = idInquilino;
+            this.noLeida = noLeida;
+        }
+    }
+
+    public static Huella huella(Notificacion notificacion) {
+        if (notificacion == null || notificacion.getInquilino() == null) {
+            return null;
+        }
+        return new Huella(notificacion.getInquilino().getIdUsuario(), notificacion.esEstadoNoLeido());
+    }
+
+    // Método para registrar un alta (antes == null), un cambio o una baja (despues == null)
+    public static void registrarCambio(Huella antes, Huella despues) {
+        Map<Integer, Long> deltas = new HashMap<>();
+        if (antes != null && antes.noLeida && antes.idInquilino != null) {
+            deltas.merge(antes.idInquilino, -1L, Long::sum);
+        }
+        if (despues != null && despues.noLeida && despues.idInquilino != null) {
+            deltas.merge(despues.idInquilino, 1L, Long::sum);
+        }
+        registrar(deltas);
+    }
+
+    // Método para registrar que varias notificaciones de un inquilino pasaron a leídas a la vez
+    public static void registrarLecturas(Integer idInquilino, long cantidad) {
+        if (idInquilino != null && cantidad > 0) {
+            registrar(Map.of(idInquilino, -cantidad));
+        }
+    }
+
+    // Método para obtener las no leídas de un inquilino (se carga de la base de datos la primera vez)
+    public static long get(Integer idInquilino) {
+        LongAdder contador = noLeidas.get(idInquilino);
+        if (contador != null) {
+            aciertos.increment();
+            return contador.sum();
+        }
+        int franja = franja(idInquilino);
+        long valor = 0;
+        // La consulta se hace fuera de los locks para no bloquear los cambios de los demás inquilinos
+        for (int intento = 1; intento <= INTENTOS; intento++) {
+            long version = versiones.get(franja);
+            valor = fuente.contar(idInquilino);
+            cargas.increment();
+
+            LOCK.writeLock().lock();
+            try {
+                if (estable(franja, version)) {
+                    LongAdder cargado = new LongAdder();
+                    cargado.add(valor);
+                    LongAdder existente = noLeidas.putIfAbsent(idInquilino, cargado);
+                    return (existente != null ? existente : cargado).sum();
+                }
+            } finally {
+                LOCK.writeLock().unlock();
+            }
+        }
+        // Con cambios continuos en la franja se devuelve el valor confirmado sin guardarlo:
+        // la próxima consulta lo volverá a cargar
+        cargasSinGuardar.increment();
+        return valor;
+    }
+
+    // Método para recalcular desde la base de datos los inquilinos ya cargados (consultas agrupadas).
+    // Los inquilinos cuya franja cambió durante la consulta se repiten; si siguen cambiando tras
+    // varios intentos conservan su valor incremental hasta la próxima reconciliación
+    public static void reconciliar() {
+        List<Integer> ids = new ArrayList<>(noLeidas.keySet());
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANO_LOTE) {
+            List<Integer> pendientes = new ArrayList<>(ids.subList(inicio, Math.min(inicio + TAMANO_LOTE, ids.size())));
+            for (int intento = 1; intento <= INTENTOS && !pendientes.isEmpty(); intento++) {
+                pendientes = reconciliarLote(pendientes);
+            }
+        }
+    }
+
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("inquilinosCargados", noLeidas.size());
+        metrics.put("aciertos", aciertos.sum());
+        metrics.put("cargas", cargas.sum());
+        metrics.put("cargasSinGuardar", cargasSinGuardar.sum());
+        return metrics;
+    }
+
+    static void usarFuente(Fuente nueva) {
+        fuente = nueva;
+    }
+
+    // Devuelve los inquilinos que no se pudieron actualizar porque su franja cambió
+    private static List<Integer> reconciliarLote(List<Integer> lote) {
+        Map<Integer, Long> versionesLeidas = new HashMap<>();
+        for (Integer idInquilino : lote) {
+            versionesLeidas.put(idInquilino, versiones.get(franja(idInquilino)));
+        }
+        Map<Integer, Long> conteos = fuente.contarAgrupado(lote);
+
+        List<Integer> reintentar = new ArrayList<>();
+        LOCK.writeLock().lock();
+        try {
+            for (Integer idInquilino : lote) {
+                if (!noLeidas.containsKey(idInquilino)) {
+                    continue;
+                }
+                if (!estable(franja(idInquilino), versionesLeidas.get(idInquilino))) {
+                    reintentar.add(idInquilino);
+                    continue;
+                }
+                LongAdder nuevo = new LongAdder();
+                nuevo.add(conteos.getOrDefault(idInquilino, 0L));
+                noLeidas.put(idInquilino, nuevo);
+            }
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+        return reintentar;
+    }
+
+    // Solo con el lock de escritura: ningún cambio se aplicó desde la lectura de la versión ni
+    // queda alguno registrado sin confirmar (ya podría estar en la consulta sin estar aplicado)
+    private static boolean estable(int franja, long version) {
+        return versiones.get(franja) == version && enCurso.get(franja) == 0;
+    }
+
+    // El cambio queda "en curso" desde que se registra hasta que su transacción termina
+    private static void registrar(Map<Integer, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        LOCK.readLock().lock();
+        try {
+            deltas.keySet().forEach(idInquilino -> enCurso.incrementAndGet(franja(idInquilino)));
+        } finally {
+            LOCK.readLock().unlock();
+        }
+        UnitOfWork.afterRollback(() -> terminar(deltas, false));
+        UnitOfWork.afterCommit(() -> terminar(deltas, true));
+    }
+
+    // Solo se actualizan los inquilinos cargados: los demás se leerán con el valor ya confirmado
+    private static void terminar(Map<Integer, Long> deltas, boolean confirmado) {
+        LOCK.readLock().lock();
+        try {
+            deltas.forEach((idInquilino, delta) -> {
+                int franja = franja(idInquilino);
+                if (confirmado) {
+                    versiones.incrementAndGet(franja);
+                    LongAdder contador = noLeidas.get(idInquilino);
+                    if (contador != null) {
+                        contador.add(delta);
+                    }
+                }
+                enCurso.decrementAndGet(franja);
+            });
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    private static int franja(Integer idInquilino) {
+        return Math.floorMod(idInquilino.hashCode(), FRANJAS);
+    }
+
+    private static class FuenteRepositorio implements Fuente {
+        private final NotificacionRepository repository;
+
+        FuenteRepositorio(NotificacionRepository repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public long contar(Integer idInquilino) {
+            return repository.countByInquilinoAndEstado(idInquilino, NO_LEIDO);
+        }
+
+        @Override
+        public Map<Integer, Long> contarAgrupado(Collection<Integer> idsInquilino) {
+            Map<Integer, Long> conteos = new HashMap<>();
+            for (Object[] fila : repository.countAgrupadoPorInquilino(idsInquilino, NO_LEIDO)) {
+                conteos.put((Integer) fila[0], ((Number) fila[1]).longValue());
+            }
+            return conteos;
+        }
+    }
+}
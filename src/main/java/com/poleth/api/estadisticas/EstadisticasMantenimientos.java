@@ -0,0 +1,173 @@
+// EstadisticasMantenimientos.java
+package com.poleth.api.estadisticas;
+
+import com.poleth.api.config.UnitOfWork;
+import com.poleth.api.model.Mantenimiento;
+import com.poleth.api.repository.MantenimientoRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Agregados de Mantenimiento (total, pendientes, por estado y costo total) mantenidos en memoria.
+// El costo se acumula en centavos (la columna tiene escala 2) para sumar sin bloqueos.
+public class EstadisticasMantenimientos {
+
+    private static final MantenimientoRepository repository = new MantenimientoRepository();
+
+    private static volatile LongAdder total = new LongAdder();
+    private static volatile LongAdder pendientes = new LongAdder();
+    private static volatile LongAdder costoCentavos = new LongAdder();
+    private static final ContadorAgrupado porEstado = new ContadorAgrupado();
+
+    // Los cambios comparten el lock de lectura; la reconciliación toma el de escritura
+    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
+    private static volatile boolean inicializado;
+
+    // Cambios aplicados; la reconciliación se repite si varía mientras consulta (ver EstadisticasReportes)
+    private static final AtomicLong cambios = new AtomicLong();
+    private static final int INTENTOS_RECONCILIACION = 3;
+
+    // Datos de un mantenimiento que afectan a los agregados
+    public static final class Huella {
+        private final String estado;
+        private final boolean pendiente;
+        private final long costoCentavos;
+
+        private Huella(String estado, boolean pendiente, long costoCentavos) {
+            this.estado = estado;
+            this.pendiente = pendiente;
+            this.costoCentavos = costoCentavos;
+        }
+    }
+
+    public static Huella huella(Mantenimiento mantenimiento) {
+        if (mantenimiento == null) {
+            return null;
+        }
+        return new Huella(normalizar(mantenimiento.getEstadoMantenimiento()),
+                mantenimiento.getFechaAtencion() == null,
+                aCentavos(mantenimiento.getCostoMantenimiento()));
+    }
+
+    // Método para registrar un alta (antes == null), un cambio o una baja (despues == null)
+    public static void registrarCambio(Huella antes, Huella despues) {
+        UnitOfWork.afterCommit(() -> aplicar(antes, despues));
+    }
+
+    public static long getTotal() {
+        asegurarInicializado();
+        return total.sum();
+    }
+
+    // Pendientes = sin fecha de atención (mismo criterio que findPendientes)
+    public static long getPendientes() {
+        asegurarInicializado();
+        return pendientes.sum();
+    }
+
+    public static long getCompletados() {
+        asegurarInicializado();
+        return total.sum() - pendientes.sum();
+    }
+
+    public static BigDecimal getCostoTotal() {
+        asegurarInicializado();
+        return BigDecimal.valueOf(costoCentavos.sum(), 2);
+    }
+
+    // Conteos por estado con la clave en minúsculas (como agrupa MySQL)
+    public static Map<String, Long> getPorEstado() {
+        asegurarInicializado();
+        return porEstado.snapshot();
+    }
+
+    // Método para recalcular los agregados desde la base de datos (consultas agrupadas)
+    public static void reconciliar() {
+        for (int intento = 1; ; intento++) {
+            long version = cambios.get();
+            Map<String, Long> estados = new HashMap<>();
+            long nuevoTotal = 0;
+            long nuevoCosto = 0;
+            for (Object[] fila : repository.countAgrupadoPorEstado()) {
+                long cantidad = ((Number) fila[1]).longValue();
+                nuevoTotal += cantidad;
+                nuevoCosto += aCentavos((BigDecimal) fila[2]);
+                String estado = normalizar((String) fila[0]);
+                if (estado != null) {
+                    estados.merge(estado, cantidad, Long::sum);
+                }
+            }
+            long nuevosPendientes = repository.countPendientes();
+
+            LOCK.writeLock().lock();
+            try {
+                boolean sinCambios = cambios.get() == version;
+                if (sinCambios || (!inicializado && intento >= INTENTOS_RECONCILIACION)) {
+                    total = sumador(nuevoTotal);
+                    pendientes = sumador(nuevosPendientes);
+                    costoCentavos = sumador(nuevoCosto);
+                    porEstado.reemplazar(estados);
+                    inicializado = true;
+                    return;
+                }
+                if (intento >= INTENTOS_RECONCILIACION) {
+                    return;
+                }
+            } finally {
+                LOCK.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void aplicar(Huella antes, Huella despues) {
+        LOCK.readLock().lock();
+        try {
+            cambios.incrementAndGet();
+            // Sin inicializar no hay nada que actualizar: la primera lectura hará la reconciliación
+            if (!inicializado) {
+                return;
+            }
+            if (antes != null) {
+                total.decrement();
+                pendientes.add(antes.pendiente ? -1 : 0);
+                costoCentavos.add(-antes.costoCentavos);
+                porEstado.sumar(antes.estado, -1);
+            }
+            if (despues != null) {
+                total.increment();
+                pendientes.add(despues.pendiente ? 1 : 0);
+                costoCentavos.add(despues.costoCentavos);
+                porEstado.sumar(despues.estado, 1);
+            }
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    private static LongAdder sumador(long valor) {
+        LongAdder sumador = new LongAdder();
+        sumador.add(valor);
+        return sumador;
+    }
+
+    private static void asegurarInicializado() {
+        if (!inicializado) {
+            reconciliar();
+        }
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        if (monto == null) {
+            return 0L;
+        }
+        return monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static String normalizar(String valor) {
+        return valor != null ? valor.trim().toLowerCase() : null;
+    }
+}
@@ -0,0 +1,169 @@
+// EstadisticasReportes.java
+package com.poleth.api.estadisticas;
+
+import com.poleth.api.config.UnitOfWork;
+import com.poleth.api.dto.ConteoAgrupado;
+import com.poleth.api.model.ReporteInquilino;
+import com.poleth.api.repository.ReporteInquilinoRepository;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Agregados de ReporteInquilino (total, por estado, por tipo y por mes) mantenidos en memoria.
+// Cada alta/cambio/baja aplica su diferencia al confirmarse la transacción, y la
+// reconciliación periódica con la base de datos corrige cualquier desviación.
+public class EstadisticasReportes {
+
+    private static final ReporteInquilinoRepository repository = new ReporteInquilinoRepository();
+
+    private static volatile LongAdder total = new LongAdder();
+    private static final ContadorAgrupado porEstado = new ContadorAgrupado();
+    private static final ContadorAgrupado porTipo = new ContadorAgrupado();
+    private static final ContadorAgrupado porMes = new ContadorAgrupado();
+
+    // Los cambios comparten el lock de lectura; la reconciliación toma el de escritura
+    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
+    private static volatile boolean inicializado;
+
+    // Cambios aplicados (o descartados por no estar inicializado): si varía mientras la
+    // reconciliación consulta la base de datos, su resultado puede no incluirlos
+    private static final AtomicLong cambios = new AtomicLong();
+    private static final int INTENTOS_RECONCILIACION = 3;
+
+    // Datos de un reporte que afectan a los agregados
+    public static final class Huella {
+        private final String estado;
+        private final String tipo;
+        private final String mes;
+
+        private Huella(String estado, String tipo, String mes) {
+            this.estado = estado;
+            this.tipo = tipo;
+            this.mes = mes;
+        }
+    }
+
+    public static Huella huella(ReporteInquilino reporte) {
+        if (reporte == null) {
+            return null;
+        }
+        return new Huella(normalizar(reporte.getEstadoReporte()), normalizar(reporte.getTipo()),
+                reporte.getFecha() != null ? claveMes(YearMonth.from(reporte.getFecha())) : null);
+    }
+
+    // Método para registrar un alta (antes == null), un cambio o una baja (despues == null)
+    public static void registrarCambio(Huella antes, Huella despues) {
+        UnitOfWork.afterCommit(() -> aplicar(antes, despues));
+    }
+
+    public static long getTotal() {
+        asegurarInicializado();
+        return total.sum();
+    }
+
+    public static long getPorEstado(String estado) {
+        asegurarInicializado();
+        return porEstado.get(normalizar(estado));
+    }
+
+    // Conteos por tipo con la clave en minúsculas (como agrupa MySQL)
+    public static Map<String, Long> getPorTipo() {
+        asegurarInicializado();
+        return porTipo.snapshot();
+    }
+
+    public static long getPorMes(YearMonth mes) {
+        asegurarInicializado();
+        return porMes.get(claveMes(mes));
+    }
+
+    // Método para recalcular los agregados desde la base de datos (consultas agrupadas). Si llega
+    // algún cambio durante las consultas se repiten; si sigue habiendo cambios tras varios intentos
+    // se conservan los valores incrementales hasta la próxima reconciliación
+    public static void reconciliar() {
+        for (int intento = 1; ; intento++) {
+            long version = cambios.get();
+            Map<String, Long> estados = agrupar(repository.countAgrupadoPorEstado());
+            Map<String, Long> tipos = agrupar(repository.countAgrupadoPorTipo());
+            Map<String, Long> meses = new HashMap<>();
+            for (Object[] fila : repository.countAgrupadoPorMes()) {
+                YearMonth mes = YearMonth.of(((Number) fila[0]).intValue(), ((Number) fila[1]).intValue());
+                meses.merge(claveMes(mes), ((Number) fila[2]).longValue(), Long::sum);
+            }
+            long nuevoTotal = repository.countTotal();
+
+            LOCK.writeLock().lock();
+            try {
+                boolean sinCambios = cambios.get() == version;
+                if (sinCambios || (!inicializado && intento >= INTENTOS_RECONCILIACION)) {
+                    LongAdder reemplazo = new LongAdder();
+                    reemplazo.add(nuevoTotal);
+                    total = reemplazo;
+                    porEstado.reemplazar(estados);
+                    porTipo.reemplazar(tipos);
+                    porMes.reemplazar(meses);
+                    inicializado = true;
+                    return;
+                }
+                if (intento >= INTENTOS_RECONCILIACION) {
+                    return;
+                }
+            } finally {
+                LOCK.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void aplicar(Huella antes, Huella despues) {
+        LOCK.readLock().lock();
+        try {
+            cambios.incrementAndGet();
+            // Sin inicializar no hay nada que actualizar: la primera lectura hará la reconciliación
+            if (!inicializado) {
+                return;
+            }
+            if (antes != null) {
+                total.decrement();
+                porEstado.sumar(antes.estado, -1);
+                porTipo.sumar(antes.tipo, -1);
+                porMes.sumar(antes.mes, -1);
+            }
+            if (despues != null) {
+                total.increment();
+                porEstado.sumar(despues.estado, 1);
+                porTipo.sumar(despues.tipo, 1);
+                porMes.sumar(despues.mes, 1);
+            }
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    private static void asegurarInicializado() {
+        if (!inicializado) {
+            reconciliar();
+        }
+    }
+
+    private static Map<String, Long> agrupar(Iterable<ConteoAgrupado> conteos) {
+        Map<String, Long> resultado = new HashMap<>();
+        for (ConteoAgrupado conteo : conteos) {
+            String clave = normalizar(conteo.getClave());
+            if (clave != null) {
+                resultado.merge(clave, conteo.getTotal(), Long::sum);
+            }
+        }
+        return resultado;
+    }
+
+    private static String normalizar(String valor) {
+        return valor != null ? valor.trim().toLowerCase() : null;
+    }
+
+    private static String claveMes(YearMonth mes) {
+        return mes.getYear() + "-" + mes.getMonthValue();
+    }
+}
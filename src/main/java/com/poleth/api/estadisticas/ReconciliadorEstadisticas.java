@@ -0,0 +1,49 @@
+// ReconciliadorEstadisticas.java
+package com.poleth.api.estadisticas;
+
+import com.poleth.api.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Recalcula periódicamente los agregados en memoria desde la base de datos
+// (cubre escrituras hechas fuera de la API y cualquier desviación acumulada)
+public class ReconciliadorEstadisticas {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliadorEstadisticas.class);
+
+    private static ScheduledExecutorService scheduler;
+
+    public static synchronized void iniciar() {
+        if (scheduler != null) {
+            return;
+        }
+        long minutos = DatabaseConfig.getLongProperty("estadisticas.reconciliacion-min", 10);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reconciliador-estadisticas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(ReconciliadorEstadisticas::reconciliar, minutos, minutos, TimeUnit.MINUTES);
+    }
+
+    public static synchronized void detener() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Método para reconciliar todos los agregados (un fallo no detiene las siguientes ejecuciones)
+    public static void reconciliar() {
+        try {
+            EstadisticasReportes.reconciliar();
+            EstadisticasMantenimientos.reconciliar();
+            ContadorNoLeidas.reconciliar();
+        } catch (RuntimeException e) {
+            log.error("Error al reconciliar las estadísticas: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+// BusNotificaciones.java
+package com.poleth.api.eventos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.config.UnitOfWork;
+import com.poleth.api.dto.NotificacionResumen;
+import com.poleth.api.model.Notificacion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bus en proceso para los cambios de notificaciones: cada inquilino tiene sus suscripciones
+// (una por conexión push) y cada evento se reparte entre ellas después del commit.
+// Cada conexión tiene un buffer acotado; si un cliente lento lo llena, se vacía y se le envía
+// un único evento "resincronizar" para que vuelva a pedir su bandeja por REST.
+// Quien publica nunca espera a los clientes: los envíos los hace un pool de hilos propio.
+public class BusNotificaciones {
+
+    private static final Logger log = LoggerFactory.getLogger(BusNotificaciones.class);
+
+    public static final String CREADA = "creada";
+    public static final String ACTUALIZADA = "actualizada";
+    public static final String LEIDA = "leida";
+    public static final String ELIMINADA = "eliminada";
+    public static final String LEIDAS_TODAS = "leidas-todas";
+    public static final String RESINCRONIZAR = "resincronizar";
+
+    private static final Map<Integer, Set<Suscripcion>> suscripciones = new ConcurrentHashMap<>();
+    private static final LongAdder eventosPublicados = new LongAdder();
+    private static final LongAdder mensajesEnviados = new LongAdder();
+    private static final LongAdder desbordes = new LongAdder();
+
+    private static volatile ExecutorService envios;
+
+    // Canal de salida de una conexión (p. ej. el envío bloqueante de un WebSocket)
+    @FunctionalInterface
+    public interface Canal {
+        void enviar(String mensaje) throws Exception;
+    }
+
+    // Método para registrar una conexión del inquilino; se cancela con Suscripcion.cancelar()
+    public static Suscripcion suscribir(Integer idInquilino, Canal canal) {
+        Suscripcion suscripcion = new Suscripcion(idInquilino, canal,
+                DatabaseConfig.getIntProperty("notificaciones.push.buffer", 64));
+        suscripciones.computeIfAbsent(idInquilino, id -> ConcurrentHashMap.newKeySet()).add(suscripcion);
+        return suscripcion;
+    }
+
+    // Método para publicar un cambio de una notificación a las conexiones de su inquilino
+    public static void publicar(String tipo, Notificacion notificacion) {
+        if (notificacion.getInquilino() == null || notificacion.getInquilino().getIdUsuario() == null) {
+            return;
+        }
+        Integer idInquilino = notificacion.getInquilino().getIdUsuario();
+        // El mensaje se construye ahora (con el estado que se guarda) y se reparte tras el commit
+        String mensaje = serializar(tipo, notificacion);
+        UnitOfWork.afterCommit(() -> repartir(idInquilino, mensaje));
+    }
+
+    // Método para publicar un evento que no corresponde a una sola notificación (p. ej. "leidas-todas")
+    public static void publicarEvento(Integer idInquilino, Map<String, Object> evento) {
+        String mensaje = serializar(evento);
+        UnitOfWork.afterCommit(() -> repartir(idInquilino, mensaje));
+    }
+
+    // Método para enviar un mensaje solo a una conexión (p. ej. el estado inicial al conectarse)
+    public static void enviarA(Suscripcion suscripcion, Map<String, Object> evento) {
+        suscripcion.ofrecer(serializar(evento));
+    }
+
+    public static synchronized void detener() {
+        if (envios != null) {
+            envios.shutdownNow();
+            envios = null;
+        }
+        suscripciones.clear();
+    }
+
+    // Método para obtener las conexiones activas y los contadores de envío
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        int conexiones = 0;
+        for (Set<Suscripcion> conjunto : suscripciones.values()) {
+            conexiones += conjunto.size();
+        }
+        metrics.put("inquilinosConectados", suscripciones.size());
+        metrics.put("conexiones", conexiones);
+        metrics.put("eventosPublicados", eventosPublicados.sum());
+        metrics.put("mensajesEnviados", mensajesEnviados.sum());
+        metrics.put("desbordes", desbordes.sum());
+        return metrics;
+    }
+
+    private static void repartir(Integer idInquilino, String mensaje) {
+        eventosPublicados.increment();
+        Set<Suscripcion> conjunto = suscripciones.get(idInquilino);
+        if (conjunto == null) {
+            return;
+        }
+        for (Suscripcion suscripcion : conjunto) {
+            suscripcion.ofrecer(mensaje);
+        }
+    }
+
+    // Solo los datos de la notificación (el mismo resumen de los listados), sin el usuario del inquilino
+    private static String serializar(String tipo, Notificacion notificacion) {
+        Map<String, Object> evento = new LinkedHashMap<>();
+        evento.put("tipo", tipo);
+        evento.put("notificacion", NotificacionResumen.de(notificacion));
+        return serializar(evento);
+    }
+
+    private static String serializar(Map<String, Object> evento) {
+        try {
+            return JsonConfig.getMapper().writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error al serializar el evento de notificación", e);
+        }
+    }
+
+    private static ExecutorService getEnvios() {
+        ExecutorService actual = envios;
+        if (actual == null) {
+            synchronized (BusNotificaciones.class) {
+                if (envios == null) {
+                    AtomicInteger contador = new AtomicInteger();
+                    envios = Executors.newFixedThreadPool(DatabaseConfig.getIntProperty("notificaciones.push.hilos", 2), r -> {
+                        Thread hilo = new Thread(r, "notificaciones-push-" + contador.incrementAndGet());
+                        hilo.setDaemon(true);
+                        return hilo;
+                    });
+                }
+                actual = envios;
+            }
+        }
+        return actual;
+    }
+
+    // Una conexión: buffer acotado y, como mucho, una tarea de envío en curso a la vez
+    public static class Suscripcion {
+        private final Integer idInquilino;
+        private final Canal canal;
+        private final int capacidad;
+        private final Queue<String> pendientes = new ArrayDeque<>();
+        private boolean enviando;
+        private volatile boolean cancelada;
+
+        private Suscripcion(Integer idInquilino, Canal canal, int capacidad) {
+            this.idInquilino = idInquilino;
+            this.canal = canal;
+            this.capacidad = capacidad;
+        }
+
+        public Integer getIdInquilino() {
+            return idInquilino;
+        }
+
+        public void cancelar() {
+            cancelada = true;
+            suscripciones.computeIfPresent(idInquilino, (id, conjunto) -> {
+                conjunto.remove(this);
+                return conjunto.isEmpty() ? null : conjunto;
+            });
+            synchronized (this) {
+                pendientes.clear();
+            }
+        }
+
+        private void ofrecer(String mensaje) {
+            if (cancelada) {
+                return;
+            }
+            synchronized (this) {
+                if (pendientes.size() >= capacidad) {
+                    desbordes.increment();
+                    pendientes.clear();
+                    pendientes.add("{\"tipo\":\"" + RESINCRONIZAR + "\"}");
+                } else {
+                    pendientes.add(mensaje);
+                }
+                if (enviando) {
+                    return;
+                }
+                enviando = true;
+            }
+            getEnvios().execute(this::vaciar);
+        }
+
+        private void vaciar() {
+            while (true) {
+                String mensaje;
+                synchronized (this) {
+                    mensaje = pendientes.poll();
+                    if (mensaje == null || cancelada) {
+                        enviando = false;
+                        return;
+                    }
+                }
+                try {
+                    canal.enviar(mensaje);
+                    mensajesEnviados.increment();
+                } catch (Exception e) {
+                    log.debug("Conexión push del inquilino {} cerrada: {}", idInquilino, e.getMessage());
+                    cancelar();
+                }
+            }
+        }
+    }
+}
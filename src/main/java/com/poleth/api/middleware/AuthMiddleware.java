@@ -0,0 +1,115 @@
+// AuthMiddleware.java
+package com.poleth.api.middleware;
+
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.util.JWTUtil;
+import com.poleth.api.util.LatencyHistogram;
+import com.poleth.api.util.TokenPrincipal;
+import io.javalin.http.Context;
+import io.javalin.http.ForbiddenResponse;
+import io.javalin.http.HandlerType;
+import io.javalin.http.UnauthorizedResponse;
+import io.javalin.security.RouteRole;
+import io.jsonwebtoken.JwtException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Verifica el token Bearer una sola vez por petición, guarda el TokenPrincipal como
+// atributo y aplica las reglas de acceso (RolAcceso) declaradas en cada clase *Routes
+public class AuthMiddleware {
+
+    public static final String PRINCIPAL_ATTRIBUTE = "principal";
+    private static final String BEARER = "Bearer ";
+
+    // Títulos de rol (Rol.titulo) que cuentan como administrador
+    private static final Set<String> ROLES_ADMINISTRADOR = Arrays.stream(
+                    DatabaseConfig.getProperty("auth.roles.administrador", "Administrador").split(","))
+            .map(String::trim)
+            .filter(titulo -> !titulo.isEmpty())
+            .map(String::toLowerCase)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final LatencyHistogram latenciaVerificacion = new LatencyHistogram();
+    private static final LongAdder tokensRechazados = new LongAdder();
+    private static final LongAdder accesosDenegados = new LongAdder();
+
+    // Handler beforeMatched: solo se ejecuta cuando la ruta existe. Una ruta sin RolAcceso
+    // se trata como AUTENTICADO: lo público se declara explícitamente con RolAcceso.PUBLICO
+    public static void handle(Context ctx) {
+        TokenPrincipal principal = autenticar(ctx);
+
+        Set<RouteRole> roles = ctx.routeRoles();
+        if (roles.contains(RolAcceso.PUBLICO) || ctx.method() == HandlerType.OPTIONS) {
+            return;
+        }
+        if (principal == null) {
+            accesosDenegados.increment();
+            throw new UnauthorizedResponse("Se requiere un token válido (Authorization: Bearer <token>)");
+        }
+        if (roles.contains(RolAcceso.ADMINISTRADOR) && !esAdministrador(principal)) {
+            accesosDenegados.increment();
+            throw new ForbiddenResponse("El rol '" + principal.getRol() + "' no tiene acceso a este recurso");
+        }
+    }
+
+    // Método para autenticar la petición de apertura de un WebSocket: los navegadores no pueden
+    // enviar cabeceras al abrirlo, así que el token también se acepta como ?token=
+    public static TokenPrincipal autenticarConexion(Context ctx) {
+        TokenPrincipal principal = autenticar(ctx);
+        String token = ctx.queryParam("token");
+        if (principal == null && token != null && !token.isBlank()) {
+            principal = verificar(ctx, token.trim());
+        }
+        if (principal == null) {
+            accesosDenegados.increment();
+            throw new UnauthorizedResponse("Se requiere un token válido (Authorization: Bearer <token> o ?token=)");
+        }
+        return principal;
+    }
+
+    // Método para obtener el usuario autenticado de la petición (null si no envió token)
+    public static TokenPrincipal getPrincipal(Context ctx) {
+        return ctx.attribute(PRINCIPAL_ATTRIBUTE);
+    }
+
+    public static boolean esAdministrador(TokenPrincipal principal) {
+        return principal != null && principal.getRol() != null
+                && ROLES_ADMINISTRADOR.contains(principal.getRol().toLowerCase());
+    }
+
+    // Método para obtener el tiempo de verificación y los rechazos
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("latenciaVerificacion", latenciaVerificacion.snapshot());
+        metrics.put("tokensRechazados", tokensRechazados.sum());
+        metrics.put("accesosDenegados", accesosDenegados.sum());
+        return metrics;
+    }
+
+    private static TokenPrincipal autenticar(Context ctx) {
+        String header = ctx.header("Authorization");
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        return verificar(ctx, header.substring(BEARER.length()).trim());
+    }
+
+    private static TokenPrincipal verificar(Context ctx, String token) {
+        long inicio = System.nanoTime();
+        try {
+            TokenPrincipal principal = JWTUtil.verificarToken(token);
+            ctx.attribute(PRINCIPAL_ATTRIBUTE, principal);
+            return principal;
+        } catch (JwtException | IllegalArgumentException e) {
+            // En rutas públicas un token vencido se ignora; en las protegidas se responde 401
+            tokensRechazados.increment();
+            return null;
+        } finally {
+            latenciaVerificacion.registrarDesde(inicio);
+        }
+    }
+}
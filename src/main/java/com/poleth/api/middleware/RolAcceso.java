@@ -0,0 +1,14 @@
+// RolAcceso.java
+package com.poleth.api.middleware;
+
+import io.javalin.security.RouteRole;
+
+// Niveles de acceso que cada grupo de rutas declara al registrarse
+public enum RolAcceso implements RouteRole {
+    // Sin token (login, registro, consultas públicas)
+    PUBLICO,
+    // Cualquier usuario con un token válido
+    AUTENTICADO,
+    // Solo usuarios cuyo rol está en auth.roles.administrador
+    ADMINISTRADOR
+}
@@ -2,9 +2,16 @@
 package com.poleth.api.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// Índice de la búsqueda exacta por nombre
 @Entity
-@Table(name = "Catalogo_Muebles")
+@Table(name = "Catalogo_Muebles", indexes = {
+        @Index(name = "idx_catalogo_muebles_nombre", columnList = "nombre_mueble")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalogo-mueble")
 public class CatalogoMueble {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -7,8 +7,15 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// Índices de los filtros de ContratoRepository (estado y vencimiento o fecha de pago, cuarto, inquilino)
 @Entity
-@Table(name = "Contratos")
+@Table(name = "Contratos", indexes = {
+        @Index(name = "idx_contratos_estado_fin", columnList = "estado_contrato, fecha_finalizacion"),
+        @Index(name = "idx_contratos_estado_pago", columnList = "estado_contrato, fecha_pago_establecida"),
+        @Index(name = "idx_contratos_cuarto_estado", columnList = "id_cuarto, estado_contrato"),
+        @Index(name = "idx_contratos_inquilino_estado", columnList = "id_inquilino, estado_contrato"),
+        @Index(name = "idx_contratos_created", columnList = "created_at")
+})
 public class Contrato {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
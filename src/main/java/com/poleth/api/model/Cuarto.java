@@ -2,11 +2,19 @@
 package com.poleth.api.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Índices de los filtros por propietario y estado (ordenados por fecha de alta)
 @Entity
-@Table(name = "Cuartos")
+@Table(name = "Cuartos", indexes = {
+        @Index(name = "idx_cuartos_propietario", columnList = "id_propietario, created_at"),
+        @Index(name = "idx_cuartos_estado", columnList = "estado_cuarto, created_at")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cuarto")
 public class Cuarto {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
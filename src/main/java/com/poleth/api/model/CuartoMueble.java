@@ -3,8 +3,12 @@ package com.poleth.api.model;
 
 import jakarta.persistence.*;
 
+// Índices de los muebles por cuarto y por artículo del catálogo
 @Entity
-@Table(name = "Cuarto_Mueble")
+@Table(name = "Cuarto_Mueble", indexes = {
+        @Index(name = "idx_cuarto_mueble_cuarto", columnList = "id_cuarto, id_catalogo_mueble"),
+        @Index(name = "idx_cuarto_mueble_catalogo", columnList = "id_catalogo_mueble")
+})
 public class CuartoMueble {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
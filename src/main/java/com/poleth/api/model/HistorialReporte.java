@@ -4,8 +4,12 @@ package com.poleth.api.model;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+// Índices del historial por reporte y del orden por fecha de registro
 @Entity
-@Table(name = "Historial_Reportes")
+@Table(name = "Historial_Reportes", indexes = {
+        @Index(name = "idx_historial_reporte_fecha", columnList = "id_reporte, fecha_registro"),
+        @Index(name = "idx_historial_fecha", columnList = "fecha_registro, id_historial")
+})
 public class HistorialReporte {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -5,8 +5,13 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+// Índices de los filtros por cuarto y estado y del orden por fecha de reporte
 @Entity
-@Table(name = "Mantenimientos")
+@Table(name = "Mantenimientos", indexes = {
+        @Index(name = "idx_mantenimientos_cuarto_fecha", columnList = "id_cuarto, fecha_reporte"),
+        @Index(name = "idx_mantenimientos_estado_fecha", columnList = "estado_mantenimiento, fecha_reporte"),
+        @Index(name = "idx_mantenimientos_fecha", columnList = "fecha_reporte, id_mantenimiento")
+})
 public class Mantenimiento {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
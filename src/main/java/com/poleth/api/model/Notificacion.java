@@ -1,22 +1,30 @@
 // Notificacion.java
 package com.poleth.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// Índices de las bandejas por inquilino y estado, por contrato y del orden por fecha
 @Entity
-@Table(name = "notificaciones")
+@Table(name = "notificaciones", indexes = {
+        @Index(name = "idx_notificaciones_inquilino_estado", columnList = "id_inquilino, estado_notificacion, created_at"),
+        @Index(name = "idx_notificaciones_contrato", columnList = "id_contrato, created_at"),
+        @Index(name = "idx_notificaciones_created", columnList = "created_at")
+})
 public class Notificacion {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_notificacion")
     private Integer idNotificacion;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // LAZY: los listados usan NotificacionResumen y solo necesitan el id del inquilino
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_inquilino", referencedColumnName = "id_usuario", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "password"})
     private Usuario inquilino; // Cambiado de Inquilino a Usuario
 
     @Column(name = "id_contrato", nullable = false)
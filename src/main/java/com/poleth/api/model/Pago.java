@@ -5,8 +5,14 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+// Índices de los filtros de PagoRepository (contrato, inquilino, estado) y del orden por fecha
 @Entity
-@Table(name = "Pagos")
+@Table(name = "Pagos", indexes = {
+        @Index(name = "idx_pagos_contrato_fecha", columnList = "id_contrato, fecha_pago"),
+        @Index(name = "idx_pagos_inquilino_fecha", columnList = "id_inquilino, fecha_pago"),
+        @Index(name = "idx_pagos_estado_fecha", columnList = "estado_pago, fecha_pago"),
+        @Index(name = "idx_pagos_fecha", columnList = "fecha_pago, id_pago")
+})
 public class Pago {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,57 @@
+// PuntoControl.java
+package com.poleth.api.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Última fecha procesada por una tarea programada (ver BarridoContratos)
+@Entity
+@Table(name = "puntos_control")
+public class PuntoControl {
+    @Id
+    @Column(name = "tarea", length = 50)
+    private String tarea;
+
+    @Column(name = "ultima_fecha", nullable = false)
+    private LocalDate ultimaFecha;
+
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
+
+    // Constructor por defecto
+    public PuntoControl() {
+    }
+
+    // Constructor con parámetros
+    public PuntoControl(String tarea, LocalDate ultimaFecha) {
+        this.tarea = tarea;
+        this.ultimaFecha = ultimaFecha;
+        this.actualizadoEn = LocalDateTime.now();
+    }
+
+    // Getters y Setters
+    public String getTarea() {
+        return tarea;
+    }
+
+    public void setTarea(String tarea) {
+        this.tarea = tarea;
+    }
+
+    public LocalDate getUltimaFecha() {
+        return ultimaFecha;
+    }
+
+    public void setUltimaFecha(LocalDate ultimaFecha) {
+        this.ultimaFecha = ultimaFecha;
+    }
+
+    public LocalDateTime getActualizadoEn() {
+        return actualizadoEn;
+    }
+
+    public void setActualizadoEn(LocalDateTime actualizadoEn) {
+        this.actualizadoEn = actualizadoEn;
+    }
+}
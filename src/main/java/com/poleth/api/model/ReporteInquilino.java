@@ -4,8 +4,15 @@ package com.poleth.api.model;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
+// Índices de la cola de urgentes (estado, prioridad, fecha), de los filtros por inquilino y cuarto
+// y del orden por fecha
 @Entity
-@Table(name = "Reportes_Inquilinos")
+@Table(name = "Reportes_Inquilinos", indexes = {
+        @Index(name = "idx_reportes_estado_prioridad", columnList = "estado_reporte, prioridad, fecha"),
+        @Index(name = "idx_reportes_inquilino_fecha", columnList = "id_inquilino, fecha"),
+        @Index(name = "idx_reportes_cuarto_fecha", columnList = "id_cuarto, fecha"),
+        @Index(name = "idx_reportes_fecha", columnList = "fecha, id_reporte")
+})
 public class ReporteInquilino {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,6 +46,10 @@ public class ReporteInquilino {
     @Column(name = "acciones_tomadas", columnDefinition = "TEXT")
     private String accionesTomadas;
 
+    // Prioridad calculada de la descripción al crear/actualizar (0 = no urgente, null = sin clasificar)
+    @Column(name = "prioridad")
+    private Integer prioridad;
+
     // Constructor por defecto
     public ReporteInquilino() {
     }
@@ -150,6 +161,14 @@ public class ReporteInquilino {
         this.accionesTomadas = accionesTomadas;
     }
 
+    public Integer getPrioridad() {
+        return prioridad;
+    }
+
+    public void setPrioridad(Integer prioridad) {
+        this.prioridad = prioridad;
+    }
+
     // Métodos utilitarios
     public boolean estaAbierto() {
         return "abierto".equalsIgnoreCase(estadoReporte);
@@ -170,6 +189,7 @@ public class ReporteInquilino {
     }
 
     public boolean esReporteUrgente() {
+        if (prioridad != null) return prioridad > 0;
         if (descripcion == null) return false;
         String descripcionLower = descripcion.toLowerCase();
         return descripcionLower.contains("urgente") ||
@@ -198,6 +218,7 @@ public class ReporteInquilino {
                 ", fecha=" + fecha +
                 ", idCuarto=" + idCuarto +
                 ", estadoReporte='" + estadoReporte + '\'' +
+                ", prioridad=" + prioridad +
                 ", fechaCierre=" + fechaCierre +
                 ", accionesTomadas='" + (accionesTomadas != null ?
                 accionesTomadas.substring(0, Math.min(50, accionesTomadas.length())) : "null") + "'" +
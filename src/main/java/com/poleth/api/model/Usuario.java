@@ -1,6 +1,7 @@
 //Usuario.java
 package com.poleth.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.poleth.api.util.PasswordUtil;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
@@ -25,8 +26,10 @@ public class Usuario {
     @Column(name = "telefono", length = 20)
     private String telefono;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // LAZY: el rol está en la caché de segundo nivel y las consultas que lo necesitan hacen JOIN FETCH
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rol_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Rol rol;
 
     @Column(name = "created_at")
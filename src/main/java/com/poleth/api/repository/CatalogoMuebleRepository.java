@@ -3,13 +3,18 @@ package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
 import com.poleth.api.model.CatalogoMueble;
+import com.poleth.api.search.IndiceBusqueda;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
 import java.util.Optional;
 
 public class CatalogoMuebleRepository {
 
+    // Región de la caché de consultas (ver application.conf)
+    private static final String QUERY_CACHE_REGION = "consultas-catalogo-mueble";
+
     // Método para guardar o actualizar un mueble del catálogo
     public CatalogoMueble save(CatalogoMueble catalogoMueble) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -21,6 +26,7 @@ public class CatalogoMuebleRepository {
                 catalogoMueble = em.merge(catalogoMueble);
             }
             em.getTransaction().commit();
+            IndiceBusqueda.indexar(catalogoMueble);
             return catalogoMueble;
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
@@ -37,6 +43,8 @@ public class CatalogoMuebleRepository {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery("SELECT cm FROM CatalogoMueble cm", CatalogoMueble.class)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -64,6 +72,7 @@ public class CatalogoMuebleRepository {
                 em.remove(catalogoMueble);
             }
             em.getTransaction().commit();
+            IndiceBusqueda.eliminar(CatalogoMueble.class, id);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -81,6 +90,8 @@ public class CatalogoMuebleRepository {
             return em.createQuery(
                             "SELECT cm FROM CatalogoMueble cm WHERE cm.nombreMueble = :nombreMueble", CatalogoMueble.class)
                     .setParameter("nombreMueble", nombreMueble)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultStream()
                     .findFirst();
         } catch (NoResultException e) {
@@ -92,6 +103,12 @@ public class CatalogoMuebleRepository {
 
     // Método para buscar muebles que contengan texto en el nombre
     public List<CatalogoMueble> findByNombreContaining(String texto) {
+        // Con el índice de búsqueda disponible se responde por relevancia sin consultar la base de datos
+        Optional<List<CatalogoMueble>> indexados = IndiceBusqueda.buscar(CatalogoMueble.class, texto,
+                IndiceBusqueda.CAMPO_NOMBRE);
+        if (indexados.isPresent()) {
+            return indexados.get();
+        }
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
@@ -105,6 +122,12 @@ public class CatalogoMuebleRepository {
 
     // Método para buscar muebles que contengan texto en la descripción
     public List<CatalogoMueble> findByDescripcionContaining(String texto) {
+        // Con el índice de búsqueda disponible se responde por relevancia sin consultar la base de datos
+        Optional<List<CatalogoMueble>> indexados = IndiceBusqueda.buscar(CatalogoMueble.class, texto,
+                IndiceBusqueda.CAMPO_DESCRIPCION);
+        if (indexados.isPresent()) {
+            return indexados.get();
+        }
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
@@ -151,6 +174,8 @@ public class CatalogoMuebleRepository {
             return em.createQuery(
                             "SELECT cm FROM CatalogoMueble cm WHERE cm.estadoMueble = :estado", CatalogoMueble.class)
                     .setParameter("estado", estado)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -174,6 +199,8 @@ public class CatalogoMuebleRepository {
         try {
             return em.createQuery(
                             "SELECT cm FROM CatalogoMueble cm WHERE cm.descripcion IS NOT NULL", CatalogoMueble.class)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -186,6 +213,8 @@ public class CatalogoMuebleRepository {
         try {
             return em.createQuery(
                             "SELECT cm FROM CatalogoMueble cm WHERE cm.descripcion IS NULL", CatalogoMueble.class)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -198,6 +227,8 @@ public class CatalogoMuebleRepository {
         try {
             return em.createQuery(
                             "SELECT cm FROM CatalogoMueble cm ORDER BY cm.nombreMueble", CatalogoMueble.class)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -210,6 +241,8 @@ public class CatalogoMuebleRepository {
         try {
             return em.createQuery(
                             "SELECT cm FROM CatalogoMueble cm WHERE cm.estadoMueble = 'activo'", CatalogoMueble.class)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
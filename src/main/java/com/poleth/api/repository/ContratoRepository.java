@@ -2,11 +2,16 @@
 package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Contrato;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,6 +55,20 @@ public class ContratoRepository {
         }
     }
 
+    // Método para obtener una página de contratos por cursor, orden (createdAt, id) descendente
+    public PaginaCursor<Contrato> findPagina(String cursor, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return KeysetPagination.buscar(em, Contrato.class,
+                    "SELECT c FROM Contrato c LEFT JOIN FETCH c.cuarto LEFT JOIN FETCH c.inquilino",
+                    "c.createdAt", "c.idContrato", LocalDateTime::parse,
+                    Contrato::getCreatedAt, Contrato::getIdContrato,
+                    cursor, limite);
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para buscar contrato por ID CON relaciones
     public Optional<Contrato> findById(Integer id) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -129,6 +148,142 @@ public class ContratoRepository {
         }
     }
 
+    // Método para obtener el inquilino de cada contrato indicado: filas (idContrato, idInquilino).
+    // Los contratos que no existen no aparecen
+    public List<Object[]> findInquilinosByIds(Collection<Integer> idsContrato) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            List<Integer> ids = new ArrayList<>(idsContrato);
+            List<Object[]> filas = new ArrayList<>(ids.size());
+            for (int inicio = 0; inicio < ids.size(); inicio += 1000) {
+                filas.addAll(em.createQuery(
+                                "SELECT c.idContrato, c.idInquilino FROM Contrato c WHERE c.idContrato IN :ids",
+                                Object[].class)
+                        .setParameter("ids", ids.subList(inicio, Math.min(inicio + 1000, ids.size())))
+                        .getResultList());
+            }
+            return filas;
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para obtener el contrato más reciente de cada inquilino indicado: filas (idInquilino, idContrato),
+    // con idContrato nulo si el usuario existe pero no tiene contratos. Los usuarios que no existen no aparecen
+    public List<Object[]> findUltimoContratoByInquilinos(Collection<Integer> idsInquilino) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            List<Integer> ids = new ArrayList<>(idsInquilino);
+            List<Object[]> filas = new ArrayList<>(ids.size());
+            for (int inicio = 0; inicio < ids.size(); inicio += 1000) {
+                filas.addAll(em.createQuery(
+                                "SELECT u.idUsuario, MAX(c.idContrato) FROM Usuario u " +
+                                        "LEFT JOIN Contrato c ON c.idInquilino = u.idUsuario " +
+                                        "WHERE u.idUsuario IN :ids " +
+                                        "GROUP BY u.idUsuario",
+                                Object[].class)
+                        .setParameter("ids", ids.subList(inicio, Math.min(inicio + 1000, ids.size())))
+                        .getResultList());
+            }
+            return filas;
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para obtener los contratos activos cuya fecha de finalización ya pasó, los más antiguos
+    // primero: filas (idContrato, idInquilino, fechaFinalizacion)
+    public List<Object[]> findActivosFinalizadosAntesDe(LocalDate fecha, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT c.idContrato, c.idInquilino, c.fechaFinalizacion FROM Contrato c " +
+                                    "WHERE c.estadoContrato = 'activo' AND c.fechaFinalizacion < :fecha " +
+                                    "ORDER BY c.fechaFinalizacion, c.idContrato",
+                            Object[].class)
+                    .setParameter("fecha", fecha)
+                    .setMaxResults(limite)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para obtener los contratos activos que finalizan entre dos fechas (incluidas):
+    // filas (idContrato, idInquilino, fechaFinalizacion)
+    public List<Object[]> findActivosConFinEntre(LocalDate desde, LocalDate hasta) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT c.idContrato, c.idInquilino, c.fechaFinalizacion FROM Contrato c " +
+                                    "WHERE c.estadoContrato = 'activo' " +
+                                    "AND c.fechaFinalizacion BETWEEN :desde AND :hasta",
+                            Object[].class)
+                    .setParameter("desde", desde)
+                    .setParameter("hasta", hasta)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para obtener los contratos activos con la fecha de pago entre dos fechas (incluidas):
+    // filas (idContrato, idInquilino, fechaPagoEstablecida)
+    public List<Object[]> findActivosConPagoEntre(LocalDate desde, LocalDate hasta) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT c.idContrato, c.idInquilino, c.fechaPagoEstablecida FROM Contrato c " +
+                                    "WHERE c.estadoContrato = 'activo' " +
+                                    "AND c.fechaPagoEstablecida BETWEEN :desde AND :hasta",
+                            Object[].class)
+                    .setParameter("desde", desde)
+                    .setParameter("hasta", hasta)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para cambiar el estado de varios contratos que sigan en estadoActual; devuelve los que cambiaron.
+    // Las filas se bloquean (SELECT ... FOR UPDATE) antes del UPDATE para que la lista coincida con lo
+    // actualizado aunque otra transacción cambie alguno de esos contratos al mismo tiempo
+    public List<Integer> updateEstadoByIds(Collection<Integer> idsContrato, String estadoActual, String nuevoEstado) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            List<Integer> ids = new ArrayList<>(idsContrato);
+            List<Integer> actualizados = new ArrayList<>(ids.size());
+            em.getTransaction().begin();
+            for (int inicio = 0; inicio < ids.size(); inicio += 1000) {
+                List<Integer> bloqueados = em.createQuery(
+                                "SELECT c.idContrato FROM Contrato c " +
+                                        "WHERE c.idContrato IN :ids AND c.estadoContrato = :estadoActual",
+                                Integer.class)
+                        .setParameter("estadoActual", estadoActual)
+                        .setParameter("ids", ids.subList(inicio, Math.min(inicio + 1000, ids.size())))
+                        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                        .getResultList();
+                if (bloqueados.isEmpty()) {
+                    continue;
+                }
+                em.createQuery("UPDATE Contrato c SET c.estadoContrato = :nuevoEstado WHERE c.idContrato IN :ids")
+                        .setParameter("nuevoEstado", nuevoEstado)
+                        .setParameter("ids", bloqueados)
+                        .executeUpdate();
+                actualizados.addAll(bloqueados);
+            }
+            em.getTransaction().commit();
+            return actualizados;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al actualizar el estado de los contratos: " + e.getMessage(), e);
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para buscar contratos por estado CON relaciones
     public List<Contrato> findByEstadoContrato(String estadoContrato) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -2,15 +2,25 @@
 package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Cuarto;
+import com.poleth.api.search.IndiceBusqueda;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class CuartoRepository {
 
+    // Región de la caché de consultas (ver application.conf)
+    private static final String QUERY_CACHE_REGION = "consultas-cuarto";
+
     // Método para guardar o actualizar un cuarto
     public Cuarto save(Cuarto cuarto) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -22,6 +32,7 @@ public class CuartoRepository {
                 cuarto = em.merge(cuarto);
             }
             em.getTransaction().commit();
+            IndiceBusqueda.indexar(cuarto);
             return cuarto;
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
@@ -38,9 +49,26 @@ public class CuartoRepository {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                    "SELECT c FROM Cuarto c LEFT JOIN FETCH c.propietario ORDER BY c.createdAt DESC",
-                    Cuarto.class
-            ).getResultList();
+                            "SELECT c FROM Cuarto c LEFT JOIN FETCH c.propietario ORDER BY c.createdAt DESC",
+                            Cuarto.class
+                    )
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para obtener una página de cuartos por cursor, orden (createdAt, id) descendente
+    public PaginaCursor<Cuarto> findPagina(String cursor, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return KeysetPagination.buscar(em, Cuarto.class,
+                    "SELECT c FROM Cuarto c LEFT JOIN FETCH c.propietario",
+                    "c.createdAt", "c.idCuarto", LocalDateTime::parse,
+                    Cuarto::getCreatedAt, Cuarto::getIdCuarto,
+                    cursor, limite);
         } finally {
             em.close();
         }
@@ -55,6 +83,8 @@ public class CuartoRepository {
                     Cuarto.class
             );
             query.setParameter("id", id);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+            query.setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
 
             try {
                 Cuarto cuarto = query.getSingleResult();
@@ -77,6 +107,7 @@ public class CuartoRepository {
                 em.remove(cuarto);
             }
             em.getTransaction().commit();
+            IndiceBusqueda.eliminar(Cuarto.class, id);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -97,6 +128,8 @@ public class CuartoRepository {
                             Cuarto.class
                     )
                     .setParameter("idPropietario", idPropietario)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -112,6 +145,8 @@ public class CuartoRepository {
                             Cuarto.class
                     )
                     .setParameter("nombreCuarto", nombreCuarto)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -128,6 +163,8 @@ public class CuartoRepository {
                             Cuarto.class
                     )
                     .setParameter("estadoCuarto", estadoCuarto)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -143,6 +180,8 @@ public class CuartoRepository {
                                     "WHERE c.estadoCuarto = 'disponible' ORDER BY c.createdAt DESC",
                             Cuarto.class
                     )
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -151,6 +190,12 @@ public class CuartoRepository {
 
     // Método para buscar cuartos que contengan texto en la descripción CON propietario - USANDO JOIN FETCH
     public List<Cuarto> findByDescripcionContaining(String texto) {
+        // Con el índice de búsqueda disponible se obtienen los ids por relevancia y se cargan por clave
+        // primaria (el propietario se devuelve junto al cuarto y no se guarda en el índice)
+        Optional<List<Integer>> ids = IndiceBusqueda.buscarIds(Cuarto.class, texto, IndiceBusqueda.CAMPO_DESCRIPCION);
+        if (ids.isPresent()) {
+            return findByIdsEnOrden(ids.get());
+        }
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
@@ -165,6 +210,34 @@ public class CuartoRepository {
         }
     }
 
+    // Método para cargar cuartos (con propietario) por id conservando el orden recibido
+    private List<Cuarto> findByIdsEnOrden(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            Map<Integer, Cuarto> porId = new HashMap<>();
+            for (Cuarto cuarto : em.createQuery(
+                            "SELECT c FROM Cuarto c LEFT JOIN FETCH c.propietario WHERE c.idCuarto IN :ids",
+                            Cuarto.class)
+                    .setParameter("ids", ids)
+                    .getResultList()) {
+                porId.put(cuarto.getIdCuarto(), cuarto);
+            }
+            List<Cuarto> cuartos = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                Cuarto cuarto = porId.get(id);
+                if (cuarto != null) {
+                    cuartos.add(cuarto);
+                }
+            }
+            return cuartos;
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para verificar existencia de cuarto por nombre y propietario
     public boolean existsByNombreAndPropietario(String nombreCuarto, Integer idPropietario) {
         EntityManager em = DatabaseConfig.createEntityManager();
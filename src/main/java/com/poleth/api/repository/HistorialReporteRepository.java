@@ -2,12 +2,22 @@
 package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.ConteoAgrupado;
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.HistorialReporte;
+import com.poleth.api.search.IndiceBusqueda;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class HistorialReporteRepository {
 
@@ -22,6 +32,7 @@ public class HistorialReporteRepository {
                 historialReporte = em.merge(historialReporte);
             }
             em.getTransaction().commit();
+            IndiceBusqueda.indexar(historialReporte);
             return historialReporte;
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
@@ -46,6 +57,39 @@ public class HistorialReporteRepository {
         }
     }
 
+    // Método para obtener una página de historiales por cursor, orden (fechaRegistro, id) descendente
+    public PaginaCursor<HistorialReporte> findPagina(String cursor, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return KeysetPagination.buscar(em, HistorialReporte.class,
+                    "SELECT hr FROM HistorialReporte hr",
+                    "hr.fechaRegistro", "hr.idHistorial", LocalDateTime::parse,
+                    HistorialReporte::getFechaRegistro, HistorialReporte::getIdHistorial,
+                    cursor, limite);
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para recorrer todos los historiales sin cargarlos en memoria a la vez (exportación)
+    public void streamAll(Consumer<HistorialReporte> consumer) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try (Stream<HistorialReporte> stream = em.createQuery(
+                        "SELECT hr FROM HistorialReporte hr ORDER BY hr.fechaRegistro DESC, hr.idHistorial DESC",
+                        HistorialReporte.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, DatabaseConfig.getStreamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            stream.forEach(historialReporte -> {
+                consumer.accept(historialReporte);
+                // Se saca del contexto de persistencia para que no crezca con cada fila
+                em.detach(historialReporte);
+            });
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para buscar historial por ID
     public Optional<HistorialReporte> findById(Integer id) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -67,6 +111,7 @@ public class HistorialReporteRepository {
                 em.remove(historialReporte);
             }
             em.getTransaction().commit();
+            IndiceBusqueda.eliminar(HistorialReporte.class, id);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -121,6 +166,12 @@ public class HistorialReporteRepository {
 
     // Método para buscar historiales que contengan texto en la descripción
     public List<HistorialReporte> findByDescripcionContaining(String texto) {
+        // Con el índice de búsqueda disponible se responde por relevancia sin consultar la base de datos
+        Optional<List<HistorialReporte>> indexados = IndiceBusqueda.buscar(HistorialReporte.class, texto,
+                IndiceBusqueda.CAMPO_DESCRIPCION);
+        if (indexados.isPresent()) {
+            return indexados.get();
+        }
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
@@ -135,6 +186,12 @@ public class HistorialReporteRepository {
 
     // Método para buscar historiales que contengan texto en el nombre
     public List<HistorialReporte> findByNombreContaining(String texto) {
+        // Con el índice de búsqueda disponible se responde por relevancia sin consultar la base de datos
+        Optional<List<HistorialReporte>> indexados = IndiceBusqueda.buscar(HistorialReporte.class, texto,
+                IndiceBusqueda.CAMPO_NOMBRE);
+        if (indexados.isPresent()) {
+            return indexados.get();
+        }
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
@@ -281,4 +338,88 @@ public class HistorialReporteRepository {
             em.close();
         }
     }
-}
\ No newline at end of file
+
+    // Método para contar historiales agrupados por tipo (una fila por tipo distinto)
+    public List<ConteoAgrupado> countAgrupadoPorTipo() {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT new com.poleth.api.dto.ConteoAgrupado(hr.tipoReporteHist, COUNT(hr)) " +
+                                    "FROM HistorialReporte hr GROUP BY hr.tipoReporteHist",
+                            ConteoAgrupado.class)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para contar historiales agrupados por usuario (una fila por usuario distinto)
+    public List<ConteoAgrupado> countAgrupadoPorUsuario() {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT new com.poleth.api.dto.ConteoAgrupado(hr.usuarioRegistro, COUNT(hr)) " +
+                                    "FROM HistorialReporte hr GROUP BY hr.usuarioRegistro",
+                            ConteoAgrupado.class)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para contar historiales registrados después de una fecha
+    public long countPosteriores(LocalDateTime desde) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            Long count = em.createQuery(
+                            "SELECT COUNT(hr) FROM HistorialReporte hr WHERE hr.fechaRegistro > :desde",
+                            Long.class)
+                    .setParameter("desde", desde)
+                    .getSingleResult();
+            return count != null ? count : 0L;
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para buscar historiales registrados después de una fecha
+    public List<HistorialReporte> findPosteriores(LocalDateTime desde) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT hr FROM HistorialReporte hr WHERE hr.fechaRegistro > :desde ORDER BY hr.fechaRegistro DESC",
+                            HistorialReporte.class)
+                    .setParameter("desde", desde)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para buscar historiales en [desde, hasta) (p. ej. un día completo)
+    public List<HistorialReporte> findEnIntervalo(LocalDateTime desde, LocalDateTime hasta) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT hr FROM HistorialReporte hr WHERE hr.fechaRegistro >= :desde " +
+                                    "AND hr.fechaRegistro < :hasta ORDER BY hr.fechaRegistro DESC",
+                            HistorialReporte.class)
+                    .setParameter("desde", desde)
+                    .setParameter("hasta", hasta)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para obtener un histograma por fecha de registro de las últimas N cubetas
+    public List<CubetaTiempo> histograma(Granularidad granularidad, int cubetas) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return TimeHistogram.buscar(em, "HistorialReporte hr", "hr.fechaRegistro", null,
+                    LocalDate::atStartOfDay, granularidad, cubetas);
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+// KeysetPagination.java
+package com.poleth.api.repository;
+
+import com.poleth.api.dto.PaginaCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Paginación por cursor sobre el orden (fecha DESC, id DESC).
+// El cursor es opaco para el cliente: base64 de "fecha|id" de la última fila devuelta.
+// En lugar de OFFSET se filtra por "filas anteriores al cursor", así la página N
+// cuesta lo mismo que la primera si existe un índice sobre (fecha, id).
+final class KeysetPagination {
+
+    private static final String SEPARADOR = "|";
+
+    private KeysetPagination() {
+    }
+
+    // Método para obtener una página.
+    //   consulta:   "SELECT x FROM Entidad x [JOIN FETCH ...]" sin WHERE ni ORDER BY
+    //   campoFecha / campoId: rutas JPQL de las columnas de orden (p. ej. "p.fechaPago", "p.idPago")
+    //   parseFecha: convierte el texto del cursor al tipo de la columna de fecha
+    //   fechaDe / idDe: extraen la clave de orden de una fila
+    static <T> PaginaCursor<T> buscar(EntityManager em, Class<T> tipo, String consulta,
+                                      String campoFecha, String campoId,
+                                      Function<String, Object> parseFecha,
+                                      Function<T, Object> fechaDe, Function<T, Integer> idDe,
+                                      String cursor, int limite) {
+        Object fechaCursor = null;
+        Integer idCursor = null;
+        String where = "";
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] partes = decodificar(cursor);
+            idCursor = parseId(partes[1]);
+            if (partes[0].isEmpty()) {
+                // La última fila tenía fecha nula: quedan solo filas sin fecha con id menor
+                where = " WHERE " + campoFecha + " IS NULL AND " + campoId + " < :cursorId";
+            } else {
+                fechaCursor = parseFechaCursor(parseFecha, partes[0]);
+                where = " WHERE (" + campoFecha + " < :cursorFecha" +
+                        " OR (" + campoFecha + " = :cursorFecha AND " + campoId + " < :cursorId)" +
+                        " OR " + campoFecha + " IS NULL)";
+            }
+        }
+
+        TypedQuery<T> query = em.createQuery(
+                        consulta + where +
+                                " ORDER BY " + campoFecha + " DESC NULLS LAST, " + campoId + " DESC",
+                        tipo)
+                .setMaxResults(limite + 1);
+        if (idCursor != null) {
+            query.setParameter("cursorId", idCursor);
+        }
+        if (fechaCursor != null) {
+            query.setParameter("cursorFecha", fechaCursor);
+        }
+
+        // Se pide una fila de más para saber si existe una página siguiente
+        List<T> filas = query.getResultList();
+        if (filas.size() <= limite) {
+            return new PaginaCursor<>(filas, null, limite);
+        }
+        List<T> pagina = filas.subList(0, limite);
+        T ultima = pagina.get(limite - 1);
+        return new PaginaCursor<>(pagina, codificar(fechaDe.apply(ultima), idDe.apply(ultima)), limite);
+    }
+
+    static String codificar(Object fecha, Integer id) {
+        String valor = (fecha != null ? fecha.toString() : "") + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Método para obtener [fecha, id] del cursor (fecha vacía si la fila no tenía fecha)
+    static String[] decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new String[]{valor.substring(0, separador), valor.substring(separador + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private static Integer parseId(String valor) {
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private static Object parseFechaCursor(Function<String, Object> parseFecha, String valor) {
+        try {
+            return parseFecha.apply(valor);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -2,15 +2,21 @@
 package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Mantenimiento;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class MantenimientoRepository {
 
@@ -49,6 +55,39 @@ public class MantenimientoRepository {
         }
     }
 
+    // Método para obtener una página de mantenimientos por cursor, orden (fechaReporte, id) descendente
+    public PaginaCursor<Mantenimiento> findPagina(String cursor, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return KeysetPagination.buscar(em, Mantenimiento.class,
+                    "SELECT m FROM Mantenimiento m",
+                    "m.fechaReporte", "m.idMantenimiento", LocalDate::parse,
+                    Mantenimiento::getFechaReporte, Mantenimiento::getIdMantenimiento,
+                    cursor, limite);
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para recorrer todos los mantenimientos sin cargarlos en memoria a la vez (exportación)
+    public void streamAll(Consumer<Mantenimiento> consumer) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try (Stream<Mantenimiento> stream = em.createQuery(
+                        "SELECT m FROM Mantenimiento m ORDER BY m.fechaReporte DESC, m.idMantenimiento DESC",
+                        Mantenimiento.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, DatabaseConfig.getStreamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            stream.forEach(mantenimiento -> {
+                consumer.accept(mantenimiento);
+                // Se saca del contexto de persistencia para que no crezca con cada fila
+                em.detach(mantenimiento);
+            });
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para buscar mantenimiento por ID
     public Optional<Mantenimiento> findById(Integer id) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -372,4 +411,29 @@ public class MantenimientoRepository {
             em.close();
         }
     }
-}
\ No newline at end of file
+
+    // Método para agrupar por estado: filas [estado, cantidad, suma de costos]
+    public List<Object[]> countAgrupadoPorEstado() {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT m.estadoMantenimiento, COUNT(m), SUM(m.costoMantenimiento) " +
+                                    "FROM Mantenimiento m GROUP BY m.estadoMantenimiento",
+                            Object[].class)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para obtener un histograma por fecha de reporte (cantidad y costo) de las últimas N cubetas
+    public List<CubetaTiempo> histograma(Granularidad granularidad, int cubetas) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return TimeHistogram.buscar(em, "Mantenimiento m", "m.fechaReporte", "m.costoMantenimiento",
+                    fecha -> fecha, granularidad, cubetas);
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -2,15 +2,36 @@
 package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.NotificacionResumen;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Notificacion;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import org.hibernate.Session;
 import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public class NotificacionRepository {
 
+    private static final String INSERT_NOTIFICACION =
+            "INSERT INTO notificaciones (id_inquilino, id_contrato, fecha_utilizacion, tipo_notificacion, " +
+            "detalles, estado_notificacion, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Los listados se proyectan a NotificacionResumen: n.inquilino.idUsuario se lee de la columna
+    // id_inquilino, sin JOIN a usuarios ni roles
+    private static final String SELECT_RESUMEN =
+            "SELECT new com.poleth.api.dto.NotificacionResumen(n.idNotificacion, n.inquilino.idUsuario, " +
+            "n.idContrato, n.tipoNotificacion, n.detalles, n.estadoNotificacion, n.fechaUtilizacion, n.createdAt) " +
+            "FROM Notificacion n ";
+
     // Método para guardar o actualizar una notificación
     public Notificacion save(Notificacion notificacion) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -33,29 +54,96 @@ public class NotificacionRepository {
         }
     }
 
+    // Método para insertar varias notificaciones en una sola transacción con lotes JDBC.
+    // Igual que en los pagos, con id IDENTITY Hibernate no agrupa los INSERT, así que se envían
+    // sobre la conexión de la sesión y los ids se leen de las claves generadas.
+    public void saveAll(List<Notificacion> notificaciones) {
+        if (notificaciones.isEmpty()) {
+            return;
+        }
+        int tamanoLote = DatabaseConfig.getIntProperty("db.batch-size", 50);
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_NOTIFICACION, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int inicio = 0; inicio < notificaciones.size(); inicio += tamanoLote) {
+                        List<Notificacion> lote = notificaciones.subList(inicio, Math.min(inicio + tamanoLote, notificaciones.size()));
+                        for (Notificacion notificacion : lote) {
+                            ps.setInt(1, notificacion.getInquilino().getIdUsuario());
+                            ps.setInt(2, notificacion.getIdContrato());
+                            if (notificacion.getFechaUtilizacion() == null) {
+                                ps.setNull(3, Types.DATE);
+                            } else {
+                                ps.setDate(3, notificacion.getFechaUtilizacion());
+                            }
+                            setTextoONulo(ps, 4, notificacion.getTipoNotificacion());
+                            setTextoONulo(ps, 5, notificacion.getDetalles());
+                            setTextoONulo(ps, 6, notificacion.getEstadoNotificacion());
+                            ps.setTimestamp(7, notificacion.getCreatedAt());
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                        try (ResultSet claves = ps.getGeneratedKeys()) {
+                            for (Notificacion notificacion : lote) {
+                                if (!claves.next()) {
+                                    break;
+                                }
+                                notificacion.setIdNotificacion(claves.getInt(1));
+                            }
+                        }
+                    }
+                }
+            });
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al guardar el lote de notificaciones", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void setTextoONulo(PreparedStatement ps, int indice, String valor) throws SQLException {
+        if (valor == null) {
+            ps.setNull(indice, Types.VARCHAR);
+        } else {
+            ps.setString(indice, valor);
+        }
+    }
+
     // Método para obtener todas las notificaciones
-    public List<Notificacion> findAll() {
+    public List<NotificacionResumen> findAll() {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
-            return em.createQuery("SELECT n FROM Notificacion n JOIN FETCH n.inquilino ORDER BY n.createdAt DESC", Notificacion.class)
+            return em.createQuery(SELECT_RESUMEN + "ORDER BY n.createdAt DESC", NotificacionResumen.class)
                     .getResultList();
         } finally {
             em.close();
         }
     }
 
+    // Método para obtener una página de notificaciones por cursor, orden (createdAt, id) descendente
+    public PaginaCursor<NotificacionResumen> findPagina(String cursor, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return KeysetPagination.buscar(em, NotificacionResumen.class, SELECT_RESUMEN.trim(),
+                    "n.createdAt", "n.idNotificacion", Timestamp::valueOf,
+                    NotificacionResumen::getCreatedAt, NotificacionResumen::getIdNotificacion,
+                    cursor, limite);
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para buscar notificación por ID
     public Optional<Notificacion> findById(Integer id) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
-            Notificacion notificacion = em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino WHERE n.idNotificacion = :id",
-                            Notificacion.class)
-                    .setParameter("id", id)
-                    .getSingleResult();
-            return Optional.of(notificacion);
-        } catch (NoResultException e) {
-            return Optional.empty();
+            // em.find reutiliza la caché de primer nivel de la petición; el inquilino se carga al usarse
+            return Optional.ofNullable(em.find(Notificacion.class, id));
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar notificación por ID: " + e.getMessage(), e);
         } finally {
@@ -88,14 +176,14 @@ public class NotificacionRepository {
     }
 
     // Método para buscar notificaciones por inquilino
-    public List<Notificacion> findByInquilino(Integer idInquilino) {
+    public List<NotificacionResumen> findByInquilino(Integer idInquilino) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino " +
+                            SELECT_RESUMEN +
                                     "WHERE n.inquilino.idUsuario = :idInquilino " +
                                     "ORDER BY n.createdAt DESC",
-                            Notificacion.class)
+                            NotificacionResumen.class)
                     .setParameter("idInquilino", idInquilino)
                     .getResultList();
         } finally {
@@ -104,14 +192,14 @@ public class NotificacionRepository {
     }
 
     // Método para buscar notificaciones por contrato
-    public List<Notificacion> findByContrato(Integer idContrato) {
+    public List<NotificacionResumen> findByContrato(Integer idContrato) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino " +
+                            SELECT_RESUMEN +
                                     "WHERE n.idContrato = :idContrato " +
                                     "ORDER BY n.createdAt DESC",
-                            Notificacion.class)
+                            NotificacionResumen.class)
                     .setParameter("idContrato", idContrato)
                     .getResultList();
         } finally {
@@ -120,14 +208,14 @@ public class NotificacionRepository {
     }
 
     // Método para buscar notificaciones por fecha de utilización
-    public List<Notificacion> findByFechaUtilizacion(Date fechaUtilizacion) {
+    public List<NotificacionResumen> findByFechaUtilizacion(Date fechaUtilizacion) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino " +
+                            SELECT_RESUMEN +
                                     "WHERE n.fechaUtilizacion = :fechaUtilizacion " +
                                     "ORDER BY n.createdAt DESC",
-                            Notificacion.class)
+                            NotificacionResumen.class)
                     .setParameter("fechaUtilizacion", fechaUtilizacion)
                     .getResultList();
         } finally {
@@ -136,15 +224,15 @@ public class NotificacionRepository {
     }
 
     // Método para buscar notificaciones por inquilino y estado
-    public List<Notificacion> findByInquilinoAndEstado(Integer idInquilino, String estado) {
+    public List<NotificacionResumen> findByInquilinoAndEstado(Integer idInquilino, String estado) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino " +
+                            SELECT_RESUMEN +
                                     "WHERE n.inquilino.idUsuario = :idInquilino " +
                                     "AND n.estadoNotificacion = :estado " +
                                     "ORDER BY n.createdAt DESC",
-                            Notificacion.class)
+                            NotificacionResumen.class)
                     .setParameter("idInquilino", idInquilino)
                     .setParameter("estado", estado)
                     .getResultList();
@@ -172,15 +260,33 @@ public class NotificacionRepository {
         }
     }
 
+    // Método para contar por inquilino las notificaciones en un estado (solo de los inquilinos indicados)
+    public List<Object[]> countAgrupadoPorInquilino(Collection<Integer> idsInquilino, String estado) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT n.inquilino.idUsuario, COUNT(n) FROM Notificacion n " +
+                                    "WHERE n.inquilino.idUsuario IN :ids " +
+                                    "AND n.estadoNotificacion = :estado " +
+                                    "GROUP BY n.inquilino.idUsuario",
+                            Object[].class)
+                    .setParameter("ids", idsInquilino)
+                    .setParameter("estado", estado)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para buscar notificaciones por tipo
-    public List<Notificacion> findByTipo(String tipoNotificacion) {
+    public List<NotificacionResumen> findByTipo(String tipoNotificacion) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino " +
+                            SELECT_RESUMEN +
                                     "WHERE n.tipoNotificacion = :tipo " +
                                     "ORDER BY n.createdAt DESC",
-                            Notificacion.class)
+                            NotificacionResumen.class)
                     .setParameter("tipo", tipoNotificacion)
                     .getResultList();
         } finally {
@@ -189,14 +295,14 @@ public class NotificacionRepository {
     }
 
     // Método para buscar notificaciones por estado
-    public List<Notificacion> findByEstado(String estado) {
+    public List<NotificacionResumen> findByEstado(String estado) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino " +
+                            SELECT_RESUMEN +
                                     "WHERE n.estadoNotificacion = :estado " +
                                     "ORDER BY n.createdAt DESC",
-                            Notificacion.class)
+                            NotificacionResumen.class)
                     .setParameter("estado", estado)
                     .getResultList();
         } finally {
@@ -227,6 +333,32 @@ public class NotificacionRepository {
         }
     }
 
+    // Método para pasar a un estado todas las notificaciones de un inquilino que estén en otro,
+    // con un solo UPDATE; devuelve cuántas cambiaron
+    public int updateEstadoByInquilino(Integer idInquilino, String estadoActual, String nuevoEstado) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            int updated = em.createQuery(
+                            "UPDATE Notificacion n SET n.estadoNotificacion = :nuevoEstado " +
+                                    "WHERE n.inquilino.idUsuario = :idInquilino " +
+                                    "AND n.estadoNotificacion = :estadoActual")
+                    .setParameter("nuevoEstado", nuevoEstado)
+                    .setParameter("idInquilino", idInquilino)
+                    .setParameter("estadoActual", estadoActual)
+                    .executeUpdate();
+            em.getTransaction().commit();
+            return updated;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al actualizar las notificaciones del inquilino: " + e.getMessage(), e);
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para verificar existencia
     public boolean existsById(Integer id) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -245,13 +377,13 @@ public class NotificacionRepository {
     }
 
     // Método para buscar notificaciones recientes
-    public List<Notificacion> findRecent(int limite) {
+    public List<NotificacionResumen> findRecent(int limite) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino " +
+                            SELECT_RESUMEN +
                                     "ORDER BY n.createdAt DESC",
-                            Notificacion.class)
+                            NotificacionResumen.class)
                     .setMaxResults(limite)
                     .getResultList();
         } finally {
@@ -260,14 +392,14 @@ public class NotificacionRepository {
     }
 
     // Método para buscar notificaciones recientes por inquilino
-    public List<Notificacion> findRecentByInquilino(Integer idInquilino, int limite) {
+    public List<NotificacionResumen> findRecentByInquilino(Integer idInquilino, int limite) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
-                            "SELECT n FROM Notificacion n JOIN FETCH n.inquilino " +
+                            SELECT_RESUMEN +
                                     "WHERE n.inquilino.idUsuario = :idInquilino " +
                                     "ORDER BY n.createdAt DESC",
-                            Notificacion.class)
+                            NotificacionResumen.class)
                     .setParameter("idInquilino", idInquilino)
                     .setMaxResults(limite)
                     .getResultList();
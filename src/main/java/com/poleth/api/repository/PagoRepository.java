@@ -2,13 +2,28 @@
 package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Pago;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class PagoRepository {
 
@@ -34,6 +49,90 @@ public class PagoRepository {
         }
     }
 
+    private static final String INSERT_PAGO =
+            "INSERT INTO Pagos (id_contrato, id_inquilino, fecha_pago, concepto, monto_pagado, metodo_pago, estado_pago) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Método para insertar varios pagos en una sola transacción con lotes JDBC.
+    // Con id IDENTITY Hibernate no agrupa los INSERT (necesita cada id al persistir),
+    // así que se envían directamente sobre la conexión de la sesión y los ids se leen
+    // de las claves generadas. Pago no está en la caché de segundo nivel.
+    public void saveAll(List<Pago> pagos) {
+        if (pagos.isEmpty()) {
+            return;
+        }
+        int tamanoLote = DatabaseConfig.getIntProperty("db.batch-size", 50);
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_PAGO, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int inicio = 0; inicio < pagos.size(); inicio += tamanoLote) {
+                        List<Pago> lote = pagos.subList(inicio, Math.min(inicio + tamanoLote, pagos.size()));
+                        for (Pago pago : lote) {
+                            ps.setInt(1, pago.getIdContrato());
+                            ps.setInt(2, pago.getIdInquilino());
+                            ps.setDate(3, Date.valueOf(pago.getFechaPago()));
+                            setTextoONulo(ps, 4, pago.getConcepto());
+                            ps.setBigDecimal(5, pago.getMontoPagado());
+                            setTextoONulo(ps, 6, pago.getMetodoPago());
+                            setTextoONulo(ps, 7, pago.getEstadoPago());
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                        try (ResultSet claves = ps.getGeneratedKeys()) {
+                            for (Pago pago : lote) {
+                                if (!claves.next()) {
+                                    break;
+                                }
+                                pago.setIdPago(claves.getInt(1));
+                            }
+                        }
+                    }
+                }
+            });
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al guardar el lote de pagos", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void setTextoONulo(PreparedStatement ps, int indice, String valor) throws SQLException {
+        if (valor == null) {
+            ps.setNull(indice, Types.VARCHAR);
+        } else {
+            ps.setString(indice, valor);
+        }
+    }
+
+    // Método para obtener la fecha del último pago en un estado de cada contrato indicado:
+    // filas (idContrato, fechaPago). Los contratos sin pagos no aparecen
+    public List<Object[]> findUltimaFechaPagoByContratos(Collection<Integer> idsContrato, String estadoPago) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            List<Integer> ids = new ArrayList<>(idsContrato);
+            List<Object[]> filas = new ArrayList<>(ids.size());
+            for (int inicio = 0; inicio < ids.size(); inicio += 1000) {
+                filas.addAll(em.createQuery(
+                                "SELECT p.idContrato, MAX(p.fechaPago) FROM Pago p " +
+                                        "WHERE p.idContrato IN :ids AND p.estadoPago = :estadoPago " +
+                                        "GROUP BY p.idContrato",
+                                Object[].class)
+                        .setParameter("ids", ids.subList(inicio, Math.min(inicio + 1000, ids.size())))
+                        .setParameter("estadoPago", estadoPago)
+                        .getResultList());
+            }
+            return filas;
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para obtener todos los pagos CON relaciones
     public List<Pago> findAll() {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -50,21 +149,44 @@ public class PagoRepository {
         }
     }
 
-    // Método para buscar pago por ID CON relaciones
+    // Método para obtener una página de pagos por cursor, orden (fechaPago, id) descendente
+    public PaginaCursor<Pago> findPagina(String cursor, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return KeysetPagination.buscar(em, Pago.class,
+                    "SELECT p FROM Pago p LEFT JOIN FETCH p.contrato LEFT JOIN FETCH p.inquilino",
+                    "p.fechaPago", "p.idPago", LocalDate::parse,
+                    Pago::getFechaPago, Pago::getIdPago,
+                    cursor, limite);
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para recorrer todos los pagos sin cargarlos en memoria a la vez (exportación)
+    public void streamAll(Consumer<Pago> consumer) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try (Stream<Pago> stream = em.createQuery(
+                        "SELECT p FROM Pago p ORDER BY p.fechaPago DESC, p.idPago DESC",
+                        Pago.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, DatabaseConfig.getStreamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            stream.forEach(pago -> {
+                consumer.accept(pago);
+                // Se saca del contexto de persistencia para que no crezca con cada fila
+                em.detach(pago);
+            });
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para buscar pago por ID (usa la caché de primer nivel de la petición)
     public Optional<Pago> findById(Integer id) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
-            return em.createQuery(
-                            "SELECT p FROM Pago p " +
-                                    "LEFT JOIN FETCH p.contrato " +
-                                    "LEFT JOIN FETCH p.inquilino " +
-                                    "WHERE p.idPago = :id",
-                            Pago.class)
-                    .setParameter("id", id)
-                    .getResultStream()
-                    .findFirst();
-        } catch (NoResultException e) {
-            return Optional.empty();
+            return Optional.ofNullable(em.find(Pago.class, id));
         } finally {
             em.close();
         }
@@ -573,4 +695,15 @@ public class PagoRepository {
             em.close();
         }
     }
-}
\ No newline at end of file
+
+    // Método para obtener un histograma por fecha de pago (cantidad y monto pagado) de las últimas N cubetas
+    public List<CubetaTiempo> histograma(Granularidad granularidad, int cubetas) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return TimeHistogram.buscar(em, "Pago p", "p.fechaPago", "p.montoPagado",
+                    fecha -> fecha, granularidad, cubetas);
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+// PuntoControlRepository.java
+package com.poleth.api.repository;
+
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.model.PuntoControl;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.Optional;
+
+public class PuntoControlRepository {
+
+    // Método para obtener la última fecha procesada por una tarea (vacío si nunca se ejecutó)
+    public Optional<LocalDate> findUltimaFecha(String tarea) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            PuntoControl punto = em.find(PuntoControl.class, tarea);
+            return Optional.ofNullable(punto).map(PuntoControl::getUltimaFecha);
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para guardar la última fecha procesada por una tarea
+    public void save(String tarea, LocalDate ultimaFecha) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.merge(new PuntoControl(tarea, ultimaFecha));
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al guardar el punto de control: " + e.getMessage(), e);
+        } finally {
+            em.close();
+        }
+    }
+}
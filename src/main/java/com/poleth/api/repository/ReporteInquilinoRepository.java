@@ -1,11 +1,23 @@
 package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.ConteoAgrupado;
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.ReporteInquilino;
+import com.poleth.api.search.IndiceBusqueda;
 import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 public class ReporteInquilinoRepository {
 
@@ -20,6 +32,7 @@ public class ReporteInquilinoRepository {
                 reporteInquilino = em.merge(reporteInquilino);
             }
             em.getTransaction().commit();
+            IndiceBusqueda.indexar(reporteInquilino);
             return reporteInquilino;
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
@@ -44,6 +57,39 @@ public class ReporteInquilinoRepository {
         }
     }
 
+    // Método para obtener una página de reportes por cursor, orden (fecha, id) descendente
+    public PaginaCursor<ReporteInquilino> findPagina(String cursor, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return KeysetPagination.buscar(em, ReporteInquilino.class,
+                    "SELECT ri FROM ReporteInquilino ri",
+                    "ri.fecha", "ri.idReporte", LocalDate::parse,
+                    ReporteInquilino::getFecha, ReporteInquilino::getIdReporte,
+                    cursor, limite);
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para recorrer todos los reportes sin cargarlos en memoria a la vez (exportación)
+    public void streamAll(Consumer<ReporteInquilino> consumer) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try (Stream<ReporteInquilino> stream = em.createQuery(
+                        "SELECT ri FROM ReporteInquilino ri ORDER BY ri.fecha DESC, ri.idReporte DESC",
+                        ReporteInquilino.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, DatabaseConfig.getStreamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            stream.forEach(reporteInquilino -> {
+                consumer.accept(reporteInquilino);
+                // Se saca del contexto de persistencia para que no crezca con cada fila
+                em.detach(reporteInquilino);
+            });
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para buscar reporte por ID
     public Optional<ReporteInquilino> findById(Integer id) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -65,6 +111,7 @@ public class ReporteInquilinoRepository {
                 em.remove(reporteInquilino);
             }
             em.getTransaction().commit();
+            IndiceBusqueda.eliminar(ReporteInquilino.class, id);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -160,6 +207,12 @@ public class ReporteInquilinoRepository {
 
     // Método para buscar reportes por texto en descripción o nombre
     public List<ReporteInquilino> findByTexto(String texto) {
+        // Con el índice de búsqueda disponible se responde por relevancia sin consultar la base de datos
+        Optional<List<ReporteInquilino>> indexados = IndiceBusqueda.buscar(ReporteInquilino.class, texto,
+                IndiceBusqueda.CAMPO_NOMBRE, IndiceBusqueda.CAMPO_DESCRIPCION);
+        if (indexados.isPresent()) {
+            return indexados.get();
+        }
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
@@ -247,15 +300,14 @@ public class ReporteInquilinoRepository {
         }
     }
 
-    // Método para obtener reportes urgentes
+    // Método para obtener la cola de reportes urgentes (búsqueda por índice sobre estado y prioridad)
     public List<ReporteInquilino> findUrgentes() {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery(
                             "SELECT ri FROM ReporteInquilino ri WHERE " +
-                                    "(ri.descripcion LIKE '%urgente%' OR ri.descripcion LIKE '%emergencia%') " +
-                                    "AND ri.estadoReporte = 'abierto' " +
-                                    "ORDER BY ri.fecha DESC",
+                                    "ri.estadoReporte = 'abierto' AND ri.prioridad > 0 " +
+                                    "ORDER BY ri.prioridad DESC, ri.fecha DESC",
                             ReporteInquilino.class)
                     .getResultList();
         } finally {
@@ -263,6 +315,50 @@ public class ReporteInquilinoRepository {
         }
     }
 
+    // Método para calcular la prioridad de los reportes sin clasificar (o de todos) y guardarla
+    // con un UPDATE por valor de prioridad; devuelve cuántos reportes se actualizaron
+    public int clasificarUrgencia(ToIntFunction<String> prioridad, boolean todos) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            Map<Integer, List<Integer>> idsPorPrioridad = new HashMap<>();
+            try (Stream<Object[]> filas = em.createQuery(
+                            "SELECT ri.idReporte, ri.descripcion FROM ReporteInquilino ri" +
+                                    (todos ? "" : " WHERE ri.prioridad IS NULL"),
+                            Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, DatabaseConfig.getStreamFetchSize())
+                    .getResultStream()) {
+                filas.forEach(fila -> idsPorPrioridad
+                        .computeIfAbsent(prioridad.applyAsInt((String) fila[1]), p -> new ArrayList<>())
+                        .add((Integer) fila[0]));
+            }
+            if (idsPorPrioridad.isEmpty()) {
+                return 0;
+            }
+
+            int actualizados = 0;
+            em.getTransaction().begin();
+            for (Map.Entry<Integer, List<Integer>> grupo : idsPorPrioridad.entrySet()) {
+                List<Integer> ids = grupo.getValue();
+                for (int inicio = 0; inicio < ids.size(); inicio += 1000) {
+                    actualizados += em.createQuery(
+                                    "UPDATE ReporteInquilino ri SET ri.prioridad = :prioridad WHERE ri.idReporte IN :ids")
+                            .setParameter("prioridad", grupo.getKey())
+                            .setParameter("ids", ids.subList(inicio, Math.min(inicio + 1000, ids.size())))
+                            .executeUpdate();
+                }
+            }
+            em.getTransaction().commit();
+            return actualizados;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw new RuntimeException("Error al clasificar la urgencia de los reportes", e);
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para obtener reportes sin acciones tomadas
     public List<ReporteInquilino> findSinAccionesTomadas() {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -291,4 +387,57 @@ public class ReporteInquilinoRepository {
             em.close();
         }
     }
-}
\ No newline at end of file
+
+    // Método para contar reportes agrupados por estado (reconciliación de estadísticas)
+    public List<ConteoAgrupado> countAgrupadoPorEstado() {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT new com.poleth.api.dto.ConteoAgrupado(ri.estadoReporte, COUNT(ri)) " +
+                                    "FROM ReporteInquilino ri GROUP BY ri.estadoReporte",
+                            ConteoAgrupado.class)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para contar reportes agrupados por tipo (reconciliación de estadísticas)
+    public List<ConteoAgrupado> countAgrupadoPorTipo() {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT new com.poleth.api.dto.ConteoAgrupado(ri.tipo, COUNT(ri)) " +
+                                    "FROM ReporteInquilino ri GROUP BY ri.tipo",
+                            ConteoAgrupado.class)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para contar reportes agrupados por año y mes: filas [año, mes, cantidad]
+    public List<Object[]> countAgrupadoPorMes() {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT YEAR(ri.fecha), MONTH(ri.fecha), COUNT(ri) FROM ReporteInquilino ri " +
+                                    "WHERE ri.fecha IS NOT NULL GROUP BY YEAR(ri.fecha), MONTH(ri.fecha)",
+                            Object[].class)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Método para obtener un histograma por fecha del reporte de las últimas N cubetas
+    public List<CubetaTiempo> histograma(Granularidad granularidad, int cubetas) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return TimeHistogram.buscar(em, "ReporteInquilino ri", "ri.fecha", null,
+                    fecha -> fecha, granularidad, cubetas);
+        } finally {
+            em.close();
+        }
+    }
+}
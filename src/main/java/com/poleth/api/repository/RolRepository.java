@@ -5,11 +5,15 @@ import com.poleth.api.config.DatabaseConfig;
 import com.poleth.api.model.Rol;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
 import java.util.Optional;
 
 public class RolRepository {
 
+    // Región de la caché de consultas (ver application.conf)
+    private static final String QUERY_CACHE_REGION = "consultas-rol";
+
     // Método para guardar o actualizar un rol
     public Rol save(Rol rol) {
         EntityManager em = DatabaseConfig.createEntityManager();
@@ -37,6 +41,8 @@ public class RolRepository {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
             return em.createQuery("SELECT r FROM Rol r", Rol.class)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultList();
         } finally {
             em.close();
@@ -81,6 +87,8 @@ public class RolRepository {
             return em.createQuery(
                             "SELECT r FROM Rol r WHERE r.titulo = :titulo", Rol.class)
                     .setParameter("titulo", titulo)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
                     .getResultStream()
                     .findFirst();
         } catch (NoResultException e) {
@@ -0,0 +1,83 @@
+// TimeHistogram.java
+package com.poleth.api.repository;
+
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Histograma por fecha de las últimas N cubetas (día, semana o mes) con una sola consulta.
+// Se agrupa por año/mes(/día) con extract, que funciona igual sobre DATE y DATETIME;
+// las semanas se arman sumando días en Java (como mucho 7 filas por cubeta).
+final class TimeHistogram {
+
+    private TimeHistogram() {
+    }
+
+    // Método para obtener las cubetas que terminan en la que contiene "hoy".
+    //   entidad:    "Entidad alias" (p. ej. "Pago p")
+    //   campoFecha: ruta JPQL de la fecha (p. ej. "p.fechaPago")
+    //   campoSuma:  ruta JPQL del monto a sumar, o null si solo se cuentan filas
+    //   limite:     convierte un LocalDate al tipo de la columna (LocalDate o LocalDateTime)
+    static List<CubetaTiempo> buscar(EntityManager em, String entidad, String campoFecha, String campoSuma,
+                                     Function<LocalDate, Object> limite,
+                                     Granularidad granularidad, int cubetas) {
+        LocalDate desde = granularidad.sumar(granularidad.inicioDe(LocalDate.now()), -(cubetas - 1));
+        LocalDate hasta = granularidad.sumar(desde, cubetas);
+
+        String grupo = "extract(year from " + campoFecha + "), extract(month from " + campoFecha + ")";
+        if (granularidad != Granularidad.MES) {
+            grupo += ", extract(day from " + campoFecha + ")";
+        }
+        String suma = campoSuma != null ? ", SUM(" + campoSuma + ")" : "";
+
+        TypedQuery<Object[]> query = em.createQuery(
+                "SELECT " + grupo + ", COUNT(*)" + suma +
+                        " FROM " + entidad +
+                        " WHERE " + campoFecha + " >= :desde AND " + campoFecha + " < :hasta" +
+                        " GROUP BY " + grupo,
+                Object[].class);
+        query.setParameter("desde", limite.apply(desde));
+        query.setParameter("hasta", limite.apply(hasta));
+
+        long[] cantidades = new long[cubetas];
+        BigDecimal[] sumas = new BigDecimal[cubetas];
+        int columnaConteo = granularidad == Granularidad.MES ? 2 : 3;
+        for (Object[] fila : query.getResultList()) {
+            int dia = granularidad == Granularidad.MES ? 1 : ((Number) fila[2]).intValue();
+            LocalDate fecha = LocalDate.of(((Number) fila[0]).intValue(), ((Number) fila[1]).intValue(), dia);
+            int indice = indiceDe(granularidad, desde, fecha);
+            cantidades[indice] += ((Number) fila[columnaConteo]).longValue();
+            if (campoSuma != null && fila[columnaConteo + 1] != null) {
+                BigDecimal monto = (BigDecimal) fila[columnaConteo + 1];
+                sumas[indice] = sumas[indice] != null ? sumas[indice].add(monto) : monto;
+            }
+        }
+
+        List<CubetaTiempo> resultado = new ArrayList<>(cubetas);
+        for (int i = 0; i < cubetas; i++) {
+            LocalDate inicio = granularidad.sumar(desde, i);
+            BigDecimal sumaCubeta = campoSuma == null ? null : (sumas[i] != null ? sumas[i] : BigDecimal.ZERO);
+            resultado.add(new CubetaTiempo(inicio, granularidad.sumar(inicio, 1), cantidades[i], sumaCubeta));
+        }
+        return resultado;
+    }
+
+    private static int indiceDe(Granularidad granularidad, LocalDate desde, LocalDate fecha) {
+        LocalDate inicio = granularidad.inicioDe(fecha);
+        switch (granularidad) {
+            case DIA:
+                return (int) ChronoUnit.DAYS.between(desde, inicio);
+            case SEMANA:
+                return (int) ChronoUnit.WEEKS.between(desde, inicio);
+            default:
+                return (int) ChronoUnit.MONTHS.between(desde, inicio);
+        }
+    }
+}
@@ -2,9 +2,11 @@
 package com.poleth.api.repository;
 
 import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Usuario;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,17 +45,30 @@ public class UsuarioRepository {
         }
     }
 
+    // Método para obtener una página de usuarios por cursor, orden (createdAt, id) descendente
+    public PaginaCursor<Usuario> findPagina(String cursor, int limite) {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        try {
+            return KeysetPagination.buscar(em, Usuario.class,
+                    "SELECT u FROM Usuario u JOIN FETCH u.rol",
+                    "u.createdAt", "u.idUsuario", LocalDateTime::parse,
+                    Usuario::getCreatedAt, Usuario::getIdUsuario,
+                    cursor, limite);
+        } finally {
+            em.close();
+        }
+    }
+
     // Método para buscar usuario por ID
     public Optional<Usuario> findById(Integer id) {
         EntityManager em = DatabaseConfig.createEntityManager();
         try {
-            Usuario usuario = em.createQuery(
-                            "SELECT u FROM Usuario u JOIN FETCH u.rol WHERE u.idUsuario = :id", Usuario.class)
+            // El rol es LAZY y los que llaman lo usan (respuesta JSON, updateUsuario): se trae en la misma consulta
+            return em.createQuery(
+                            "SELECT u FROM Usuario u LEFT JOIN FETCH u.rol WHERE u.idUsuario = :id", Usuario.class)
                     .setParameter("id", id)
-                    .getSingleResult();
-            return Optional.ofNullable(usuario);
-        } catch (NoResultException e) {
-            return Optional.empty();
+                    .getResultStream()
+                    .findFirst();
         } finally {
             em.close();
         }
@@ -2,9 +2,13 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.CatalogoMuebleController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class CatalogoMuebleRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final CatalogoMuebleController catalogoMuebleController;
 
     public CatalogoMuebleRoutes(CatalogoMuebleController catalogoMuebleController) {
@@ -13,23 +17,23 @@ public class CatalogoMuebleRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/catalogo-muebles", catalogoMuebleController::createCatalogoMueble);
-        app.get("/api/catalogo-muebles", catalogoMuebleController::getAllCatalogoMuebles);
-        app.get("/api/catalogo-muebles/{id}", catalogoMuebleController::getCatalogoMuebleById);
-        app.put("/api/catalogo-muebles/{id}", catalogoMuebleController::updateCatalogoMueble);
-        app.delete("/api/catalogo-muebles/{id}", catalogoMuebleController::deleteCatalogoMueble);
+        app.post("/api/catalogo-muebles", catalogoMuebleController::createCatalogoMueble, ACCESO);
+        app.get("/api/catalogo-muebles", catalogoMuebleController::getAllCatalogoMuebles, ACCESO);
+        app.get("/api/catalogo-muebles/{id}", catalogoMuebleController::getCatalogoMuebleById, ACCESO);
+        app.put("/api/catalogo-muebles/{id}", catalogoMuebleController::updateCatalogoMueble, ACCESO);
+        app.delete("/api/catalogo-muebles/{id}", catalogoMuebleController::deleteCatalogoMueble, ACCESO);
 
         // Rutas de búsqueda específicas
-        app.get("/api/catalogo-muebles/buscar/nombre", catalogoMuebleController::getCatalogoMuebleByNombre);
-        app.get("/api/catalogo-muebles/buscar/nombre-contiene", catalogoMuebleController::getCatalogoMueblesByNombreContaining);
-        app.get("/api/catalogo-muebles/buscar/descripcion", catalogoMuebleController::getCatalogoMueblesByDescripcionContaining);
+        app.get("/api/catalogo-muebles/buscar/nombre", catalogoMuebleController::getCatalogoMuebleByNombre, ACCESO);
+        app.get("/api/catalogo-muebles/buscar/nombre-contiene", catalogoMuebleController::getCatalogoMueblesByNombreContaining, ACCESO);
+        app.get("/api/catalogo-muebles/buscar/descripcion", catalogoMuebleController::getCatalogoMueblesByDescripcionContaining, ACCESO);
 
         // Ruta para eliminar solo la descripción
-        app.delete("/api/catalogo-muebles/{id}/descripcion", catalogoMuebleController::eliminarDescripcionMueble);
+        app.delete("/api/catalogo-muebles/{id}/descripcion", catalogoMuebleController::eliminarDescripcionMueble, ACCESO);
 
         // Rutas para estado
-        app.patch("/api/catalogo-muebles/{id}/estado", catalogoMuebleController::cambiarEstadoMueble);
-        app.get("/api/catalogo-muebles/estado/{estado}", catalogoMuebleController::getCatalogoMueblesByEstado);
-        app.get("/api/catalogo-muebles/activos", catalogoMuebleController::getCatalogoMueblesActivos);
+        app.patch("/api/catalogo-muebles/{id}/estado", catalogoMuebleController::cambiarEstadoMueble, ACCESO);
+        app.get("/api/catalogo-muebles/estado/{estado}", catalogoMuebleController::getCatalogoMueblesByEstado, ACCESO);
+        app.get("/api/catalogo-muebles/activos", catalogoMuebleController::getCatalogoMueblesActivos, ACCESO);
     }
 }
\ No newline at end of file
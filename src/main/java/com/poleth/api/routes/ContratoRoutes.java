@@ -2,9 +2,13 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.ContratoController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class ContratoRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final ContratoController contratoController;
 
     public ContratoRoutes(ContratoController contratoController) {
@@ -13,14 +17,14 @@ public class ContratoRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/contratos", contratoController::createContrato);
-        app.get("/api/contratos", contratoController::getAllContratos);
-        app.get("/api/contratos/{id}", contratoController::getContratoById);
-        app.put("/api/contratos/{id}", contratoController::updateContrato);
-        app.delete("/api/contratos/{id}", contratoController::deleteContrato);
+        app.post("/api/contratos", contratoController::createContrato, ACCESO);
+        app.get("/api/contratos", contratoController::getAllContratos, ACCESO);
+        app.get("/api/contratos/{id}", contratoController::getContratoById, ACCESO);
+        app.put("/api/contratos/{id}", contratoController::updateContrato, ACCESO);
+        app.delete("/api/contratos/{id}", contratoController::deleteContrato, ACCESO);
 
         // Rutas de búsqueda específicas
-        app.get("/api/contratos/cuarto/{idCuarto}", contratoController::getContratosByCuarto);
-        app.get("/api/contratos/inquilino/{idInquilino}", contratoController::getContratosByInquilino);
+        app.get("/api/contratos/cuarto/{idCuarto}", contratoController::getContratosByCuarto, ACCESO);
+        app.get("/api/contratos/inquilino/{idInquilino}", contratoController::getContratosByInquilino, ACCESO);
     }
 }
\ No newline at end of file
@@ -2,9 +2,13 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.CuartoMuebleController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class CuartoMuebleRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final CuartoMuebleController cuartoMuebleController;
 
     public CuartoMuebleRoutes(CuartoMuebleController cuartoMuebleController) {
@@ -13,23 +17,23 @@ public class CuartoMuebleRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/cuarto-muebles", cuartoMuebleController::createCuartoMueble);
-        app.get("/api/cuarto-muebles", cuartoMuebleController::getAllCuartoMuebles);
-        app.get("/api/cuarto-muebles/{id}", cuartoMuebleController::getCuartoMuebleById);
-        app.put("/api/cuarto-muebles/{id}", cuartoMuebleController::updateCuartoMueble);
-        app.delete("/api/cuarto-muebles/{id}", cuartoMuebleController::deleteCuartoMueble);
+        app.post("/api/cuarto-muebles", cuartoMuebleController::createCuartoMueble, ACCESO);
+        app.get("/api/cuarto-muebles", cuartoMuebleController::getAllCuartoMuebles, ACCESO);
+        app.get("/api/cuarto-muebles/{id}", cuartoMuebleController::getCuartoMuebleById, ACCESO);
+        app.put("/api/cuarto-muebles/{id}", cuartoMuebleController::updateCuartoMueble, ACCESO);
+        app.delete("/api/cuarto-muebles/{id}", cuartoMuebleController::deleteCuartoMueble, ACCESO);
 
         // Rutas de búsqueda específicas
-        app.get("/api/cuarto-muebles/cuarto/{idCuarto}", cuartoMuebleController::getCuartoMueblesByCuarto);
-        app.get("/api/cuarto-muebles/catalogo/{idCatalogoMueble}", cuartoMuebleController::getCuartoMueblesByCatalogo);
+        app.get("/api/cuarto-muebles/cuarto/{idCuarto}", cuartoMuebleController::getCuartoMueblesByCuarto, ACCESO);
+        app.get("/api/cuarto-muebles/catalogo/{idCatalogoMueble}", cuartoMuebleController::getCuartoMueblesByCatalogo, ACCESO);
         app.get("/api/cuarto-muebles/cuarto/{idCuarto}/catalogo/{idCatalogoMueble}",
-                cuartoMuebleController::getCuartoMuebleByCuartoAndCatalogo);
+                cuartoMuebleController::getCuartoMuebleByCuartoAndCatalogo, ACCESO);
 
         // Rutas de stock
-        app.get("/api/cuarto-muebles/stock/con-stock", cuartoMuebleController::getCuartoMueblesWithStock);
-        app.get("/api/cuarto-muebles/stock/sin-stock", cuartoMuebleController::getCuartoMueblesWithoutStock);
+        app.get("/api/cuarto-muebles/stock/con-stock", cuartoMuebleController::getCuartoMueblesWithStock, ACCESO);
+        app.get("/api/cuarto-muebles/stock/sin-stock", cuartoMuebleController::getCuartoMueblesWithoutStock, ACCESO);
 
         // Ruta para actualizar cantidad específica
-        app.put("/api/cuarto-muebles/{id}/cantidad", cuartoMuebleController::updateCantidad);
+        app.put("/api/cuarto-muebles/{id}/cantidad", cuartoMuebleController::updateCantidad, ACCESO);
     }
 }
\ No newline at end of file
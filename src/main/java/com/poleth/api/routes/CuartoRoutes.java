@@ -2,9 +2,13 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.CuartoController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class CuartoRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final CuartoController cuartoController;
 
     public CuartoRoutes(CuartoController cuartoController) {
@@ -13,17 +17,17 @@ public class CuartoRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/cuartos", cuartoController::createCuarto);
-        app.get("/api/cuartos", cuartoController::getAllCuartos);
-        app.get("/api/cuartos/{id}", cuartoController::getCuartoById);
-        app.put("/api/cuartos/{id}", cuartoController::updateCuarto);
-        app.delete("/api/cuartos/{id}", cuartoController::deleteCuarto);
+        app.post("/api/cuartos", cuartoController::createCuarto, ACCESO);
+        app.get("/api/cuartos", cuartoController::getAllCuartos, ACCESO);
+        app.get("/api/cuartos/{id}", cuartoController::getCuartoById, ACCESO);
+        app.put("/api/cuartos/{id}", cuartoController::updateCuarto, ACCESO);
+        app.delete("/api/cuartos/{id}", cuartoController::deleteCuarto, ACCESO);
 
         // Rutas específicas según tus requerimientos
-        app.get("/api/cuartos/propietario/{idPropietario}", cuartoController::getCuartosByPropietario);
+        app.get("/api/cuartos/propietario/{idPropietario}", cuartoController::getCuartosByPropietario, ACCESO);
 
         // Rutas de gestión
-        app.patch("/api/cuartos/{id}/estado", cuartoController::cambiarEstadoCuarto);
-        app.patch("/api/cuartos/{id}/precio", cuartoController::actualizarPrecioCuarto);
+        app.patch("/api/cuartos/{id}/estado", cuartoController::cambiarEstadoCuarto, ACCESO);
+        app.patch("/api/cuartos/{id}/precio", cuartoController::actualizarPrecioCuarto, ACCESO);
     }
 }
\ No newline at end of file
@@ -2,9 +2,13 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.HistorialReporteController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class HistorialReporteRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final HistorialReporteController historialReporteController;
 
     public HistorialReporteRoutes(HistorialReporteController historialReporteController) {
@@ -13,40 +17,43 @@ public class HistorialReporteRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/historial-reportes", historialReporteController::createHistorialReporte);
-        app.get("/api/historial-reportes", historialReporteController::getAllHistorialReportes);
-        app.get("/api/historial-reportes/{id}", historialReporteController::getHistorialReporteById);
-        app.put("/api/historial-reportes/{id}", historialReporteController::updateHistorialReporte);
-        app.delete("/api/historial-reportes/{id}", historialReporteController::deleteHistorialReporte);
+        app.post("/api/historial-reportes", historialReporteController::createHistorialReporte, ACCESO);
+        app.get("/api/historial-reportes", historialReporteController::getAllHistorialReportes, ACCESO);
+        // Exportación, histograma y estadísticas (antes de /{id} para que no se tomen como ID)
+        app.get("/api/historial-reportes/exportar", historialReporteController::exportarHistorialReportes, ACCESO);
+        app.get("/api/historial-reportes/histograma", historialReporteController::getHistogramaHistoriales, ACCESO);
+        app.get("/api/historial-reportes/{id}", historialReporteController::getHistorialReporteById, ACCESO);
+        app.put("/api/historial-reportes/{id}", historialReporteController::updateHistorialReporte, ACCESO);
+        app.delete("/api/historial-reportes/{id}", historialReporteController::deleteHistorialReporte, ACCESO);
 
         // Ruta para crear historial desde reporte
         app.post("/api/historial-reportes/desde-reporte/{idReporte}",
-                historialReporteController::createHistorialFromReporte);
+                historialReporteController::createHistorialFromReporte, ACCESO);
 
         // Rutas de búsqueda específicas
         app.get("/api/historial-reportes/reporte/{idReporte}",
-                historialReporteController::getHistorialesByReporte);
+                historialReporteController::getHistorialesByReporte, ACCESO);
         app.get("/api/historial-reportes/buscar/tipo",
-                historialReporteController::getHistorialesByTipo);
+                historialReporteController::getHistorialesByTipo, ACCESO);
         app.get("/api/historial-reportes/buscar/usuario",
-                historialReporteController::getHistorialesByUsuario);
+                historialReporteController::getHistorialesByUsuario, ACCESO);
         app.get("/api/historial-reportes/reporte/{idReporte}/ultimo",
-                historialReporteController::getUltimoHistorialByReporte);
+                historialReporteController::getUltimoHistorialByReporte, ACCESO);
         app.get("/api/historial-reportes/ordenados/fecha",
-                historialReporteController::getAllHistorialesOrderByFechaDesc);
+                historialReporteController::getAllHistorialesOrderByFechaDesc, ACCESO);
         app.get("/api/historial-reportes/reporte/{idReporte}/ordenados",
-                historialReporteController::getHistorialesByReporteOrderByFechaDesc);
+                historialReporteController::getHistorialesByReporteOrderByFechaDesc, ACCESO);
         app.get("/api/historial-reportes/buscar/nombre",
-                historialReporteController::getHistorialesByNombre);
+                historialReporteController::getHistorialesByNombre, ACCESO);
         app.get("/api/historial-reportes/buscar/descripcion",
-                historialReporteController::getHistorialesByDescripcion);
+                historialReporteController::getHistorialesByDescripcion, ACCESO);
 
         // Rutas adicionales
         app.get("/api/historial-reportes/recientes",
-                historialReporteController::getHistorialesRecientes);
+                historialReporteController::getHistorialesRecientes, ACCESO);
         app.get("/api/historial-reportes/hoy",
-                historialReporteController::getHistorialesDelDia);
+                historialReporteController::getHistorialesDelDia, ACCESO);
         app.get("/api/historial-reportes/estadisticas",
-                historialReporteController::getEstadisticasHistoriales);
+                historialReporteController::getEstadisticasHistoriales, ACCESO);
     }
 }
\ No newline at end of file
@@ -2,9 +2,13 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.MantenimientoController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class MantenimientoRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final MantenimientoController mantenimientoController;
 
     public MantenimientoRoutes(MantenimientoController mantenimientoController) {
@@ -13,21 +17,25 @@ public class MantenimientoRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/mantenimientos", mantenimientoController::createMantenimiento);
-        app.get("/api/mantenimientos", mantenimientoController::getAllMantenimientos);
-        app.get("/api/mantenimientos/{id}", mantenimientoController::getMantenimientoById);
-        app.put("/api/mantenimientos/{id}", mantenimientoController::updateMantenimiento);
-        app.delete("/api/mantenimientos/{id}", mantenimientoController::deleteMantenimiento);
+        app.post("/api/mantenimientos", mantenimientoController::createMantenimiento, ACCESO);
+        app.get("/api/mantenimientos", mantenimientoController::getAllMantenimientos, ACCESO);
+        // Exportación, histograma y estadísticas (antes de /{id} para que no se tomen como ID)
+        app.get("/api/mantenimientos/exportar", mantenimientoController::exportarMantenimientos, ACCESO);
+        app.get("/api/mantenimientos/histograma", mantenimientoController::getHistogramaMantenimientos, ACCESO);
+        app.get("/api/mantenimientos/estadisticas", mantenimientoController::getEstadisticasMantenimientos, ACCESO);
+        app.get("/api/mantenimientos/{id}", mantenimientoController::getMantenimientoById, ACCESO);
+        app.put("/api/mantenimientos/{id}", mantenimientoController::updateMantenimiento, ACCESO);
+        app.delete("/api/mantenimientos/{id}", mantenimientoController::deleteMantenimiento, ACCESO);
 
         // Rutas de búsqueda
-        app.get("/api/mantenimientos/cuarto/{idCuarto}", mantenimientoController::getMantenimientosByCuarto);
-        app.get("/api/mantenimientos/estado/{estado}", mantenimientoController::getMantenimientosByEstado);
-        app.get("/api/mantenimientos/pendientes", mantenimientoController::getMantenimientosPendientes);
-        app.get("/api/mantenimientos/completados", mantenimientoController::getMantenimientosCompletados);
-        app.get("/api/mantenimientos/fechas", mantenimientoController::getMantenimientosByFechaRange);
+        app.get("/api/mantenimientos/cuarto/{idCuarto}", mantenimientoController::getMantenimientosByCuarto, ACCESO);
+        app.get("/api/mantenimientos/estado/{estado}", mantenimientoController::getMantenimientosByEstado, ACCESO);
+        app.get("/api/mantenimientos/pendientes", mantenimientoController::getMantenimientosPendientes, ACCESO);
+        app.get("/api/mantenimientos/completados", mantenimientoController::getMantenimientosCompletados, ACCESO);
+        app.get("/api/mantenimientos/fechas", mantenimientoController::getMantenimientosByFechaRange, ACCESO);
 
         // Rutas de gestión específicas
-        app.patch("/api/mantenimientos/{id}/atender", mantenimientoController::atenderMantenimiento);
-        app.patch("/api/mantenimientos/{id}/estado", mantenimientoController::actualizarEstadoMantenimiento);
+        app.patch("/api/mantenimientos/{id}/atender", mantenimientoController::atenderMantenimiento, ACCESO);
+        app.patch("/api/mantenimientos/{id}/estado", mantenimientoController::actualizarEstadoMantenimiento, ACCESO);
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+// MetricsRoutes.java
+package com.poleth.api.routes;
+
+import com.poleth.api.controller.MetricsController;
+import com.poleth.api.middleware.RolAcceso;
+import io.javalin.Javalin;
+
+public class MetricsRoutes {
+    // Acceso al grupo de rutas: solo administradores
+    private static final RolAcceso ACCESO = RolAcceso.ADMINISTRADOR;
+
+    private final MetricsController metricsController;
+
+    public MetricsRoutes(MetricsController metricsController) {
+        this.metricsController = metricsController;
+    }
+
+    public void configureRoutes(Javalin app) {
+        app.get("/api/metrics/pool", metricsController::getPoolMetrics, ACCESO);
+        app.get("/api/metrics/cache", metricsController::getCacheMetrics, ACCESO);
+        app.get("/api/metrics/auth", metricsController::getAuthMetrics, ACCESO);
+        app.get("/api/metrics/password", metricsController::getPasswordMetrics, ACCESO);
+        app.get("/api/metrics/indices", metricsController::getIndexMetrics, ACCESO);
+        app.get("/api/metrics/consultas", metricsController::getQueryMetrics, ACCESO);
+        app.get("/api/metrics/push", metricsController::getPushMetrics, ACCESO);
+        app.get("/api/metrics/barridos", metricsController::getBarridoMetrics, ACCESO);
+    }
+}
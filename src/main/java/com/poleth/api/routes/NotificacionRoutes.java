@@ -2,9 +2,14 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.NotificacionController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class NotificacionRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado; las de /inquilino/{idInquilino}
+    // (listados, contador, leer-todas y push) además solo el propio inquilino o un administrador
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final NotificacionController notificacionController;
 
     public NotificacionRoutes(NotificacionController notificacionController) {
@@ -13,33 +18,45 @@ public class NotificacionRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/notificaciones", notificacionController::createNotificacion);
-        app.get("/api/notificaciones", notificacionController::getAllNotificaciones);
-        app.get("/api/notificaciones/{id}", notificacionController::getNotificacionById);
-        app.put("/api/notificaciones/{id}", notificacionController::updateNotificacion);
-        app.delete("/api/notificaciones/{id}", notificacionController::deleteNotificacion);
+        app.post("/api/notificaciones", notificacionController::createNotificacion, ACCESO);
+        app.get("/api/notificaciones", notificacionController::getAllNotificaciones, ACCESO);
+
+        // Difusión a varios contratos o inquilinos: solo administradores
+        app.post("/api/notificaciones/broadcast", notificacionController::difundirNotificacion,
+                RolAcceso.ADMINISTRADOR);
 
-        // Ruta para marcar como leída
-        app.patch("/api/notificaciones/{id}/leer", notificacionController::marcarComoLeida);
+        app.get("/api/notificaciones/{id}", notificacionController::getNotificacionById, ACCESO);
+        app.put("/api/notificaciones/{id}", notificacionController::updateNotificacion, ACCESO);
+        app.delete("/api/notificaciones/{id}", notificacionController::deleteNotificacion, ACCESO);
+
+        // Rutas para marcar como leídas
+        app.patch("/api/notificaciones/{id}/leer", notificacionController::marcarComoLeida, ACCESO);
+        app.patch("/api/notificaciones/inquilino/{idInquilino}/leer-todas",
+                notificacionController::marcarTodasComoLeidas, ACCESO);
 
         // Rutas de búsqueda específicas
         app.get("/api/notificaciones/inquilino/{idInquilino}",
-                notificacionController::getNotificacionesByInquilino);
+                notificacionController::getNotificacionesByInquilino, ACCESO);
         app.get("/api/notificaciones/contrato/{idContrato}",
-                notificacionController::getNotificacionesByContrato);
+                notificacionController::getNotificacionesByContrato, ACCESO);
         app.get("/api/notificaciones/fecha/{fecha}",
-                notificacionController::getNotificacionesByFechaUtilizacion);
+                notificacionController::getNotificacionesByFechaUtilizacion, ACCESO);
 
         // Rutas para notificaciones no leídas
         app.get("/api/notificaciones/inquilino/{idInquilino}/no-leidas",
-                notificacionController::getNotificacionesNoLeidasByInquilino);
+                notificacionController::getNotificacionesNoLeidasByInquilino, ACCESO);
         app.get("/api/notificaciones/inquilino/{idInquilino}/contador-no-leidas",
-                notificacionController::getContadorNoLeidasByInquilino);
+                notificacionController::getContadorNoLeidasByInquilino, ACCESO);
+
+        // Canal push (WebSocket): los cambios llegan como eventos en lugar de sondear las rutas anteriores
+        String push = "/api/notificaciones/inquilino/{idInquilino}/push";
+        app.wsBeforeUpgrade(push, notificacionController::autorizarPush);
+        app.ws(push, notificacionController::pushNotificaciones);
 
         // Rutas adicionales
         app.get("/api/notificaciones/recientes",
-                notificacionController::getNotificacionesRecientes);
+                notificacionController::getNotificacionesRecientes, ACCESO);
         app.get("/api/notificaciones/{id}/existe",
-                notificacionController::existeNotificacion);
+                notificacionController::existeNotificacion, ACCESO);
     }
 }
\ No newline at end of file
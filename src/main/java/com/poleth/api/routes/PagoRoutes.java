@@ -2,9 +2,13 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.PagoController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class PagoRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final PagoController pagoController;
 
     public PagoRoutes(PagoController pagoController) {
@@ -13,28 +17,32 @@ public class PagoRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/pagos", pagoController::createPago);
-        app.get("/api/pagos", pagoController::getAllPagos);
-        app.get("/api/pagos/{id}", pagoController::getPagoById);
-        app.put("/api/pagos/{id}", pagoController::updatePago);
-        app.delete("/api/pagos/{id}", pagoController::deletePago);
+        app.post("/api/pagos", pagoController::createPago, ACCESO);
+        app.post("/api/pagos/batch", pagoController::createPagosBatch, ACCESO);
+        app.get("/api/pagos", pagoController::getAllPagos, ACCESO);
+        // Exportación en streaming e histograma (antes de /{id} para que no se tomen como ID)
+        app.get("/api/pagos/exportar", pagoController::exportarPagos, ACCESO);
+        app.get("/api/pagos/histograma", pagoController::getHistogramaPagos, ACCESO);
+        app.get("/api/pagos/{id}", pagoController::getPagoById, ACCESO);
+        app.put("/api/pagos/{id}", pagoController::updatePago, ACCESO);
+        app.delete("/api/pagos/{id}", pagoController::deletePago, ACCESO);
 
         // Rutas de búsqueda específicas
-        app.get("/api/pagos/contrato/{idContrato}", pagoController::getPagosByContrato);
-        app.get("/api/pagos/inquilino/{idInquilino}", pagoController::getPagosByInquilino);
-        app.get("/api/pagos/fecha/{fecha}", pagoController::getPagosByFecha);
-        app.get("/api/pagos/estado/{estado}", pagoController::getPagosByEstado);
-        app.get("/api/pagos/metodo/{metodoPago}", pagoController::getPagosByMetodoPago);
+        app.get("/api/pagos/contrato/{idContrato}", pagoController::getPagosByContrato, ACCESO);
+        app.get("/api/pagos/inquilino/{idInquilino}", pagoController::getPagosByInquilino, ACCESO);
+        app.get("/api/pagos/fecha/{fecha}", pagoController::getPagosByFecha, ACCESO);
+        app.get("/api/pagos/estado/{estado}", pagoController::getPagosByEstado, ACCESO);
+        app.get("/api/pagos/metodo/{metodoPago}", pagoController::getPagosByMetodoPago, ACCESO);
 
         // Rutas de búsqueda por monto
-        app.get("/api/pagos/monto/mayorigual", pagoController::getPagosByMontoMayorIgual);
-        app.get("/api/pagos/monto/menorigual", pagoController::getPagosByMontoMenorIgual);
+        app.get("/api/pagos/monto/mayorigual", pagoController::getPagosByMontoMayorIgual, ACCESO);
+        app.get("/api/pagos/monto/menorigual", pagoController::getPagosByMontoMenorIgual, ACCESO);
 
         // Rutas de búsqueda especializadas
-        app.get("/api/pagos/contrato/{idContrato}/mas-reciente", pagoController::getPagoMasRecienteByContrato);
-        app.get("/api/pagos/contrato/{idContrato}/masantiguo", pagoController::getPagoMasAntiguoByContrato);
+        app.get("/api/pagos/contrato/{idContrato}/mas-reciente", pagoController::getPagoMasRecienteByContrato, ACCESO);
+        app.get("/api/pagos/contrato/{idContrato}/masantiguo", pagoController::getPagoMasAntiguoByContrato, ACCESO);
 
         // Ruta para cambiar estado
-        app.patch("/api/pagos/{id}/estado", pagoController::cambiarEstadoPago);
+        app.patch("/api/pagos/{id}/estado", pagoController::cambiarEstadoPago, ACCESO);
     }
 }
\ No newline at end of file
@@ -2,9 +2,13 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.ReporteInquilinoController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class ReporteInquilinoRoutes {
+    // Acceso al grupo de rutas: cualquier usuario autenticado
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final ReporteInquilinoController reporteInquilinoController;
 
     public ReporteInquilinoRoutes(ReporteInquilinoController reporteInquilinoController) {
@@ -13,27 +17,31 @@ public class ReporteInquilinoRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/reportes-inquilinos", reporteInquilinoController::createReporteInquilino);
-        app.get("/api/reportes-inquilinos", reporteInquilinoController::getAllReportesInquilinos);
-        app.get("/api/reportes-inquilinos/{id}", reporteInquilinoController::getReporteInquilinoById);
-        app.put("/api/reportes-inquilinos/{id}", reporteInquilinoController::updateReporteInquilino);
-        app.delete("/api/reportes-inquilinos/{id}", reporteInquilinoController::deleteReporteInquilino);
+        app.post("/api/reportes-inquilinos", reporteInquilinoController::createReporteInquilino, ACCESO);
+        app.get("/api/reportes-inquilinos", reporteInquilinoController::getAllReportesInquilinos, ACCESO);
+        // Exportación, histograma, búsqueda y urgentes (antes de /{id} para que no se tomen como ID)
+        app.get("/api/reportes-inquilinos/exportar", reporteInquilinoController::exportarReportesInquilinos, ACCESO);
+        app.get("/api/reportes-inquilinos/histograma", reporteInquilinoController::getHistogramaReportes, ACCESO);
+        app.get("/api/reportes-inquilinos/buscar", reporteInquilinoController::buscarReportesPorTexto, ACCESO);
+        app.get("/api/reportes-inquilinos/urgentes", reporteInquilinoController::getReportesUrgentes, ACCESO);
+        app.get("/api/reportes-inquilinos/{id}", reporteInquilinoController::getReporteInquilinoById, ACCESO);
+        app.put("/api/reportes-inquilinos/{id}", reporteInquilinoController::updateReporteInquilino, ACCESO);
+        app.delete("/api/reportes-inquilinos/{id}", reporteInquilinoController::deleteReporteInquilino, ACCESO);
 
         // Rutas de gestión específicas
-        app.patch("/api/reportes-inquilinos/{id}/cerrar", reporteInquilinoController::cerrarReporte);
-        app.patch("/api/reportes-inquilinos/{id}/estado", reporteInquilinoController::actualizarEstadoReporte);
+        app.patch("/api/reportes-inquilinos/{id}/cerrar", reporteInquilinoController::cerrarReporte, ACCESO);
+        app.patch("/api/reportes-inquilinos/{id}/estado", reporteInquilinoController::actualizarEstadoReporte, ACCESO);
 
         // Rutas de búsqueda
-        app.get("/api/reportes-inquilinos/inquilino/{idInquilino}", reporteInquilinoController::getReportesByInquilino);
-        app.get("/api/reportes-inquilinos/cuarto/{idCuarto}", reporteInquilinoController::getReportesByCuarto);
-        app.get("/api/reportes-inquilinos/estado/{estado}", reporteInquilinoController::getReportesByEstado);
-        app.get("/api/reportes-inquilinos/abiertos", reporteInquilinoController::getReportesAbiertos);
-        app.get("/api/reportes-inquilinos/cerrados", reporteInquilinoController::getReportesCerrados);
-        app.get("/api/reportes-inquilinos/fechas", reporteInquilinoController::getReportesByFechaRange);
-        app.get("/api/reportes-inquilinos/buscar", reporteInquilinoController::buscarReportesPorTexto);
+        app.get("/api/reportes-inquilinos/inquilino/{idInquilino}", reporteInquilinoController::getReportesByInquilino, ACCESO);
+        app.get("/api/reportes-inquilinos/cuarto/{idCuarto}", reporteInquilinoController::getReportesByCuarto, ACCESO);
+        app.get("/api/reportes-inquilinos/estado/{estado}", reporteInquilinoController::getReportesByEstado, ACCESO);
+        app.get("/api/reportes-inquilinos/abiertos", reporteInquilinoController::getReportesAbiertos, ACCESO);
+        app.get("/api/reportes-inquilinos/cerrados", reporteInquilinoController::getReportesCerrados, ACCESO);
+        app.get("/api/reportes-inquilinos/fechas", reporteInquilinoController::getReportesByFechaRange, ACCESO);
 
         // Rutas de estadísticas
-        app.get("/api/reportes-inquilinos/estadisticas/tipos", reporteInquilinoController::getEstadisticasTiposReportes);
-        app.get("/api/reportes-inquilinos/estadisticas/completas", reporteInquilinoController::getEstadisticasCompletas);
+        app.get("/api/reportes-inquilinos/estadisticas/tipos", reporteInquilinoController::getEstadisticasTiposReportes, ACCESO);
+        app.get("/api/reportes-inquilinos/estadisticas/completas", reporteInquilinoController::getEstadisticasCompletas, ACCESO);
     }
 }
\ No newline at end of file
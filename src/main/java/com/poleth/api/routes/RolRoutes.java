@@ -2,9 +2,15 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.RolController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class RolRoutes {
+    // Acceso al grupo de rutas: los roles se consultan sin token (formulario de registro),
+    // pero solo un administrador puede modificarlos
+    private static final RolAcceso LECTURA = RolAcceso.PUBLICO;
+    private static final RolAcceso ESCRITURA = RolAcceso.ADMINISTRADOR;
+
     private final RolController rolController;
 
     public RolRoutes(RolController rolController) {
@@ -13,14 +19,14 @@ public class RolRoutes {
 
     public void configureRoutes(Javalin app) {
         // Rutas CRUD básicas
-        app.post("/api/roles", rolController::createRol);
-        app.get("/api/roles", rolController::getAllRoles);
-        app.get("/api/roles/{id}", rolController::getRolById);
-        app.put("/api/roles/{id}", rolController::updateRol);
-        app.delete("/api/roles/{id}", rolController::deleteRol);
+        app.post("/api/roles", rolController::createRol, ESCRITURA);
+        app.get("/api/roles", rolController::getAllRoles, LECTURA);
+        app.get("/api/roles/{id}", rolController::getRolById, LECTURA);
+        app.put("/api/roles/{id}", rolController::updateRol, ESCRITURA);
+        app.delete("/api/roles/{id}", rolController::deleteRol, ESCRITURA);
 
         // Rutas adicionales para funcionalidades específicas
-        app.get("/api/roles/titulo/{titulo}", rolController::getRolByTitulo);
-        app.get("/api/roles/exists/{titulo}", rolController::existsByTitulo);
+        app.get("/api/roles/titulo/{titulo}", rolController::getRolByTitulo, LECTURA);
+        app.get("/api/roles/exists/{titulo}", rolController::existsByTitulo, LECTURA);
     }
 }
\ No newline at end of file
@@ -2,9 +2,16 @@
 package com.poleth.api.routes;
 
 import com.poleth.api.controller.UsuarioController;
+import com.poleth.api.middleware.RolAcceso;
 import io.javalin.Javalin;
 
 public class UsuarioRoutes {
+    // Acceso al grupo de rutas: login, registro y comprobaciones de disponibilidad son
+    // públicos (el registro asigna el rol por defecto salvo a un administrador); el resto requiere
+    // un usuario autenticado, y modificar o eliminar una cuenta, ser su dueño o administrador
+    private static final RolAcceso PUBLICO = RolAcceso.PUBLICO;
+    private static final RolAcceso ACCESO = RolAcceso.AUTENTICADO;
+
     private final UsuarioController usuarioController;
 
     public UsuarioRoutes(UsuarioController usuarioController) {
@@ -13,22 +20,23 @@ public class UsuarioRoutes {
 
     public void configureRoutes(Javalin app) {
         // Ruta de login
-        app.post("/api/auth/login", usuarioController::login);
+        app.post("/api/auth/login", usuarioController::login, PUBLICO);
+        app.get("/api/auth/me", usuarioController::getUsuarioActual, ACCESO);
 
         // Rutas CRUD básicas
-        app.post("/api/usuarios", usuarioController::createUsuario);
-        app.get("/api/usuarios", usuarioController::getAllUsuarios);
-        app.get("/api/usuarios/{id}", usuarioController::getUsuarioById);
-        app.put("/api/usuarios/{id}", usuarioController::updateUsuario);
-        app.delete("/api/usuarios/{id}", usuarioController::deleteUsuario);
+        app.post("/api/usuarios", usuarioController::createUsuario, PUBLICO);
+        app.get("/api/usuarios", usuarioController::getAllUsuarios, ACCESO);
+        app.get("/api/usuarios/{id}", usuarioController::getUsuarioById, ACCESO);
+        app.put("/api/usuarios/{id}", usuarioController::updateUsuario, ACCESO);
+        app.delete("/api/usuarios/{id}", usuarioController::deleteUsuario, ACCESO);
 
         // Rutas adicionales para funcionalidades específicas
-        app.get("/api/usuarios/username/{username}", usuarioController::getUsuarioByUsername);
-        app.get("/api/usuarios/email/{email}", usuarioController::getUsuarioByEmail);
-        app.get("/api/usuarios/exists/username/{username}", usuarioController::existsByUsername);
-        app.get("/api/usuarios/exists/email/{email}", usuarioController::existsByEmail);
-        app.patch("/api/usuarios/{id}/estado", usuarioController::cambiarEstadoUsuario);
-        app.get("/api/usuarios/estado/{estado}", usuarioController::getUsuariosByEstado);
-        app.get("/api/usuarios/rol/{rolId}", usuarioController::getUsuariosByRol);
+        app.get("/api/usuarios/username/{username}", usuarioController::getUsuarioByUsername, ACCESO);
+        app.get("/api/usuarios/email/{email}", usuarioController::getUsuarioByEmail, ACCESO);
+        app.get("/api/usuarios/exists/username/{username}", usuarioController::existsByUsername, PUBLICO);
+        app.get("/api/usuarios/exists/email/{email}", usuarioController::existsByEmail, PUBLICO);
+        app.patch("/api/usuarios/{id}/estado", usuarioController::cambiarEstadoUsuario, ACCESO);
+        app.get("/api/usuarios/estado/{estado}", usuarioController::getUsuariosByEstado, ACCESO);
+        app.get("/api/usuarios/rol/{rolId}", usuarioController::getUsuariosByRol, ACCESO);
     }
 }
\ No newline at end of file
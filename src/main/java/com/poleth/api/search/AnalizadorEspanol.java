@@ -0,0 +1,42 @@
+// AnalizadorEspanol.java
+package com.poleth.api.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.es.SpanishLightStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+// Análisis de texto en español: minúsculas, sin palabras vacías y sin acentos ("Baño" == "bano").
+// Con raíces se reduce cada palabra a su raíz ("fugas" -> "fug") para las búsquedas por término;
+// sin raíces se conserva la palabra completa para las búsquedas por prefijo.
+final class AnalizadorEspanol extends Analyzer {
+
+    private final boolean raices;
+
+    AnalizadorEspanol(boolean raices) {
+        this.raices = raices;
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String campo) {
+        Tokenizer fuente = new StandardTokenizer();
+        TokenStream flujo = new LowerCaseFilter(fuente);
+        // Las palabras vacías se quitan antes de plegar los acentos ("más", "está")
+        flujo = new StopFilter(flujo, SpanishAnalyzer.getDefaultStopSet());
+        flujo = new ASCIIFoldingFilter(flujo);
+        if (raices) {
+            flujo = new SpanishLightStemFilter(flujo);
+        }
+        return new TokenStreamComponents(fuente, flujo);
+    }
+
+    @Override
+    protected TokenStream normalize(String campo, TokenStream entrada) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(entrada));
+    }
+}
@@ -0,0 +1,398 @@
+// IndiceBusqueda.java
+package com.poleth.api.search;
+
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.config.JsonConfig;
+import com.poleth.api.config.UnitOfWork;
+import com.poleth.api.model.CatalogoMueble;
+import com.poleth.api.model.Cuarto;
+import com.poleth.api.model.HistorialReporte;
+import com.poleth.api.model.ReporteInquilino;
+import jakarta.persistence.EntityManager;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Índice invertido (Lucene en disco local) para las búsquedas de texto de reportes, historiales,
+// cuartos y catálogo de muebles. Los repositorios lo alimentan al guardar/eliminar (tras confirmar
+// la transacción) y lo consultan antes de caer en el LIKE '%texto%' sobre MySQL.
+//
+// Cada documento guarda el JSON de la entidad, así que las búsquedas se responden sin consultar la
+// base de datos (salvo Cuarto, que se devuelve con su propietario y se carga por clave primaria).
+// Si el índice no está disponible, buscar devuelve Optional.empty() y se usa la consulta original.
+public class IndiceBusqueda {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusqueda.class);
+
+    // Campos de texto comunes a todas las entidades indexadas
+    public static final String CAMPO_NOMBRE = "nombre";
+    public static final String CAMPO_DESCRIPCION = "descripcion";
+
+    private static final String CAMPO_UID = "_uid";
+    private static final String CAMPO_TIPO = "_tipo";
+    private static final String CAMPO_ID = "_id";
+    private static final String CAMPO_JSON = "_json";
+    // Copia de cada campo de texto sin reducir a raíces, para las búsquedas por prefijo
+    private static final String SUFIJO_PREFIJO = "_prefijo";
+
+    private static final Analyzer CON_RAICES = new AnalizadorEspanol(true);
+    private static final Analyzer SIN_RAICES = new AnalizadorEspanol(false);
+    private static final Analyzer ANALIZADOR = new PerFieldAnalyzerWrapper(CON_RAICES, Map.of(
+            CAMPO_NOMBRE + SUFIJO_PREFIJO, SIN_RAICES,
+            CAMPO_DESCRIPCION + SUFIJO_PREFIJO, SIN_RAICES));
+
+    private static Directory directorio;
+    private static volatile IndexWriter writer;
+    private static volatile SearcherManager searchers;
+    private static int maxResultados;
+
+    // Método para abrir el índice (search.index.dir; "memoria" = solo en RAM) y poblarlo si está vacío
+    public static synchronized void iniciar() {
+        if (writer != null) {
+            return;
+        }
+        String ruta = DatabaseConfig.getProperty("search.index.dir", "data/search-index");
+        maxResultados = DatabaseConfig.getIntProperty("search.max-results", 500);
+        try {
+            directorio = "memoria".equalsIgnoreCase(ruta) ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(ruta));
+            writer = new IndexWriter(directorio, new IndexWriterConfig(ANALIZADOR)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            searchers = new SearcherManager(writer, null);
+
+            // search.reindex=true reconstruye el índice al arrancar (p. ej. tras escrituras fuera de la API)
+            boolean reindexar = Boolean.parseBoolean(DatabaseConfig.getProperty("search.reindex", "false"));
+            if (reindexar || writer.getDocStats().numDocs == 0) {
+                reconstruir();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Índice de búsqueda no disponible, se usarán las consultas a la base de datos: {}", e.getMessage());
+            detener();
+        }
+    }
+
+    public static synchronized void detener() {
+        IndexWriter actual = writer;
+        writer = null;
+        try {
+            if (searchers != null) {
+                searchers.close();
+            }
+            if (actual != null) {
+                actual.close();
+            }
+            if (directorio != null) {
+                directorio.close();
+            }
+        } catch (IOException e) {
+            log.error("Error al cerrar el índice de búsqueda: {}", e.getMessage());
+        } finally {
+            searchers = null;
+            directorio = null;
+        }
+    }
+
+    public static boolean isDisponible() {
+        return writer != null;
+    }
+
+    // Método para volver a indexar todas las entidades desde la base de datos. No se coordina con
+    // aplicar(): llamarlo antes de que el servidor acepte peticiones (App.main)
+    public static synchronized void reconstruir() {
+        IndexWriter actual = writer;
+        if (actual == null) {
+            return;
+        }
+        try {
+            actual.deleteAll();
+            long total = reindexar(actual, ReporteInquilino.class, IndiceBusqueda::documento)
+                    + reindexar(actual, HistorialReporte.class, IndiceBusqueda::documento)
+                    + reindexar(actual, Cuarto.class, IndiceBusqueda::documento)
+                    + reindexar(actual, CatalogoMueble.class, IndiceBusqueda::documento);
+            actual.commit();
+            searchers.maybeRefreshBlocking();
+            log.info("Índice de búsqueda reconstruido: {} documentos", total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al reconstruir el índice de búsqueda", e);
+        }
+    }
+
+    // === ALTAS, CAMBIOS Y BAJAS (se aplican al confirmarse la transacción) ===
+
+    public static void indexar(ReporteInquilino reporte) {
+        if (reporte != null && reporte.getIdReporte() != null) {
+            registrar(uid(ReporteInquilino.class, reporte.getIdReporte()), () -> documento(reporte));
+        }
+    }
+
+    public static void indexar(HistorialReporte historial) {
+        if (historial != null && historial.getIdHistorial() != null) {
+            registrar(uid(HistorialReporte.class, historial.getIdHistorial()), () -> documento(historial));
+        }
+    }
+
+    public static void indexar(Cuarto cuarto) {
+        if (cuarto != null && cuarto.getIdCuarto() != null) {
+            registrar(uid(Cuarto.class, cuarto.getIdCuarto()), () -> documento(cuarto));
+        }
+    }
+
+    public static void indexar(CatalogoMueble mueble) {
+        if (mueble != null && mueble.getIdCatalogoMueble() != null) {
+            registrar(uid(CatalogoMueble.class, mueble.getIdCatalogoMueble()), () -> documento(mueble));
+        }
+    }
+
+    public static void eliminar(Class<?> clase, Integer id) {
+        if (id != null) {
+            registrar(uid(clase, id), null);
+        }
+    }
+
+    // === BÚSQUEDAS ===
+
+    // Método para buscar entidades cuyo texto contenga todas las palabras (por raíz o por prefijo),
+    // ordenadas por relevancia
+    public static <T> Optional<List<T>> buscar(Class<T> clase, String texto, String... campos) {
+        return buscarDocumentos(clase, consultaTodas(texto, campos))
+                .flatMap(documentos -> leerEntidades(clase, documentos));
+    }
+
+    // Método para obtener solo los ids por relevancia (entidades que no guardan su JSON en el índice)
+    public static Optional<List<Integer>> buscarIds(Class<?> clase, String texto, String... campos) {
+        return buscarDocumentos(clase, consultaTodas(texto, campos)).map(documentos -> {
+            List<Integer> ids = new ArrayList<>(documentos.size());
+            for (Document documento : documentos) {
+                ids.add(documento.getField(CAMPO_ID).numericValue().intValue());
+            }
+            return ids;
+        });
+    }
+
+    private static Optional<List<Document>> buscarDocumentos(Class<?> clase, Query consulta) {
+        SearcherManager manager = searchers;
+        if (writer == null || manager == null) {
+            return Optional.empty();
+        }
+        if (consulta == null) {
+            // Solo palabras vacías o texto en blanco: nada que buscar
+            return Optional.of(List.of());
+        }
+
+        BooleanQuery.Builder filtrada = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(CAMPO_TIPO, clase.getSimpleName())), Occur.FILTER)
+                .add(consulta, Occur.MUST);
+
+        try {
+            IndexSearcher searcher = manager.acquire();
+            try {
+                ScoreDoc[] hits = searcher.search(filtrada.build(), maxResultados).scoreDocs;
+                StoredFields almacenados = searcher.storedFields();
+                List<Document> documentos = new ArrayList<>(hits.length);
+                for (ScoreDoc hit : hits) {
+                    documentos.add(almacenados.document(hit.doc));
+                }
+                return Optional.of(documentos);
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException | AlreadyClosedException e) {
+            log.error("Error al consultar el índice de búsqueda: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static <T> Optional<List<T>> leerEntidades(Class<T> clase, List<Document> documentos) {
+        List<T> entidades = new ArrayList<>(documentos.size());
+        try {
+            for (Document documento : documentos) {
+                entidades.add(JsonConfig.readerFor(clase).readValue(documento.get(CAMPO_JSON)));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Documento ilegible: se responde desde la base de datos
+            return Optional.empty();
+        }
+        return Optional.of(entidades);
+    }
+
+    // Cada palabra del texto debe aparecer en alguno de los campos
+    private static Query consultaTodas(String texto, String... campos) {
+        List<String> palabras = analizar(SIN_RAICES, texto);
+        if (palabras.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+        for (String palabra : palabras) {
+            consulta.add(consultaPalabra(palabra, campos), Occur.MUST);
+        }
+        return consulta.build();
+    }
+
+    private static Query consultaPalabra(String palabra, String... campos) {
+        BooleanQuery.Builder alguna = new BooleanQuery.Builder();
+        for (String campo : campos) {
+            // La coincidencia por raíz ("fugas" ~ "fuga") puntúa más que la de solo prefijo ("fug")
+            for (String raiz : analizar(CON_RAICES, palabra)) {
+                alguna.add(new BoostQuery(new TermQuery(new Term(campo, raiz)), 2f), Occur.SHOULD);
+            }
+            alguna.add(new PrefixQuery(new Term(campo + SUFIJO_PREFIJO, palabra)), Occur.SHOULD);
+        }
+        return alguna.build();
+    }
+
+    private static List<String> analizar(Analyzer analizador, String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return terminos;
+        }
+        try (TokenStream flujo = analizador.tokenStream("", texto)) {
+            CharTermAttribute termino = flujo.addAttribute(CharTermAttribute.class);
+            flujo.reset();
+            while (flujo.incrementToken()) {
+                terminos.add(termino.toString());
+            }
+            flujo.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terminos;
+    }
+
+    // === DOCUMENTOS ===
+
+    private static Document documento(ReporteInquilino reporte) {
+        Document documento = base(ReporteInquilino.class, reporte.getIdReporte(), reporte);
+        agregarTexto(documento, CAMPO_NOMBRE, reporte.getNombre());
+        agregarTexto(documento, CAMPO_DESCRIPCION, reporte.getDescripcion());
+        return documento;
+    }
+
+    private static Document documento(HistorialReporte historial) {
+        Document documento = base(HistorialReporte.class, historial.getIdHistorial(), historial);
+        agregarTexto(documento, CAMPO_NOMBRE, historial.getNombreReporteHist());
+        agregarTexto(documento, CAMPO_DESCRIPCION, historial.getDescripcionHist());
+        return documento;
+    }
+
+    // Cuarto no guarda su JSON: se devuelve con el propietario, que puede cambiar por su cuenta
+    private static Document documento(Cuarto cuarto) {
+        Document documento = base(Cuarto.class, cuarto.getIdCuarto(), null);
+        agregarTexto(documento, CAMPO_NOMBRE, cuarto.getNombreCuarto());
+        agregarTexto(documento, CAMPO_DESCRIPCION, cuarto.getDescripcionCuarto());
+        return documento;
+    }
+
+    private static Document documento(CatalogoMueble mueble) {
+        Document documento = base(CatalogoMueble.class, mueble.getIdCatalogoMueble(), mueble);
+        agregarTexto(documento, CAMPO_NOMBRE, mueble.getNombreMueble());
+        agregarTexto(documento, CAMPO_DESCRIPCION, mueble.getDescripcion());
+        return documento;
+    }
+
+    private static Document base(Class<?> clase, Integer id, Object entidad) {
+        Document documento = new Document();
+        documento.add(new StringField(CAMPO_UID, uid(clase, id).text(), Field.Store.NO));
+        documento.add(new StringField(CAMPO_TIPO, clase.getSimpleName(), Field.Store.NO));
+        documento.add(new StoredField(CAMPO_ID, id));
+        if (entidad != null) {
+            try {
+                documento.add(new StoredField(CAMPO_JSON, JsonConfig.getMapper().writeValueAsString(entidad)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al serializar " + clase.getSimpleName() + " para el índice", e);
+            }
+        }
+        return documento;
+    }
+
+    private static void agregarTexto(Document documento, String campo, String valor) {
+        if (valor != null && !valor.isBlank()) {
+            documento.add(new TextField(campo, valor, Field.Store.NO));
+            documento.add(new TextField(campo + SUFIJO_PREFIJO, valor, Field.Store.NO));
+        }
+    }
+
+    private static Term uid(Class<?> clase, Integer id) {
+        return new Term(CAMPO_UID, clase.getSimpleName() + ":" + id);
+    }
+
+    // El documento se construye al confirmar, con el estado final de la entidad en la petición
+    private static void registrar(Term uid, Supplier<Document> documento) {
+        if (writer == null) {
+            return;
+        }
+        UnitOfWork.afterCommit(() -> aplicar(uid, documento));
+    }
+
+    private static void aplicar(Term uid, Supplier<Document> documento) {
+        IndexWriter actual = writer;
+        if (actual == null) {
+            return;
+        }
+        try {
+            if (documento == null) {
+                actual.deleteDocuments(uid);
+            } else {
+                actual.updateDocument(uid, documento.get());
+            }
+            // Las escrituras de estas entidades son esporádicas: se confirma cada cambio para
+            // que sobreviva a un reinicio, y se refresca para que la siguiente búsqueda lo vea
+            actual.commit();
+            searchers.maybeRefreshBlocking();
+        } catch (IOException | AlreadyClosedException e) {
+            log.error("Error al actualizar el índice de búsqueda: {}", e.getMessage());
+        }
+    }
+
+    private static <T> long reindexar(IndexWriter destino, Class<T> clase, Function<T, Document> documento) throws IOException {
+        EntityManager em = DatabaseConfig.createEntityManager();
+        long total = 0;
+        try (Stream<T> filas = em.createQuery("SELECT e FROM " + clase.getSimpleName() + " e", clase)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, DatabaseConfig.getStreamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            for (T entidad : (Iterable<T>) filas::iterator) {
+                destino.addDocument(documento.apply(entidad));
+                em.detach(entidad);
+                total++;
+            }
+        } finally {
+            em.close();
+        }
+        return total;
+    }
+}
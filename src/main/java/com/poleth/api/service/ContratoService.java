@@ -1,6 +1,7 @@
 // ContratoService.java
 package com.poleth.api.service;
 
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Contrato;
 import com.poleth.api.repository.ContratoRepository;
 import java.math.BigDecimal;
@@ -20,6 +21,11 @@ public class ContratoService {
         return contratoRepository.findAll();
     }
 
+    // Método para obtener una página por cursor (?cursor=&limit=)
+    public PaginaCursor<Contrato> getContratosPagina(String cursor, int limite) {
+        return contratoRepository.findPagina(cursor, limite);
+    }
+
     public Optional<Contrato> getContratoById(Integer id) {
         return contratoRepository.findById(id);
     }
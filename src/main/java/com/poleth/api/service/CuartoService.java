@@ -1,6 +1,7 @@
 // CuartoService.java
 package com.poleth.api.service;
 
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Cuarto;
 import com.poleth.api.repository.CuartoRepository;
 import java.math.BigDecimal;
@@ -19,6 +20,11 @@ public class CuartoService {
         return cuartoRepository.findAll();
     }
 
+    // Método para obtener una página por cursor (?cursor=&limit=)
+    public PaginaCursor<Cuarto> getCuartosPagina(String cursor, int limite) {
+        return cuartoRepository.findPagina(cursor, limite);
+    }
+
     public Optional<Cuarto> getCuartoById(Integer id) {
         return cuartoRepository.findById(id);
     }
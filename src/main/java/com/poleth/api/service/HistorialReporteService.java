@@ -2,6 +2,10 @@
 // HistorialReporteService.java
 package com.poleth.api.service;
 
+import com.poleth.api.dto.ConteoAgrupado;
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.HistorialReporte;
 import com.poleth.api.repository.HistorialReporteRepository;
 import java.time.LocalDate;
@@ -11,7 +15,7 @@ import java.util.Optional;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 public class HistorialReporteService {
     private final HistorialReporteRepository historialReporteRepository;
@@ -25,6 +29,21 @@ public class HistorialReporteService {
         return historialReporteRepository.findAll();
     }
 
+    // Método para obtener una página por cursor (?cursor=&limit=)
+    public PaginaCursor<HistorialReporte> getHistorialReportesPagina(String cursor, int limite) {
+        return historialReporteRepository.findPagina(cursor, limite);
+    }
+
+    // Método para obtener el histograma por fecha (una sola consulta agrupada)
+    public List<CubetaTiempo> getHistogramaHistoriales(Granularidad granularidad, int cubetas) {
+        return historialReporteRepository.histograma(granularidad, cubetas);
+    }
+
+    // Método para recorrer todos los historiales de reportes fila a fila (exportación en streaming)
+    public void exportarHistorialReportes(Consumer<HistorialReporte> consumer) {
+        historialReporteRepository.streamAll(consumer);
+    }
+
     public Optional<HistorialReporte> getHistorialReporteById(Integer id) {
         return historialReporteRepository.findById(id);
     }
@@ -184,26 +203,17 @@ public class HistorialReporteService {
 
     // Método para obtener historiales recientes (últimos 7 días)
     public List<HistorialReporte> getHistorialesRecientes() {
-        List<HistorialReporte> todosHistoriales = getAllHistorialesOrderByFechaDesc();
-        LocalDateTime unaSemanaAtras = LocalDateTime.now().minusDays(7);
-
-        return todosHistoriales.stream()
-                .filter(h -> h.getFechaRegistro() != null && h.getFechaRegistro().isAfter(unaSemanaAtras))
-                .collect(Collectors.toList()); // CORREGIDO: Cambiado toList() por collect(Collectors.toList())
+        return historialReporteRepository.findPosteriores(LocalDateTime.now().minusDays(7));
     }
 
     // Método para obtener historiales del día actual
     public List<HistorialReporte> getHistorialesDelDia() {
-        List<HistorialReporte> todosHistoriales = getAllHistorialesOrderByFechaDesc();
         LocalDate hoy = LocalDate.now();
-
-        return todosHistoriales.stream()
-                .filter(h -> h.getFechaRegistro() != null &&
-                        h.getFechaRegistro().toLocalDate().equals(hoy))
-                .collect(Collectors.toList()); // CORREGIDO: Cambiado toList() por collect(Collectors.toList())
+        return historialReporteRepository.findEnIntervalo(hoy.atStartOfDay(), hoy.plusDays(1).atStartOfDay());
     }
 
-    // Método para obtener estadísticas de historiales
+    // Método para obtener estadísticas de historiales (agregadas en la base de datos:
+    // solo viaja una fila por tipo y por usuario, no la tabla completa)
     public Map<String, Object> getEstadisticasHistoriales() {
         Map<String, Object> estadisticas = new LinkedHashMap<>();
 
@@ -212,34 +222,17 @@ public class HistorialReporteService {
         estadisticas.put("totalHistoriales", totalHistoriales);
 
         // Historiales por tipo
-        Map<String, Integer> historialesPorTipo = new HashMap<>();
-        List<HistorialReporte> todosHistoriales = getAllHistorialReportes();
-
-        for (HistorialReporte historial : todosHistoriales) {
-            String tipo = historial.getTipoReporteHist();
-            if (tipo == null || tipo.trim().isEmpty()) {
-                tipo = "Sin tipo";
-            }
-            historialesPorTipo.put(tipo, historialesPorTipo.getOrDefault(tipo, 0) + 1);
-        }
+        Map<String, Integer> historialesPorTipo = agrupar(
+                historialReporteRepository.countAgrupadoPorTipo(), "Sin tipo");
         estadisticas.put("historialesPorTipo", historialesPorTipo);
 
         // Historiales por usuario
-        Map<String, Integer> historialesPorUsuario = new HashMap<>();
-        for (HistorialReporte historial : todosHistoriales) {
-            String usuario = historial.getUsuarioRegistro();
-            if (usuario == null || usuario.trim().isEmpty()) {
-                usuario = "Usuario desconocido";
-            }
-            historialesPorUsuario.put(usuario, historialesPorUsuario.getOrDefault(usuario, 0) + 1);
-        }
+        Map<String, Integer> historialesPorUsuario = agrupar(
+                historialReporteRepository.countAgrupadoPorUsuario(), "Usuario desconocido");
         estadisticas.put("historialesPorUsuario", historialesPorUsuario);
 
         // Historiales recientes (último mes)
-        LocalDateTime unMesAtras = LocalDateTime.now().minusMonths(1);
-        long historialesRecientes = todosHistoriales.stream()
-                .filter(h -> h.getFechaRegistro() != null && h.getFechaRegistro().isAfter(unMesAtras))
-                .count();
+        long historialesRecientes = historialReporteRepository.countPosteriores(LocalDateTime.now().minusMonths(1));
         estadisticas.put("historialesRecientesUltimoMes", historialesRecientes);
 
         // Usuario más activo
@@ -259,14 +252,26 @@ public class HistorialReporteService {
         return estadisticas;
     }
 
+    // Los valores nulos o en blanco se agrupan bajo una misma etiqueta, como antes
+    private Map<String, Integer> agrupar(List<ConteoAgrupado> conteos, String etiquetaVacia) {
+        Map<String, Integer> resultado = new HashMap<>();
+        for (ConteoAgrupado conteo : conteos) {
+            String clave = conteo.getClave();
+            if (clave == null || clave.trim().isEmpty()) {
+                clave = etiquetaVacia;
+            }
+            resultado.merge(clave, (int) conteo.getTotal(), Integer::sum);
+        }
+        return resultado;
+    }
+
     // Método para contar historiales por reporte
     public int countHistorialesByReporte(Integer idReporte) {
-        List<HistorialReporte> historiales = getHistorialesByReporte(idReporte);
-        return historiales.size();
+        return historialReporteRepository.countByReporte(idReporte);
     }
 
     // Método para verificar si un reporte tiene historial
     public boolean tieneHistorial(Integer idReporte) {
-        return !getHistorialesByReporte(idReporte).isEmpty();
+        return historialReporteRepository.countByReporte(idReporte) > 0;
     }
 }
\ No newline at end of file
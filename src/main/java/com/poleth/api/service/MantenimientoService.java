@@ -1,12 +1,19 @@
 // MantenimientoService.java
 package com.poleth.api.service;
 
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
+import com.poleth.api.estadisticas.EstadisticasMantenimientos;
 import com.poleth.api.model.Mantenimiento;
 import com.poleth.api.repository.MantenimientoRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class MantenimientoService {
     private final MantenimientoRepository mantenimientoRepository;
@@ -20,12 +27,30 @@ public class MantenimientoService {
         return mantenimientoRepository.findAll();
     }
 
+    // Método para obtener una página por cursor (?cursor=&limit=)
+    public PaginaCursor<Mantenimiento> getMantenimientosPagina(String cursor, int limite) {
+        return mantenimientoRepository.findPagina(cursor, limite);
+    }
+
+    // Método para obtener el histograma por fecha (una sola consulta agrupada)
+    public List<CubetaTiempo> getHistogramaMantenimientos(Granularidad granularidad, int cubetas) {
+        return mantenimientoRepository.histograma(granularidad, cubetas);
+    }
+
+    // Método para recorrer todos los mantenimientos fila a fila (exportación en streaming)
+    public void exportarMantenimientos(Consumer<Mantenimiento> consumer) {
+        mantenimientoRepository.streamAll(consumer);
+    }
+
     public Optional<Mantenimiento> getMantenimientoById(Integer id) {
         return mantenimientoRepository.findById(id);
     }
 
     public void deleteMantenimiento(Integer id) {
+        Optional<Mantenimiento> existente = mantenimientoRepository.findById(id);
         mantenimientoRepository.delete(id);
+        existente.ifPresent(mantenimiento -> EstadisticasMantenimientos.registrarCambio(
+                EstadisticasMantenimientos.huella(mantenimiento), null));
     }
 
     // Método para crear un nuevo mantenimiento con validaciones
@@ -84,7 +109,9 @@ public class MantenimientoService {
         }
 
         // Guardar el mantenimiento
-        return mantenimientoRepository.save(mantenimiento);
+        Mantenimiento guardado = mantenimientoRepository.save(mantenimiento);
+        EstadisticasMantenimientos.registrarCambio(null, EstadisticasMantenimientos.huella(guardado));
+        return guardado;
     }
 
     // Método para actualizar un mantenimiento existente
@@ -134,6 +161,7 @@ public class MantenimientoService {
         }
 
         Mantenimiento mantenimientoExistente = mantenimientoExistenteOpt.get();
+        EstadisticasMantenimientos.Huella antes = EstadisticasMantenimientos.huella(mantenimientoExistente);
 
         // Actualizar los campos
         mantenimientoExistente.setIdCuarto(mantenimientoActualizado.getIdCuarto());
@@ -144,7 +172,9 @@ public class MantenimientoService {
         mantenimientoExistente.setCostoMantenimiento(mantenimientoActualizado.getCostoMantenimiento());
 
         // Guardar los cambios
-        return mantenimientoRepository.save(mantenimientoExistente);
+        Mantenimiento guardado = mantenimientoRepository.save(mantenimientoExistente);
+        EstadisticasMantenimientos.registrarCambio(antes, EstadisticasMantenimientos.huella(guardado));
+        return guardado;
     }
 
     // Método para verificar si un mantenimiento existe por ID
@@ -161,6 +191,7 @@ public class MantenimientoService {
         }
 
         Mantenimiento mantenimiento = mantenimientoOpt.get();
+        EstadisticasMantenimientos.Huella antes = EstadisticasMantenimientos.huella(mantenimiento);
 
         // Validar que la fecha de atención no sea anterior a la fecha de reporte
         if (fechaAtencion.isBefore(mantenimiento.getFechaReporte())) {
@@ -196,7 +227,9 @@ public class MantenimientoService {
         }
 
         // Guardar
-        return mantenimientoRepository.save(mantenimiento);
+        Mantenimiento guardado = mantenimientoRepository.save(mantenimiento);
+        EstadisticasMantenimientos.registrarCambio(antes, EstadisticasMantenimientos.huella(guardado));
+        return guardado;
     }
 
     // Método para actualizar solo el estado del mantenimiento
@@ -212,10 +245,13 @@ public class MantenimientoService {
         }
 
         Mantenimiento mantenimiento = mantenimientoOpt.get();
+        EstadisticasMantenimientos.Huella antes = EstadisticasMantenimientos.huella(mantenimiento);
         mantenimiento.setEstadoMantenimiento(nuevoEstado);
 
         // Guardar
-        return mantenimientoRepository.save(mantenimiento);
+        Mantenimiento guardado = mantenimientoRepository.save(mantenimiento);
+        EstadisticasMantenimientos.registrarCambio(antes, EstadisticasMantenimientos.huella(guardado));
+        return guardado;
     }
 
     // Métodos de consulta adicionales
@@ -243,29 +279,31 @@ public class MantenimientoService {
         return mantenimientoRepository.findPendientesByCuarto(idCuarto);
     }
 
-    // Métodos de estadísticas
+    // Métodos de estadísticas (agregados en memoria, sin consultar la base de datos)
     public Long contarTotalMantenimientos() {
-        return mantenimientoRepository.count();
+        return EstadisticasMantenimientos.getTotal();
     }
 
     public Long contarMantenimientosPendientes() {
-        return mantenimientoRepository.countPendientes();
+        return EstadisticasMantenimientos.getPendientes();
     }
 
     public Long contarMantenimientosCompletados() {
-        return mantenimientoRepository.countCompletados();
+        return EstadisticasMantenimientos.getCompletados();
     }
 
     public BigDecimal calcularCostoTotalMantenimientos() {
-        List<Mantenimiento> mantenimientos = mantenimientoRepository.findAll();
-        BigDecimal total = BigDecimal.ZERO;
-
-        for (Mantenimiento m : mantenimientos) {
-            if (m.getCostoMantenimiento() != null) {
-                total = total.add(m.getCostoMantenimiento());
-            }
-        }
+        return EstadisticasMantenimientos.getCostoTotal();
+    }
 
-        return total;
+    // Método para el panel de estadísticas de mantenimientos
+    public Map<String, Object> getEstadisticasMantenimientos() {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("totalMantenimientos", contarTotalMantenimientos());
+        estadisticas.put("pendientes", contarMantenimientosPendientes());
+        estadisticas.put("completados", contarMantenimientosCompletados());
+        estadisticas.put("porEstado", EstadisticasMantenimientos.getPorEstado());
+        estadisticas.put("costoTotal", calcularCostoTotalMantenimientos());
+        return estadisticas;
     }
-}
\ No newline at end of file
+}
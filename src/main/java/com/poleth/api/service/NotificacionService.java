@@ -1,23 +1,40 @@
 // NotificacionService.java
 package com.poleth.api.service;
 
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.DifusionNotificacion;
+import com.poleth.api.dto.NotificacionResumen;
+import com.poleth.api.dto.PaginaCursor;
+import com.poleth.api.dto.ResultadoLote;
+import com.poleth.api.estadisticas.ContadorNoLeidas;
+import com.poleth.api.eventos.BusNotificaciones;
 import com.poleth.api.model.Notificacion;
 import com.poleth.api.model.Usuario;
+import com.poleth.api.repository.ContratoRepository;
 import com.poleth.api.repository.NotificacionRepository;
 import com.poleth.api.repository.UsuarioRepository;
 import java.sql.Date;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class NotificacionService {
     private final NotificacionRepository notificacionRepository;
     private final UsuarioRepository usuarioRepository;
+    private final ContratoRepository contratoRepository;
 
     public NotificacionService(NotificacionRepository notificacionRepository,
-                               UsuarioRepository usuarioRepository) {
+                               UsuarioRepository usuarioRepository,
+                               ContratoRepository contratoRepository) {
         this.notificacionRepository = notificacionRepository;
         this.usuarioRepository = usuarioRepository;
+        this.contratoRepository = contratoRepository;
     }
 
     // Método para crear una nueva notificación
@@ -40,19 +57,105 @@ public class NotificacionService {
         // Asignar el inquilino completo
         notificacion.setInquilino(inquilinoOpt.get());
 
+        validarContenido(notificacion.getTipoNotificacion(), notificacion.getDetalles(),
+                notificacion.getFechaUtilizacion());
+
+        Notificacion guardada = notificacionRepository.save(notificacion);
+        ContadorNoLeidas.registrarCambio(null, ContadorNoLeidas.huella(guardada));
+        BusNotificaciones.publicar(BusNotificaciones.CREADA, guardada);
+        return guardada;
+    }
+
+    // Método para crear la misma notificación para varios contratos o inquilinos en una sola transacción.
+    // Los destinatarios se comprueban con una consulta IN y las filas se insertan por lotes JDBC;
+    // el resultado indica, en el orden recibido, el id creado o el motivo del rechazo de cada uno
+    public ResultadoLote difundirNotificacion(DifusionNotificacion difusion) {
+        if (difusion == null) {
+            throw new IllegalArgumentException("Los datos de la notificación son requeridos");
+        }
+        boolean porContrato = difusion.getIdsContrato() != null && !difusion.getIdsContrato().isEmpty();
+        boolean porInquilino = difusion.getIdsInquilino() != null && !difusion.getIdsInquilino().isEmpty();
+        if (porContrato == porInquilino) {
+            throw new IllegalArgumentException("Se debe indicar idsContrato o idsInquilino, pero no ambos");
+        }
+        List<Integer> ids = porContrato ? difusion.getIdsContrato() : difusion.getIdsInquilino();
+        int maximo = DatabaseConfig.getIntProperty("notificaciones.broadcast.max-size", 5000);
+        if (ids.size() > maximo) {
+            throw new IllegalArgumentException("La difusión no puede exceder " + maximo + " destinatarios");
+        }
+        validarContenido(difusion.getTipoNotificacion(), difusion.getDetalles(), difusion.getFechaUtilizacion());
+
+        // Contrato -> inquilino, o inquilino -> su contrato más reciente (nulo si no tiene)
+        Set<Integer> distintos = new HashSet<>(ids);
+        distintos.remove(null);
+        Map<Integer, Integer> relacionados = new HashMap<>();
+        List<Object[]> filas = porContrato
+                ? contratoRepository.findInquilinosByIds(distintos)
+                : contratoRepository.findUltimoContratoByInquilinos(distintos);
+        for (Object[] fila : filas) {
+            relacionados.put((Integer) fila[0], (Integer) fila[1]);
+        }
+
+        String[] errores = new String[ids.size()];
+        Notificacion[] creadas = new Notificacion[ids.size()];
+        List<Notificacion> validas = new ArrayList<>(ids.size());
+        Set<Integer> vistos = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Integer id = ids.get(i);
+            if (id == null) {
+                errores[i] = porContrato ? "El ID del contrato es requerido" : "El ID del inquilino es requerido";
+            } else if (!vistos.add(id)) {
+                errores[i] = "Destinatario repetido en la difusión";
+            } else if (!relacionados.containsKey(id)) {
+                errores[i] = porContrato ? "El contrato especificado no existe" : "El inquilino especificado no existe";
+            } else if (relacionados.get(id) == null) {
+                errores[i] = "El inquilino no tiene contratos";
+            } else {
+                Usuario inquilino = new Usuario();
+                inquilino.setIdUsuario(porContrato ? relacionados.get(id) : id);
+                Notificacion notificacion = new Notificacion(inquilino, porContrato ? id : relacionados.get(id),
+                        difusion.getFechaUtilizacion(), difusion.getTipoNotificacion(), difusion.getDetalles());
+                creadas[i] = notificacion;
+                validas.add(notificacion);
+            }
+        }
+
+        crearNotificaciones(validas);
+
+        List<ResultadoLote.Fila> resultados = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            resultados.add(errores[i] != null
+                    ? ResultadoLote.Fila.rechazada(i, errores[i])
+                    : ResultadoLote.Fila.guardada(i, creadas[i].getIdNotificacion()));
+        }
+        return new ResultadoLote(resultados);
+    }
+
+    // Método para insertar por lotes notificaciones ya validadas (con el inquilino y el contrato asignados),
+    // actualizar el contador de no leídas y avisar por el canal push tras el commit
+    public void crearNotificaciones(List<Notificacion> notificaciones) {
+        notificacionRepository.saveAll(notificaciones);
+        for (Notificacion notificacion : notificaciones) {
+            ContadorNoLeidas.registrarCambio(null, ContadorNoLeidas.huella(notificacion));
+            BusNotificaciones.publicar(BusNotificaciones.CREADA, notificacion);
+        }
+    }
+
+    // Validaciones del contenido de una notificación nueva
+    private void validarContenido(String tipoNotificacion, String detalles, Date fechaUtilizacion) {
         // Validar tipo de notificación
-        if (notificacion.getTipoNotificacion() != null && notificacion.getTipoNotificacion().length() > 50) {
+        if (tipoNotificacion != null && tipoNotificacion.length() > 50) {
             throw new IllegalArgumentException("El tipo de notificación no puede exceder 50 caracteres");
         }
 
         // Validar detalles
-        if (notificacion.getDetalles() != null && notificacion.getDetalles().length() > 1000) {
+        if (detalles != null && detalles.length() > 1000) {
             throw new IllegalArgumentException("Los detalles no pueden exceder 1000 caracteres");
         }
 
         // Validar fecha de utilización
-        if (notificacion.getFechaUtilizacion() != null) {
-            LocalDate fecha = notificacion.getFechaUtilizacion().toLocalDate();
+        if (fechaUtilizacion != null) {
+            LocalDate fecha = fechaUtilizacion.toLocalDate();
             LocalDate hoy = LocalDate.now();
 
             if (fecha.isBefore(hoy.minusYears(1))) {
@@ -62,8 +165,6 @@ public class NotificacionService {
                 throw new IllegalArgumentException("La fecha de utilización no puede ser mayor a un año en el futuro");
             }
         }
-
-        return notificacionRepository.save(notificacion);
     }
 
     // Método para actualizar una notificación
@@ -75,6 +176,8 @@ public class NotificacionService {
         }
 
         Notificacion notificacionExistente = notificacionExistenteOpt.get();
+        Usuario inquilinoAnterior = notificacionExistente.getInquilino();
+        ContadorNoLeidas.Huella antes = ContadorNoLeidas.huella(notificacionExistente);
 
         // Actualizar campos permitidos
         if (notificacionActualizada.getInquilino() != null &&
@@ -118,7 +221,18 @@ public class NotificacionService {
             notificacionExistente.setEstadoNotificacion(notificacionActualizada.getEstadoNotificacion());
         }
 
-        return notificacionRepository.save(notificacionExistente);
+        Notificacion guardada = notificacionRepository.save(notificacionExistente);
+        ContadorNoLeidas.registrarCambio(antes, ContadorNoLeidas.huella(guardada));
+        if (inquilinoAnterior != null && guardada.getInquilino() != null
+                && !inquilinoAnterior.getIdUsuario().equals(guardada.getInquilino().getIdUsuario())) {
+            // Cambió de inquilino: para el anterior la notificación desaparece de su bandeja
+            Notificacion retirada = new Notificacion();
+            retirada.setIdNotificacion(guardada.getIdNotificacion());
+            retirada.setInquilino(inquilinoAnterior);
+            BusNotificaciones.publicar(BusNotificaciones.ELIMINADA, retirada);
+        }
+        BusNotificaciones.publicar(BusNotificaciones.ACTUALIZADA, guardada);
+        return guardada;
     }
 
     // Método para marcar notificación como leída
@@ -129,16 +243,43 @@ public class NotificacionService {
         }
 
         Notificacion notificacion = notificacionOpt.get();
+        boolean yaLeida = "leido".equals(notificacion.getEstadoNotificacion());
+        ContadorNoLeidas.Huella antes = ContadorNoLeidas.huella(notificacion);
         notificacion.marcarComoLeido();
 
-        return notificacionRepository.save(notificacion);
+        Notificacion guardada = notificacionRepository.save(notificacion);
+        ContadorNoLeidas.registrarCambio(antes, ContadorNoLeidas.huella(guardada));
+        if (!yaLeida) {
+            BusNotificaciones.publicar(BusNotificaciones.LEIDA, guardada);
+        }
+        return guardada;
+    }
+
+    // Método para marcar como leídas todas las notificaciones de un inquilino con un solo UPDATE;
+    // devuelve cuántas estaban sin leer
+    public int marcarTodasComoLeidas(Integer idInquilino) {
+        int actualizadas = notificacionRepository.updateEstadoByInquilino(idInquilino, "no_leido", "leido");
+        ContadorNoLeidas.registrarLecturas(idInquilino, actualizadas);
+        if (actualizadas > 0) {
+            Map<String, Object> evento = new LinkedHashMap<>();
+            evento.put("tipo", BusNotificaciones.LEIDAS_TODAS);
+            evento.put("idInquilino", idInquilino);
+            evento.put("cantidad", actualizadas);
+            BusNotificaciones.publicarEvento(idInquilino, evento);
+        }
+        return actualizadas;
     }
 
     // Método para obtener todas las notificaciones
-    public List<Notificacion> getAllNotificaciones() {
+    public List<NotificacionResumen> getAllNotificaciones() {
         return notificacionRepository.findAll();
     }
 
+    // Método para obtener una página por cursor (?cursor=&limit=)
+    public PaginaCursor<NotificacionResumen> getNotificacionesPagina(String cursor, int limite) {
+        return notificacionRepository.findPagina(cursor, limite);
+    }
+
     // Método para obtener notificación por ID
     public Optional<Notificacion> getNotificacionById(Integer id) {
         return notificacionRepository.findById(id);
@@ -146,56 +287,62 @@ public class NotificacionService {
 
     // Método para eliminar notificación
     public boolean deleteNotificacion(Integer id) {
-        return notificacionRepository.delete(id);
+        Optional<Notificacion> notificacionOpt = notificacionRepository.findById(id);
+        boolean eliminada = notificacionRepository.delete(id);
+        if (eliminada && notificacionOpt.isPresent()) {
+            ContadorNoLeidas.registrarCambio(ContadorNoLeidas.huella(notificacionOpt.get()), null);
+            BusNotificaciones.publicar(BusNotificaciones.ELIMINADA, notificacionOpt.get());
+        }
+        return eliminada;
     }
 
     // Método para obtener notificaciones por inquilino
-    public List<Notificacion> getNotificacionesByInquilino(Integer idInquilino) {
+    public List<NotificacionResumen> getNotificacionesByInquilino(Integer idInquilino) {
         return notificacionRepository.findByInquilino(idInquilino);
     }
 
     // Método para obtener notificaciones por contrato
-    public List<Notificacion> getNotificacionesByContrato(Integer idContrato) {
+    public List<NotificacionResumen> getNotificacionesByContrato(Integer idContrato) {
         return notificacionRepository.findByContrato(idContrato);
     }
 
     // Método para obtener notificaciones por fecha de utilización
-    public List<Notificacion> getNotificacionesByFechaUtilizacion(Date fechaUtilizacion) {
+    public List<NotificacionResumen> getNotificacionesByFechaUtilizacion(Date fechaUtilizacion) {
         return notificacionRepository.findByFechaUtilizacion(fechaUtilizacion);
     }
 
     // Método para obtener notificaciones no leídas por inquilino
-    public List<Notificacion> getNotificacionesNoLeidasByInquilino(Integer idInquilino) {
+    public List<NotificacionResumen> getNotificacionesNoLeidasByInquilino(Integer idInquilino) {
         return notificacionRepository.findByInquilinoAndEstado(idInquilino, "no_leido");
     }
 
     // Método para obtener notificaciones leídas por inquilino
-    public List<Notificacion> getNotificacionesLeidasByInquilino(Integer idInquilino) {
+    public List<NotificacionResumen> getNotificacionesLeidasByInquilino(Integer idInquilino) {
         return notificacionRepository.findByInquilinoAndEstado(idInquilino, "leido");
     }
 
-    // Método para contar notificaciones no leídas por inquilino
+    // Método para contar notificaciones no leídas por inquilino (desde el contador en memoria)
     public Long contarNotificacionesNoLeidasByInquilino(Integer idInquilino) {
-        return notificacionRepository.countByInquilinoAndEstado(idInquilino, "no_leido");
+        return ContadorNoLeidas.get(idInquilino);
     }
 
     // Método para obtener notificaciones por tipo
-    public List<Notificacion> getNotificacionesByTipo(String tipo) {
+    public List<NotificacionResumen> getNotificacionesByTipo(String tipo) {
         return notificacionRepository.findByTipo(tipo);
     }
 
     // Método para obtener notificaciones por estado
-    public List<Notificacion> getNotificacionesByEstado(String estado) {
+    public List<NotificacionResumen> getNotificacionesByEstado(String estado) {
         return notificacionRepository.findByEstado(estado);
     }
 
     // Método para obtener notificaciones recientes
-    public List<Notificacion> getNotificacionesRecientes(int limite) {
+    public List<NotificacionResumen> getNotificacionesRecientes(int limite) {
         return notificacionRepository.findRecent(limite);
     }
 
     // Método para obtener notificaciones recientes por inquilino
-    public List<Notificacion> getNotificacionesRecientesByInquilino(Integer idInquilino, int limite) {
+    public List<NotificacionResumen> getNotificacionesRecientesByInquilino(Integer idInquilino, int limite) {
         return notificacionRepository.findRecentByInquilino(idInquilino, limite);
     }
 
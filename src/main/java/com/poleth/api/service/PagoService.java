@@ -1,12 +1,19 @@
 // PagoService.java
 package com.poleth.api.service;
 
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
+import com.poleth.api.dto.ResultadoLote;
 import com.poleth.api.model.Pago;
 import com.poleth.api.repository.PagoRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class PagoService {
     private final PagoRepository pagoRepository;
@@ -20,6 +27,21 @@ public class PagoService {
         return pagoRepository.findAll();
     }
 
+    // Método para obtener una página por cursor (?cursor=&limit=)
+    public PaginaCursor<Pago> getPagosPagina(String cursor, int limite) {
+        return pagoRepository.findPagina(cursor, limite);
+    }
+
+    // Método para obtener el histograma por fecha (una sola consulta agrupada)
+    public List<CubetaTiempo> getHistogramaPagos(Granularidad granularidad, int cubetas) {
+        return pagoRepository.histograma(granularidad, cubetas);
+    }
+
+    // Método para recorrer todos los pagos fila a fila (exportación en streaming)
+    public void exportarPagos(Consumer<Pago> consumer) {
+        pagoRepository.streamAll(consumer);
+    }
+
     public Optional<Pago> getPagoById(Integer id) {
         return pagoRepository.findById(id);
     }
@@ -30,6 +52,53 @@ public class PagoService {
 
     // Método para crear un nuevo pago con validaciones
     public Pago createPago(Pago pago) {
+        validarNuevoPago(pago, LocalDate.now());
+
+        // Guardar el pago (las relaciones no se serializan, no hace falta recargarlo)
+        return pagoRepository.save(pago);
+    }
+
+    // Método para crear varios pagos en una sola transacción (POST /api/pagos/batch).
+    // Cada fila se valida con las mismas reglas que createPago; las inválidas se informan
+    // y no se insertan, las válidas se guardan juntas con lotes JDBC.
+    public ResultadoLote createPagos(List<Pago> pagos) {
+        if (pagos == null || pagos.isEmpty()) {
+            throw new IllegalArgumentException("La lista de pagos es requerida");
+        }
+        int maximo = DatabaseConfig.getIntProperty("pagos.batch.max-size", 5000);
+        if (pagos.size() > maximo) {
+            throw new IllegalArgumentException("El lote no puede exceder " + maximo + " pagos");
+        }
+
+        LocalDate hoy = LocalDate.now();
+        String[] errores = new String[pagos.size()];
+        List<Pago> validos = new ArrayList<>(pagos.size());
+        for (int i = 0; i < pagos.size(); i++) {
+            Pago pago = pagos.get(i);
+            try {
+                if (pago == null) {
+                    throw new IllegalArgumentException("El pago es requerido");
+                }
+                validarNuevoPago(pago, hoy);
+                validos.add(pago);
+            } catch (IllegalArgumentException e) {
+                errores[i] = e.getMessage();
+            }
+        }
+
+        pagoRepository.saveAll(validos);
+
+        List<ResultadoLote.Fila> resultados = new ArrayList<>(pagos.size());
+        for (int i = 0; i < pagos.size(); i++) {
+            resultados.add(errores[i] != null
+                    ? ResultadoLote.Fila.rechazada(i, errores[i])
+                    : ResultadoLote.Fila.guardada(i, pagos.get(i).getIdPago()));
+        }
+        return new ResultadoLote(resultados);
+    }
+
+    // Validaciones de un pago nuevo (completa el estado por defecto)
+    private void validarNuevoPago(Pago pago, LocalDate hoy) {
         // Validaciones básicas
         if (pago.getIdContrato() == null) {
             throw new IllegalArgumentException("El ID del contrato es requerido");
@@ -83,17 +152,9 @@ public class PagoService {
         }
 
         // Validar que la fecha no sea futura (opcional, puedes quitarlo si no aplica)
-        LocalDate hoy = LocalDate.now();
         if (pago.getFechaPago().isAfter(hoy)) {
             throw new IllegalArgumentException("La fecha de pago no puede ser futura");
         }
-
-        // Guardar el pago
-        Pago pagoGuardado = pagoRepository.save(pago);
-
-        // Recargar con relaciones para evitar LazyInitializationException
-        return pagoRepository.findById(pagoGuardado.getIdPago())
-                .orElseThrow(() -> new RuntimeException("Error al recuperar el pago creado"));
     }
 
     // Método para actualizar un pago existente
@@ -156,11 +217,7 @@ public class PagoService {
         }
 
         // Guardar los cambios
-        pagoRepository.save(pagoExistente);
-
-        // Recargar con relaciones para evitar LazyInitializationException
-        return pagoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Error al recuperar el pago actualizado"));
+        return pagoRepository.save(pagoExistente);
     }
 
     // Método para cambiar estado del pago
@@ -185,10 +242,7 @@ public class PagoService {
         Pago pago = pagoOpt.get();
         pago.setEstadoPago(nuevoEstado);
 
-        // Guardar y luego recuperar con la relación cargada
-        pagoRepository.save(pago);
-        return pagoRepository.findById(idPago)
-                .orElseThrow(() -> new RuntimeException("Error al recuperar el pago actualizado"));
+        return pagoRepository.save(pago);
     }
 
     // Métodos de búsqueda
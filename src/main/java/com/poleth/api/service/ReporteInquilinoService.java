@@ -1,14 +1,21 @@
 // ReporteInquilinoService.java
 package com.poleth.api.service;
 
+import com.poleth.api.dto.CubetaTiempo;
+import com.poleth.api.dto.Granularidad;
+import com.poleth.api.dto.PaginaCursor;
+import com.poleth.api.estadisticas.EstadisticasReportes;
 import com.poleth.api.model.ReporteInquilino;
 import com.poleth.api.repository.ReporteInquilinoRepository;
+import com.poleth.api.util.DetectorUrgencia;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.function.Consumer;
 
 public class ReporteInquilinoService {
     private final ReporteInquilinoRepository reporteInquilinoRepository;
@@ -22,12 +29,30 @@ public class ReporteInquilinoService {
         return reporteInquilinoRepository.findAll();
     }
 
+    // Método para obtener una página por cursor (?cursor=&limit=)
+    public PaginaCursor<ReporteInquilino> getReportesInquilinosPagina(String cursor, int limite) {
+        return reporteInquilinoRepository.findPagina(cursor, limite);
+    }
+
+    // Método para obtener el histograma por fecha (una sola consulta agrupada)
+    public List<CubetaTiempo> getHistogramaReportes(Granularidad granularidad, int cubetas) {
+        return reporteInquilinoRepository.histograma(granularidad, cubetas);
+    }
+
+    // Método para recorrer todos los reportes de inquilinos fila a fila (exportación en streaming)
+    public void exportarReportesInquilinos(Consumer<ReporteInquilino> consumer) {
+        reporteInquilinoRepository.streamAll(consumer);
+    }
+
     public Optional<ReporteInquilino> getReporteInquilinoById(Integer id) {
         return reporteInquilinoRepository.findById(id);
     }
 
     public void deleteReporteInquilino(Integer id) {
+        Optional<ReporteInquilino> existente = reporteInquilinoRepository.findById(id);
         reporteInquilinoRepository.delete(id);
+        existente.ifPresent(reporte ->
+                EstadisticasReportes.registrarCambio(EstadisticasReportes.huella(reporte), null));
     }
 
     // Método para verificar si un reporte existe por ID
@@ -95,8 +120,13 @@ public class ReporteInquilinoService {
             reporteInquilino.setFecha(LocalDate.now());
         }
 
+        // Prioridad calculada una vez aquí para que la cola de urgentes sea una búsqueda por índice
+        reporteInquilino.setPrioridad(DetectorUrgencia.prioridad(reporteInquilino.getDescripcion()));
+
         // Guardar el reporte
-        return reporteInquilinoRepository.save(reporteInquilino);
+        ReporteInquilino guardado = reporteInquilinoRepository.save(reporteInquilino);
+        EstadisticasReportes.registrarCambio(null, EstadisticasReportes.huella(guardado));
+        return guardado;
     }
 
     // Método para actualizar un reporte existente
@@ -144,6 +174,7 @@ public class ReporteInquilinoService {
         }
 
         ReporteInquilino reporteExistente = reporteExistenteOpt.get();
+        EstadisticasReportes.Huella antes = EstadisticasReportes.huella(reporteExistente);
 
         // Actualizar los campos
         reporteExistente.setIdInquilino(reporteActualizado.getIdInquilino());
@@ -155,9 +186,12 @@ public class ReporteInquilinoService {
         reporteExistente.setEstadoReporte(reporteActualizado.getEstadoReporte());
         reporteExistente.setFechaCierre(reporteActualizado.getFechaCierre());
         reporteExistente.setAccionesTomadas(reporteActualizado.getAccionesTomadas());
+        reporteExistente.setPrioridad(DetectorUrgencia.prioridad(reporteExistente.getDescripcion()));
 
         // Guardar los cambios
-        return reporteInquilinoRepository.save(reporteExistente);
+        ReporteInquilino guardado = reporteInquilinoRepository.save(reporteExistente);
+        EstadisticasReportes.registrarCambio(antes, EstadisticasReportes.huella(guardado));
+        return guardado;
     }
 
     // Método para cerrar un reporte
@@ -168,6 +202,7 @@ public class ReporteInquilinoService {
         }
 
         ReporteInquilino reporte = reporteOpt.get();
+        EstadisticasReportes.Huella antes = EstadisticasReportes.huella(reporte);
 
         // Validar acciones tomadas
         if (accionesTomadas == null || accionesTomadas.trim().isEmpty()) {
@@ -188,7 +223,9 @@ public class ReporteInquilinoService {
         reporte.setAccionesTomadas(accionesTomadas);
 
         // Guardar
-        return reporteInquilinoRepository.save(reporte);
+        ReporteInquilino guardado = reporteInquilinoRepository.save(reporte);
+        EstadisticasReportes.registrarCambio(antes, EstadisticasReportes.huella(guardado));
+        return guardado;
     }
 
     // Método para actualizar solo el estado del reporte
@@ -204,6 +241,7 @@ public class ReporteInquilinoService {
         }
 
         ReporteInquilino reporte = reporteOpt.get();
+        EstadisticasReportes.Huella antes = EstadisticasReportes.huella(reporte);
         reporte.setEstadoReporte(nuevoEstado);
 
         // Si se cierra el reporte, establecer fecha de cierre
@@ -216,7 +254,9 @@ public class ReporteInquilinoService {
         }
 
         // Guardar
-        return reporteInquilinoRepository.save(reporte);
+        ReporteInquilino guardado = reporteInquilinoRepository.save(reporte);
+        EstadisticasReportes.registrarCambio(antes, EstadisticasReportes.huella(guardado));
+        return guardado;
     }
 
     // Métodos de consulta
@@ -250,7 +290,6 @@ public class ReporteInquilinoService {
 
     // Método para obtener estadísticas de tipos de reportes
     public Map<String, Integer> getEstadisticasTiposReportes() {
-        List<Object[]> resultados = reporteInquilinoRepository.getEstadisticasTiposReportes();
         Map<String, Integer> estadisticas = new LinkedHashMap<>();
 
         // Inicializar con tipos comunes
@@ -259,15 +298,9 @@ public class ReporteInquilinoService {
             estadisticas.put(tipo, 0);
         }
 
-        // Llenar con datos reales
-        for (Object[] resultado : resultados) {
-            String tipo = (String) resultado[0];
-            Long count = (Long) resultado[1];
-
-            if (tipo != null) {
-                String tipoNormalizado = normalizarTipo(tipo);
-                estadisticas.put(tipoNormalizado, count.intValue());
-            }
+        // Llenar con los conteos mantenidos en memoria (variantes del mismo tipo se suman)
+        for (Map.Entry<String, Long> conteo : EstadisticasReportes.getPorTipo().entrySet()) {
+            estadisticas.merge(normalizarTipo(conteo.getKey()), conteo.getValue().intValue(), Integer::sum);
         }
 
         return estadisticas;
@@ -310,9 +343,10 @@ public class ReporteInquilinoService {
         estadisticas.put("tiposReportes", tiposStats);
 
         // Totales
-        int totalReportes = reporteInquilinoRepository.countTotal();
-        int totalAbiertos = reporteInquilinoRepository.countByEstado("abierto");
-        int totalCerrados = reporteInquilinoRepository.countByEstado("cerrado");
+        // Totales (agregados en memoria, sin consultar la base de datos)
+        int totalReportes = (int) EstadisticasReportes.getTotal();
+        int totalAbiertos = (int) EstadisticasReportes.getPorEstado("abierto");
+        int totalCerrados = (int) EstadisticasReportes.getPorEstado("cerrado");
 
         estadisticas.put("totalReportes", totalReportes);
         estadisticas.put("totalAbiertos", totalAbiertos);
@@ -333,7 +367,7 @@ public class ReporteInquilinoService {
         for (int i = 5; i >= 0; i--) {
             LocalDate fechaMes = ahora.minusMonths(i);
             String mesKey = fechaMes.getYear() + "-" + fechaMes.getMonthValue();
-            int count = reporteInquilinoRepository.countByMes(fechaMes.getYear(), fechaMes.getMonthValue());
+            int count = (int) EstadisticasReportes.getPorMes(YearMonth.from(fechaMes));
             reportesPorMes.put(mesKey, count);
         }
         estadisticas.put("reportesPorMes", reportesPorMes);
@@ -346,7 +380,7 @@ public class ReporteInquilinoService {
         return reporteInquilinoRepository.findRecientes(limite);
     }
 
-    // Método para obtener reportes urgentes
+    // Método para obtener la cola de reportes urgentes abiertos (mayor prioridad primero)
     public List<ReporteInquilino> getReportesUrgentes() {
         return reporteInquilinoRepository.findUrgentes();
     }
@@ -1,11 +1,16 @@
 //UsuarioService.java
 package com.poleth.api.service;
 
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.dto.PaginaCursor;
 import com.poleth.api.model.Usuario;
 import com.poleth.api.model.Rol;
 import com.poleth.api.repository.UsuarioRepository;
 import com.poleth.api.repository.RolRepository;
+import com.poleth.api.util.AccesoDenegadoException;
 import com.poleth.api.util.JWTUtil;
+import com.poleth.api.util.PasswordUtil;
+import com.poleth.api.util.ServicioSaturadoException;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,6 +52,17 @@ public class UsuarioService {
             throw new IllegalArgumentException("Usuario o contraseña incorrectos");
         }
 
+        // Si cambió el coste de BCrypt, aprovechar que tenemos la contraseña para rehashearla
+        if (PasswordUtil.necesitaRehash(usuario.getPassword())) {
+            try {
+                usuario.setPassword(password);
+                usuarioRepository.save(usuario);
+                PasswordUtil.registrarRehash();
+            } catch (ServicioSaturadoException e) {
+                // No es crítico: se volverá a intentar en el próximo login
+            }
+        }
+
         // Generar token JWT
         return JWTUtil.generarToken(usuario);
     }
@@ -60,6 +76,11 @@ public class UsuarioService {
         return usuarioRepository.findAll();
     }
 
+    // Método para obtener una página por cursor (?cursor=&limit=)
+    public PaginaCursor<Usuario> getUsuariosPagina(String cursor, int limite) {
+        return usuarioRepository.findPagina(cursor, limite);
+    }
+
     public Optional<Usuario> getUsuarioById(Integer id) {
         return usuarioRepository.findById(id);
     }
@@ -84,8 +105,9 @@ public class UsuarioService {
         return usuarioRepository.existsByEmail(email);
     }
 
-    // Método para crear un nuevo usuario con validaciones
-    public Usuario createUsuario(Usuario usuario) {
+    // Método para crear un nuevo usuario con validaciones. El registro público recibe siempre el rol
+    // por defecto (auth.rol.registro); solo un administrador puede indicar otro rol en el cuerpo
+    public Usuario createUsuario(Usuario usuario, boolean esAdministrador) {
         // Validaciones básicas
         if (usuario.getUsername() == null || usuario.getUsername().trim().isEmpty()) {
             throw new IllegalArgumentException("El username es requerido");
@@ -99,7 +121,7 @@ public class UsuarioService {
             throw new IllegalArgumentException("El email es requerido");
         }
 
-        if (usuario.getRol() == null || usuario.getRol().getIdRoles() == null) {
+        if (esAdministrador && (usuario.getRol() == null || usuario.getRol().getIdRoles() == null)) {
             throw new IllegalArgumentException("El rol es requerido");
         }
 
@@ -127,9 +149,13 @@ public class UsuarioService {
         }
 
         // Verificar que el rol exista
-        Optional<Rol> rolExistente = rolRepository.findById(usuario.getRol().getIdRoles());
+        Optional<Rol> rolExistente = esAdministrador
+                ? rolRepository.findById(usuario.getRol().getIdRoles())
+                : buscarRolRegistro();
         if (rolExistente.isEmpty()) {
-            throw new IllegalArgumentException("El rol especificado no existe");
+            throw new IllegalArgumentException(esAdministrador
+                    ? "El rol especificado no existe"
+                    : "No existe el rol de registro '" + getTituloRolRegistro() + "'");
         }
 
         // Asignar el rol completo al usuario
@@ -140,8 +166,9 @@ public class UsuarioService {
         return usuarioRepository.save(usuario);
     }
 
-    // Método para actualizar un usuario existente
-    public Usuario updateUsuario(Integer id, Usuario usuarioActualizado) {
+    // Método para actualizar un usuario existente. Sin rol en el cuerpo se conserva el actual;
+    // cambiarlo solo lo puede hacer un administrador (puedeCambiarRol)
+    public Usuario updateUsuario(Integer id, Usuario usuarioActualizado, boolean puedeCambiarRol) {
         // Validaciones básicas
         if (usuarioActualizado.getUsername() == null || usuarioActualizado.getUsername().trim().isEmpty()) {
             throw new IllegalArgumentException("El username es requerido");
@@ -151,10 +178,6 @@ public class UsuarioService {
             throw new IllegalArgumentException("El email es requerido");
         }
 
-        if (usuarioActualizado.getRol() == null || usuarioActualizado.getRol().getIdRoles() == null) {
-            throw new IllegalArgumentException("El rol es requerido");
-        }
-
         // Validar longitudes
         if (usuarioActualizado.getUsername().length() > 50) {
             throw new IllegalArgumentException("El username no puede exceder 50 caracteres");
@@ -188,17 +211,24 @@ public class UsuarioService {
             throw new IllegalArgumentException("El email '" + usuarioActualizado.getEmail() + "' ya existe");
         }
 
-        // Verificar que el rol exista
-        Optional<Rol> rolExistente = rolRepository.findById(usuarioActualizado.getRol().getIdRoles());
-        if (rolExistente.isEmpty()) {
-            throw new IllegalArgumentException("El rol especificado no existe");
+        // Verificar el rol solo si cambia
+        Integer idRolNuevo = usuarioActualizado.getRol() != null ? usuarioActualizado.getRol().getIdRoles() : null;
+        Integer idRolActual = usuarioExistente.getRol() != null ? usuarioExistente.getRol().getIdRoles() : null;
+        if (idRolNuevo != null && !idRolNuevo.equals(idRolActual)) {
+            if (!puedeCambiarRol) {
+                throw new AccesoDenegadoException("Solo un administrador puede cambiar el rol de un usuario");
+            }
+            Optional<Rol> rolExistente = rolRepository.findById(idRolNuevo);
+            if (rolExistente.isEmpty()) {
+                throw new IllegalArgumentException("El rol especificado no existe");
+            }
+            usuarioExistente.setRol(rolExistente.get());
         }
 
         // Actualizar los campos
         usuarioExistente.setUsername(usuarioActualizado.getUsername());
         usuarioExistente.setEmail(usuarioActualizado.getEmail());
         usuarioExistente.setTelefono(usuarioActualizado.getTelefono());
-        usuarioExistente.setRol(rolExistente.get());
         usuarioExistente.setEstadoUsuario(usuarioActualizado.getEstadoUsuario());
 
         // Solo actualizar la contraseña si se proporciona una nueva
@@ -231,4 +261,16 @@ public class UsuarioService {
     public List<Usuario> getUsuariosByRol(Integer rolId) {
         return usuarioRepository.findByRolId(rolId);
     }
-}
\ No newline at end of file
+
+    // El título se compara sin distinguir mayúsculas, igual que auth.roles.administrador
+    private Optional<Rol> buscarRolRegistro() {
+        String titulo = getTituloRolRegistro();
+        return rolRepository.findAll().stream()
+                .filter(rol -> titulo.equalsIgnoreCase(rol.getTitulo()))
+                .findFirst();
+    }
+
+    private static String getTituloRolRegistro() {
+        return DatabaseConfig.getProperty("auth.rol.registro", "Inquilino");
+    }
+}
@@ -0,0 +1,258 @@
+// BarridoContratos.java
+package com.poleth.api.tareas;
+
+import com.poleth.api.config.DatabaseConfig;
+import com.poleth.api.config.UnitOfWork;
+import com.poleth.api.model.Notificacion;
+import com.poleth.api.model.Usuario;
+import com.poleth.api.repository.ContratoRepository;
+import com.poleth.api.repository.NotificacionRepository;
+import com.poleth.api.repository.PagoRepository;
+import com.poleth.api.repository.PuntoControlRepository;
+import com.poleth.api.repository.UsuarioRepository;
+import com.poleth.api.service.NotificacionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+// Tareas programadas sobre los contratos, en un hilo propio:
+//   - vencimientos: los contratos activos cuya fecha de finalización ya pasó pasan a "finalizado"
+//     y se avisa al inquilino. El cambio de estado marca el progreso: cada ejecución solo encuentra
+//     los que cruzaron la fecha desde la anterior (índice por estado y fecha de finalización).
+//   - avisos-vencimiento / avisos-pago: aviso cuando faltan contratos.barrido.dias-aviso días para
+//     la finalización o contratos.barrido.dias-pago días para la fecha de pago.
+//   - pagos-vencidos: aviso cuando pasa la fecha de pago sin un pago completado desde
+//     contratos.barrido.dias-pago días antes de esa fecha.
+// Estas tres guardan en puntos_control el último día procesado y la siguiente ejecución solo revisa
+// los días nuevos, así un reinicio no vuelve a recorrer ni a avisar lo ya procesado.
+// Cada tarea se ejecuta en su propia unidad de trabajo: los cambios, las notificaciones y el punto
+// de control se confirman juntos.
+public class BarridoContratos {
+
+    private static final Logger log = LoggerFactory.getLogger(BarridoContratos.class);
+
+    static final String VENCIMIENTOS = "vencimientos";
+    static final String AVISOS_VENCIMIENTO = "avisos-vencimiento";
+    static final String AVISOS_PAGO = "avisos-pago";
+    static final String PAGOS_VENCIDOS = "pagos-vencidos";
+
+    private static final ContratoRepository contratoRepository = new ContratoRepository();
+    private static final PagoRepository pagoRepository = new PagoRepository();
+    private static final PuntoControlRepository puntoControlRepository = new PuntoControlRepository();
+    private static final NotificacionService notificacionService = new NotificacionService(
+            new NotificacionRepository(), new UsuarioRepository(), contratoRepository);
+
+    private static final Map<String, Map<String, Object>> ejecuciones = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService scheduler;
+
+    public static boolean isActivo() {
+        return Boolean.parseBoolean(DatabaseConfig.getProperty("contratos.barrido.enabled", "true"));
+    }
+
+    public static synchronized void iniciar() {
+        if (scheduler != null || !isActivo()) {
+            return;
+        }
+        long retraso = DatabaseConfig.getLongProperty("contratos.barrido.retraso-seg", 60);
+        long intervalo = DatabaseConfig.getLongProperty("contratos.barrido.intervalo-min", 60) * 60;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "barrido-contratos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(BarridoContratos::ejecutar, retraso, intervalo, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void detener() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Método para ejecutar todas las tareas (un fallo en una no impide las demás ni las siguientes ejecuciones)
+    public static void ejecutar() {
+        LocalDate hoy = LocalDate.now();
+        ejecutarTarea(VENCIMIENTOS, () -> finalizarVencidos(hoy));
+        ejecutarTarea(AVISOS_VENCIMIENTO, () -> avisarVencimientos(hoy));
+        ejecutarTarea(AVISOS_PAGO, () -> avisarPagos(hoy));
+        ejecutarTarea(PAGOS_VENCIDOS, () -> avisarPagosVencidos(hoy));
+    }
+
+    // Método para obtener la última ejecución de cada tarea
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("estado", scheduler != null ? "activo" : "desactivado");
+        metrics.put("tareas", new HashMap<>(ejecuciones));
+        return metrics;
+    }
+
+    private static void ejecutarTarea(String tarea, IntSupplier accion) {
+        long inicio = System.nanoTime();
+        Map<String, Object> ejecucion = new LinkedHashMap<>();
+        ejecucion.put("fecha", LocalDateTime.now().toString());
+        try {
+            int procesados = accion.getAsInt();
+            ejecucion.put("procesados", procesados);
+            if (procesados > 0) {
+                log.info("Barrido de contratos '{}': {} contratos procesados", tarea, procesados);
+            }
+        } catch (RuntimeException e) {
+            ejecucion.put("error", e.getMessage());
+            log.error("Error en el barrido de contratos '{}': {}", tarea, e.getMessage());
+        }
+        ejecucion.put("ms", (System.nanoTime() - inicio) / 1_000_000L);
+        ejecuciones.put(tarea, ejecucion);
+    }
+
+    // Finaliza por lotes de contratos.barrido.lote, cada lote en su propia transacción.
+    // Solo se avisa de los contratos que este barrido finalizó: los que otra petición cambió
+    // entre la consulta y el UPDATE ya no están activos y se omiten
+    private static int finalizarVencidos(LocalDate hoy) {
+        int lote = DatabaseConfig.getIntProperty("contratos.barrido.lote", 500);
+        int total = 0;
+        while (true) {
+            int[] finalizados = new int[1];
+            int leidos = enUnidadDeTrabajo(() -> {
+                List<Object[]> filas = contratoRepository.findActivosFinalizadosAntesDe(hoy, lote);
+                if (filas.isEmpty()) {
+                    return 0;
+                }
+                List<Integer> ids = new ArrayList<>(filas.size());
+                for (Object[] fila : filas) {
+                    ids.add((Integer) fila[0]);
+                }
+                Set<Integer> actualizados = new HashSet<>(contratoRepository.updateEstadoByIds(ids, "activo", "finalizado"));
+                List<Object[]> avisar = new ArrayList<>(actualizados.size());
+                for (Object[] fila : filas) {
+                    if (actualizados.contains((Integer) fila[0])) {
+                        avisar.add(fila);
+                    }
+                }
+                notificar(avisar, "contrato_finalizado", "El contrato %d finalizó el %s");
+                puntoControlRepository.save(VENCIMIENTOS, hoy);
+                finalizados[0] = avisar.size();
+                return filas.size();
+            });
+            total += finalizados[0];
+            if (leidos < lote) {
+                return total;
+            }
+        }
+    }
+
+    // Sin punto de control se avisa de todos los que ya están dentro del plazo
+    private static int avisarVencimientos(LocalDate hoy) {
+        int dias = DatabaseConfig.getIntProperty("contratos.barrido.dias-aviso", 7);
+        return enUnidadDeTrabajo(() -> {
+            LocalDate desde = primerDiaPendiente(AVISOS_VENCIMIENTO, hoy.minusDays(dias));
+            if (desde.isAfter(hoy)) {
+                return 0;
+            }
+            List<Object[]> filas = contratoRepository.findActivosConFinEntre(desde.plusDays(dias), hoy.plusDays(dias));
+            notificar(filas, "contrato_por_vencer", "El contrato %d finaliza el %s");
+            puntoControlRepository.save(AVISOS_VENCIMIENTO, hoy);
+            return filas.size();
+        });
+    }
+
+    private static int avisarPagos(LocalDate hoy) {
+        int dias = DatabaseConfig.getIntProperty("contratos.barrido.dias-pago", 3);
+        return enUnidadDeTrabajo(() -> {
+            LocalDate desde = primerDiaPendiente(AVISOS_PAGO, hoy.minusDays(dias));
+            if (desde.isAfter(hoy)) {
+                return 0;
+            }
+            List<Object[]> filas = contratoRepository.findActivosConPagoEntre(desde.plusDays(dias), hoy.plusDays(dias));
+            notificar(filas, "pago_proximo", "El pago del contrato %d vence el %s");
+            puntoControlRepository.save(AVISOS_PAGO, hoy);
+            return filas.size();
+        });
+    }
+
+    // Sin punto de control solo se revisa la fecha de pago de ayer, para no avisar del historial completo
+    private static int avisarPagosVencidos(LocalDate hoy) {
+        int dias = DatabaseConfig.getIntProperty("contratos.barrido.dias-pago", 3);
+        return enUnidadDeTrabajo(() -> {
+            LocalDate desde = primerDiaPendiente(PAGOS_VENCIDOS, hoy);
+            if (desde.isAfter(hoy)) {
+                return 0;
+            }
+            List<Object[]> candidatos = contratoRepository.findActivosConPagoEntre(desde.minusDays(1), hoy.minusDays(1));
+            List<Object[]> filas = new ArrayList<>();
+            if (!candidatos.isEmpty()) {
+                List<Integer> ids = new ArrayList<>(candidatos.size());
+                for (Object[] fila : candidatos) {
+                    ids.add((Integer) fila[0]);
+                }
+                Map<Integer, LocalDate> ultimosPagos = new HashMap<>();
+                for (Object[] fila : pagoRepository.findUltimaFechaPagoByContratos(ids, "completado")) {
+                    ultimosPagos.put((Integer) fila[0], (LocalDate) fila[1]);
+                }
+                for (Object[] fila : candidatos) {
+                    LocalDate ultimoPago = ultimosPagos.get((Integer) fila[0]);
+                    LocalDate fechaPago = (LocalDate) fila[2];
+                    if (ultimoPago == null || ultimoPago.isBefore(fechaPago.minusDays(dias))) {
+                        filas.add(fila);
+                    }
+                }
+            }
+            notificar(filas, "pago_vencido", "El pago del contrato %d venció el %s sin registrarse");
+            puntoControlRepository.save(PAGOS_VENCIDOS, hoy);
+            return filas.size();
+        });
+    }
+
+    // Día siguiente al último procesado por la tarea, o primerDia si nunca se ejecutó
+    private static LocalDate primerDiaPendiente(String tarea, LocalDate primerDia) {
+        return puntoControlRepository.findUltimaFecha(tarea)
+                .map(fecha -> fecha.plusDays(1))
+                .orElse(primerDia);
+    }
+
+    // Filas (idContrato, idInquilino, fecha): una notificación por contrato, insertadas por lotes
+    private static void notificar(List<Object[]> filas, String tipo, String formato) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        List<Notificacion> notificaciones = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            Usuario inquilino = new Usuario();
+            inquilino.setIdUsuario((Integer) fila[1]);
+            LocalDate fecha = (LocalDate) fila[2];
+            notificaciones.add(new Notificacion(inquilino, (Integer) fila[0], Date.valueOf(fecha), tipo,
+                    String.format(formato, (Integer) fila[0], fecha)));
+        }
+        notificacionService.crearNotificaciones(notificaciones);
+    }
+
+    // Fuera de las peticiones HTTP la unidad de trabajo se abre aquí: los repositorios comparten
+    // transacción y las acciones posteriores (contador, canal push) se ejecutan tras el commit
+    private static int enUnidadDeTrabajo(Supplier<Integer> accion) {
+        UnitOfWork.begin();
+        boolean exito = false;
+        try {
+            int resultado = accion.get();
+            exito = true;
+            return resultado;
+        } finally {
+            UnitOfWork.end(exito);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+// AccesoDenegadoException.java
+package com.poleth.api.util;
+
+// Se lanza cuando el usuario autenticado no puede realizar la operación (p. ej. cambiar su propio rol);
+// los controladores la traducen a 403 Forbidden
+public class AccesoDenegadoException extends RuntimeException {
+
+    public AccesoDenegadoException(String message) {
+        super(message);
+    }
+}
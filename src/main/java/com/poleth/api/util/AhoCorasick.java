@@ -0,0 +1,102 @@
+// AhoCorasick.java
+package com.poleth.api.util;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+// Autómata Aho-Corasick: busca todas las palabras clave en una sola pasada sobre el texto,
+// sin importar cuántas haya. El texto y las palabras se comparan en minúsculas y sin acentos.
+// Cada palabra debe empezar al inicio de una palabra del texto ("urgente" encuentra "urgentes"
+// pero no "insurgente"); cada palabra tiene un peso y se devuelve el mayor encontrado.
+public final class AhoCorasick {
+
+    private final List<Map<Character, Integer>> siguientes = new ArrayList<>();
+    private final List<Integer> fallos = new ArrayList<>();
+    // Por estado: [longitud, peso] de cada palabra que termina en él (incluidas las de sus fallos)
+    private final List<List<int[]>> salidas = new ArrayList<>();
+
+    public AhoCorasick(Map<String, Integer> pesos) {
+        nuevoEstado();
+        for (Map.Entry<String, Integer> entrada : pesos.entrySet()) {
+            String palabra = normalizar(entrada.getKey());
+            if (palabra.isBlank()) {
+                continue;
+            }
+            int estado = 0;
+            for (int i = 0; i < palabra.length(); i++) {
+                Integer destino = siguientes.get(estado).get(palabra.charAt(i));
+                if (destino == null) {
+                    destino = nuevoEstado();
+                    siguientes.get(estado).put(palabra.charAt(i), destino);
+                }
+                estado = destino;
+            }
+            salidas.get(estado).add(new int[]{palabra.length(), entrada.getValue()});
+        }
+        construirFallos();
+    }
+
+    // Método para obtener el mayor peso de las palabras presentes en el texto (0 si no hay ninguna)
+    public int mayorPeso(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return 0;
+        }
+        String normalizado = normalizar(texto);
+        int mayor = 0;
+        int estado = 0;
+        for (int i = 0; i < normalizado.length(); i++) {
+            char c = normalizado.charAt(i);
+            while (estado != 0 && !siguientes.get(estado).containsKey(c)) {
+                estado = fallos.get(estado);
+            }
+            estado = siguientes.get(estado).getOrDefault(c, 0);
+            for (int[] salida : salidas.get(estado)) {
+                int inicio = i - salida[0] + 1;
+                if (salida[1] > mayor && (inicio == 0 || !Character.isLetterOrDigit(normalizado.charAt(inicio - 1)))) {
+                    mayor = salida[1];
+                }
+            }
+        }
+        return mayor;
+    }
+
+    // Minúsculas y sin marcas diacríticas ("Emergéncia" -> "emergencia"); conserva la longitud de cada letra
+    public static String normalizar(String texto) {
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return descompuesto.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+
+    private int nuevoEstado() {
+        siguientes.add(new HashMap<>());
+        fallos.add(0);
+        salidas.add(new ArrayList<>());
+        return siguientes.size() - 1;
+    }
+
+    // Recorrido en anchura: el fallo de cada estado es el sufijo propio más largo que también es prefijo
+    private void construirFallos() {
+        Queue<Integer> pendientes = new ArrayDeque<>(siguientes.get(0).values());
+        while (!pendientes.isEmpty()) {
+            int estado = pendientes.poll();
+            for (Map.Entry<Character, Integer> transicion : siguientes.get(estado).entrySet()) {
+                char c = transicion.getKey();
+                int hijo = transicion.getValue();
+                int fallo = fallos.get(estado);
+                while (fallo != 0 && !siguientes.get(fallo).containsKey(c)) {
+                    fallo = fallos.get(fallo);
+                }
+                Integer destino = siguientes.get(fallo).get(c);
+                int falloHijo = destino != null && destino != hijo ? destino : 0;
+                fallos.set(hijo, falloHijo);
+                salidas.get(hijo).addAll(salidas.get(falloHijo));
+                pendientes.add(hijo);
+            }
+        }
+    }
+}
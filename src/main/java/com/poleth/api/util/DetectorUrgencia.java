@@ -0,0 +1,61 @@
+// DetectorUrgencia.java
+package com.poleth.api.util;
+
+import com.poleth.api.config.DatabaseConfig;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Prioridad de un reporte según las palabras clave de su descripción.
+// Las palabras y sus pesos se configuran en reportes.urgencia.palabras ("palabra:peso,...");
+// la prioridad es el mayor peso encontrado y 0 significa que el reporte no es urgente.
+public class DetectorUrgencia {
+
+    public static final int SIN_URGENCIA = 0;
+
+    private static final String PALABRAS_POR_DEFECTO = "emergencia:3,urgente:2,inmediato:2";
+
+    private static volatile AhoCorasick automata;
+
+    // Método para calcular la prioridad de una descripción
+    public static int prioridad(String descripcion) {
+        return getAutomata().mayorPeso(descripcion);
+    }
+
+    public static boolean esUrgente(Integer prioridad) {
+        return prioridad != null && prioridad > SIN_URGENCIA;
+    }
+
+    private static AhoCorasick getAutomata() {
+        AhoCorasick actual = automata;
+        if (actual == null) {
+            synchronized (DetectorUrgencia.class) {
+                if (automata == null) {
+                    automata = new AhoCorasick(parsePalabras(
+                            DatabaseConfig.getProperty("reportes.urgencia.palabras", PALABRAS_POR_DEFECTO)));
+                }
+                actual = automata;
+            }
+        }
+        return actual;
+    }
+
+    private static Map<String, Integer> parsePalabras(String valor) {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        for (String entrada : valor.split(",")) {
+            if (entrada.isBlank()) {
+                continue;
+            }
+            String[] partes = entrada.split(":");
+            try {
+                int peso = partes.length > 1 ? Integer.parseInt(partes[1].trim()) : 1;
+                if (peso <= SIN_URGENCIA) {
+                    throw new NumberFormatException();
+                }
+                pesos.merge(partes[0].trim(), peso, Math::max);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Peso inválido en reportes.urgencia.palabras: " + entrada);
+            }
+        }
+        return pesos;
+    }
+}
@@ -1,17 +1,61 @@
 //JWTUtil.java
 package com.poleth.api.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.poleth.api.config.DatabaseConfig;
 import com.poleth.api.model.Usuario;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 
 public class JWTUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(JWTUtil.class);
+
     private static final String SECRET_KEY = "miClaveSecretaMuySeguraParaJWT2024PolethAPIQueDebeSerMuyLargaParaSeguridad";
     private static final Key KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
     private static final long EXPIRATION_TIME = 86400000; // 24 horas en milisegundos
 
+    // El parser es inmutable y seguro entre hilos: se construye una sola vez
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(KEY)
+            .build();
+
+    // Tokens ya verificados, indexados por el SHA-256 del token; cada entrada expira
+    // cuando expira el propio token, así nunca se acepta un token vencido desde la caché
+    private static final Cache<ByteBuffer, TokenPrincipal> VERIFICADOS = Caffeine.newBuilder()
+            .maximumSize(DatabaseConfig.getLongProperty("jwt.cache.max-size", 10_000))
+            .expireAfter(new Expiry<ByteBuffer, TokenPrincipal>() {
+                @Override
+                public long expireAfterCreate(ByteBuffer key, TokenPrincipal principal, long currentTime) {
+                    long restanteMs = principal.getExpiracion().toEpochMilli() - System.currentTimeMillis();
+                    return Math.max(0, restanteMs) * 1_000_000L;
+                }
+
+                @Override
+                public long expireAfterUpdate(ByteBuffer key, TokenPrincipal principal,
+                                              long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(ByteBuffer key, TokenPrincipal principal,
+                                            long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
     public static String generarToken(Usuario usuario) {
         Date ahora = new Date();
         Date expiracion = new Date(ahora.getTime() + EXPIRATION_TIME);
@@ -27,66 +71,79 @@ public class JWTUtil {
                 .signWith(KEY, SignatureAlgorithm.HS256);
 
         String token = builder.compact();
-        System.out.println("🔐 Token generado para usuario: " + usuario.getUsername());
+        log.debug("Token generado para usuario: {}", usuario.getUsername());
+        return token;
+    }
 
-        // Debug: mostrar el contenido del token
-        try {
-            Claims claims = parseToken(token);
-            System.out.println("📋 Contenido del JWT:");
-            System.out.println("   - Usuario: " + claims.getSubject());
-            System.out.println("   - ID Usuario: " + claims.get("id"));
-            System.out.println("   - Rol: " + claims.get("rol"));
-            System.out.println("   - Email: " + claims.get("email"));
-        } catch (Exception e) {
-            System.err.println("❌ Error al parsear token para debug: " + e.getMessage());
+    // Método para verificar un token una sola vez y obtener todos sus datos.
+    // Lanza JwtException si el token no es válido o está vencido.
+    public static TokenPrincipal verificarToken(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new MalformedJwtException("Token vacío");
         }
-
-        return token;
+        ByteBuffer clave = hashToken(token);
+        TokenPrincipal principal = VERIFICADOS.getIfPresent(clave);
+        if (principal == null) {
+            principal = toPrincipal(parseToken(token));
+            VERIFICADOS.put(clave, principal);
+        }
+        return principal;
     }
 
     public static boolean validarToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(KEY)
-                    .build()
-                    .parseClaimsJws(token);
+            verificarToken(token);
             return true;
-        } catch (JwtException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
     public static String obtenerUsuarioDesdeToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.getSubject();
+        return verificarToken(token).getUsername();
     }
 
     public static Integer obtenerIdDesdeToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.get("id", Integer.class);
+        return verificarToken(token).getIdUsuario();
     }
 
     public static String obtenerRolDesdeToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.get("rol", String.class);
+        return verificarToken(token).getRol();
     }
 
     public static Integer obtenerRolIdDesdeToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.get("rolId", Integer.class);
+        return verificarToken(token).getRolId();
     }
 
     public static String obtenerEmailDesdeToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.get("email", String.class);
+        return verificarToken(token).getEmail();
     }
 
     // Método auxiliar para parsear el token
     private static Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return PARSER.parseClaimsJws(token).getBody();
+    }
+
+    private static TokenPrincipal toPrincipal(Claims claims) {
+        Date expiracion = claims.getExpiration();
+        if (expiracion == null) {
+            throw new MalformedJwtException("El token no tiene fecha de expiración");
+        }
+        return new TokenPrincipal(
+                claims.get("id", Integer.class),
+                claims.getSubject(),
+                claims.get("rol", String.class),
+                claims.get("rolId", Integer.class),
+                claims.get("email", String.class),
+                Instant.ofEpochMilli(expiracion.getTime()));
+    }
+
+    private static ByteBuffer hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+// JsonStreamUtil.java
+package com.poleth.api.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.poleth.api.config.JsonConfig;
+import io.javalin.http.ContentType;
+import io.javalin.http.Context;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+public class JsonStreamUtil {
+
+    // Método para escribir un array JSON fila a fila directamente en la respuesta.
+    // "origen" recibe un consumidor y le entrega cada fila; la memoria usada no depende
+    // del número de filas porque ninguna lista completa llega a construirse.
+    public static <T> void escribirArray(Context ctx, Class<T> tipo, Consumer<Consumer<T>> origen) throws IOException {
+        ObjectWriter writer = JsonConfig.writerFor(tipo).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        ctx.contentType(ContentType.APPLICATION_JSON);
+        JsonGenerator generator = JsonConfig.getMapper().getFactory().createGenerator(ctx.outputStream());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try {
+            generator.writeStartArray();
+            origen.accept(fila -> {
+                try {
+                    writer.writeValue(generator, fila);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.close();
+        } catch (RuntimeException e) {
+            // Si todavía no se envió nada, se descarta lo escrito para que el controlador
+            // pueda responder con un error normal; si no, el cliente recibe un JSON truncado
+            if (!ctx.res().isCommitted()) {
+                ctx.res().resetBuffer();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+//LatencyHistogram.java
+package com.poleth.api.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latencias con cubetas fijas (en microsegundos), seguro para múltiples hilos
+public class LatencyHistogram {
+    private static final long[] LIMITES_MICROS = {
+            50, 100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000
+    };
+
+    private final LongAdder[] cubetas = new LongAdder[LIMITES_MICROS.length + 1];
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumaMicros = new LongAdder();
+    private final LongAccumulator maximoMicros = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < cubetas.length; i++) {
+            cubetas[i] = new LongAdder();
+        }
+    }
+
+    // Método para registrar una medición en nanosegundos
+    public void registrarNanos(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0));
+        int indice = 0;
+        while (indice < LIMITES_MICROS.length && micros > LIMITES_MICROS[indice]) {
+            indice++;
+        }
+        cubetas[indice].increment();
+        total.increment();
+        sumaMicros.add(micros);
+        maximoMicros.accumulate(micros);
+    }
+
+    // Método para registrar el tiempo transcurrido desde un instante System.nanoTime()
+    public void registrarDesde(long inicioNanos) {
+        registrarNanos(System.nanoTime() - inicioNanos);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    // Método para obtener una copia legible del histograma (para exponer como JSON)
+    public Map<String, Object> snapshot() {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        long cantidad = total.sum();
+        resultado.put("total", cantidad);
+        resultado.put("promedioMicros", cantidad > 0 ? sumaMicros.sum() / cantidad : 0);
+        resultado.put("maximoMicros", maximoMicros.get());
+
+        Map<String, Long> distribucion = new LinkedHashMap<>();
+        for (int i = 0; i < LIMITES_MICROS.length; i++) {
+            distribucion.put("<=" + LIMITES_MICROS[i] + "us", cubetas[i].sum());
+        }
+        distribucion.put(">" + LIMITES_MICROS[LIMITES_MICROS.length - 1] + "us",
+                cubetas[LIMITES_MICROS.length].sum());
+        resultado.put("distribucion", distribucion);
+        return resultado;
+    }
+}
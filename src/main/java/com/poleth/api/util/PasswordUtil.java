@@ -1,26 +1,60 @@
 //PasswordUtil.java
 package com.poleth.api.util;
 
+import com.poleth.api.config.DatabaseConfig;
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// BCrypt se ejecuta en un pool propio y acotado: una ráfaga de logins ocupa como mucho
+// "hilos + cola" hilos de Jetty; el resto se rechaza enseguida con ServicioSaturadoException
 public class PasswordUtil {
 
+    // Coste de BCrypt (variable de entorno BCRYPT_COST o -Dbcrypt.cost); 10 es el de gensalt()
+    private static final int COST = leerCoste();
+    private static final long TIMEOUT_MS = DatabaseConfig.getLongProperty("bcrypt.timeout-ms", 5000);
+
+    private static final ThreadPoolExecutor EXECUTOR = crearExecutor();
+
+    private static final LatencyHistogram latenciaHash = new LatencyHistogram();
+    private static final LatencyHistogram latenciaVerificacion = new LatencyHistogram();
+    private static final LatencyHistogram esperaEnCola = new LatencyHistogram();
+    // rechazadas: cola llena al encolar; descartadas: plazo vencido antes de empezar (no se calcularon);
+    // tiempoAgotado: plazo vencido mientras BCrypt ya se ejecutaba
+    private static final LongAdder rechazadas = new LongAdder();
+    private static final LongAdder descartadas = new LongAdder();
+    private static final LongAdder tiempoAgotado = new LongAdder();
+    private static final LongAdder rehashes = new LongAdder();
+
     public static String hashPassword(String plainPassword) {
         if (plainPassword == null || plainPassword.trim().isEmpty()) {
             throw new IllegalArgumentException("La contraseña no puede estar vacía");
         }
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt());
+        return ejecutar(() -> BCrypt.hashpw(plainPassword, BCrypt.gensalt(COST)), latenciaHash);
     }
 
     public static boolean checkPassword(String plainPassword, String hashedPassword) {
         if (plainPassword == null || hashedPassword == null) {
             return false;
         }
-        try {
-            return BCrypt.checkpw(plainPassword, hashedPassword);
-        } catch (Exception e) {
-            return false;
-        }
+        return ejecutar(() -> {
+            try {
+                return BCrypt.checkpw(plainPassword, hashedPassword);
+            } catch (Exception e) {
+                return false;
+            }
+        }, latenciaVerificacion);
     }
 
     public static boolean isValidHash(String hashedPassword) {
@@ -31,4 +65,119 @@ public class PasswordUtil {
                 hashedPassword.startsWith("$2b$") ||
                 hashedPassword.startsWith("$2y$");
     }
-}
\ No newline at end of file
+
+    // Método para saber si un hash se generó con un coste distinto del configurado
+    public static boolean necesitaRehash(String hashedPassword) {
+        if (!isValidHash(hashedPassword) || hashedPassword.length() < 7) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(4, 6)) != COST;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public static void registrarRehash() {
+        rehashes.increment();
+    }
+
+    public static int getCost() {
+        return COST;
+    }
+
+    // Método para obtener el estado del pool de BCrypt y sus latencias
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("coste", COST);
+        metrics.put("hilos", EXECUTOR.getMaximumPoolSize());
+        metrics.put("activos", EXECUTOR.getActiveCount());
+        metrics.put("enCola", EXECUTOR.getQueue().size());
+        metrics.put("capacidadCola", EXECUTOR.getQueue().size() + EXECUTOR.getQueue().remainingCapacity());
+        metrics.put("completadas", EXECUTOR.getCompletedTaskCount());
+        metrics.put("rechazadas", rechazadas.sum());
+        metrics.put("descartadas", descartadas.sum());
+        metrics.put("tiempoAgotado", tiempoAgotado.sum());
+        metrics.put("rehashes", rehashes.sum());
+        metrics.put("esperaEnCola", esperaEnCola.snapshot());
+        metrics.put("latenciaHash", latenciaHash.snapshot());
+        metrics.put("latenciaVerificacion", latenciaVerificacion.snapshot());
+        return metrics;
+    }
+
+    // El plazo (bcrypt.timeout-ms) cuenta desde que la tarea se encola. cancel(true) no interrumpe
+    // BCrypt, así que una tarea que empieza con el plazo vencido se descarta sin calcular nada y la
+    // que sigue en cola al agotarse el plazo se retira de ella
+    private static <T> T ejecutar(Callable<T> tarea, LatencyHistogram latencia) {
+        long encolada = System.nanoTime();
+        long limite = encolada + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        Future<T> future;
+        try {
+            future = EXECUTOR.submit(() -> {
+                long inicio = System.nanoTime();
+                esperaEnCola.registrarNanos(inicio - encolada);
+                if (inicio - limite >= 0) {
+                    descartadas.increment();
+                    throw new ServicioSaturadoException("Tiempo de espera agotado al procesar la contraseña");
+                }
+                try {
+                    return tarea.call();
+                } finally {
+                    latencia.registrarDesde(inicio);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            throw new ServicioSaturadoException("Demasiadas solicitudes de autenticación, intente de nuevo", e);
+        }
+
+        try {
+            return future.get(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Si aún no empezó se retira de la cola (descartada); si ya corría, termina en segundo plano
+            if (future instanceof Runnable && EXECUTOR.remove((Runnable) future)) {
+                descartadas.increment();
+            } else {
+                tiempoAgotado.increment();
+            }
+            future.cancel(true);
+            throw new ServicioSaturadoException("Tiempo de espera agotado al procesar la contraseña", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Procesamiento de la contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new RuntimeException("Error al procesar la contraseña", causa);
+        }
+    }
+
+    private static int leerCoste() {
+        int cost = DatabaseConfig.getIntProperty("bcrypt.cost", 10);
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("bcrypt.cost debe estar entre 4 y 31: " + cost);
+        }
+        return cost;
+    }
+
+    private static ThreadPoolExecutor crearExecutor() {
+        int hilos = DatabaseConfig.getIntProperty("bcrypt.threads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        int cola = DatabaseConfig.getIntProperty("bcrypt.queue-size", hilos * 4);
+
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(cola),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+// ServicioSaturadoException.java
+package com.poleth.api.util;
+
+// Se lanza cuando un recurso limitado (p. ej. el pool de BCrypt) no admite más trabajo;
+// los controladores la traducen a 429 Too Many Requests
+public class ServicioSaturadoException extends RuntimeException {
+
+    public ServicioSaturadoException(String message) {
+        super(message);
+    }
+
+    public ServicioSaturadoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    // Método para encontrar la excepción aunque venga envuelta (p. ej. por Jackson)
+    public static ServicioSaturadoException buscarEn(Throwable error) {
+        for (Throwable actual = error; actual != null; actual = actual.getCause()) {
+            if (actual instanceof ServicioSaturadoException) {
+                return (ServicioSaturadoException) actual;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+// TokenPrincipal.java
+package com.poleth.api.util;
+
+import java.time.Instant;
+
+// Datos del usuario autenticado obtenidos de un JWT ya verificado (inmutable)
+public final class TokenPrincipal {
+    private final Integer idUsuario;
+    private final String username;
+    private final String rol;
+    private final Integer rolId;
+    private final String email;
+    private final Instant expiracion;
+
+    public TokenPrincipal(Integer idUsuario, String username, String rol, Integer rolId,
+                          String email, Instant expiracion) {
+        this.idUsuario = idUsuario;
+        this.username = username;
+        this.rol = rol;
+        this.rolId = rolId;
+        this.email = email;
+        this.expiracion = expiracion;
+    }
+
+    public Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRol() {
+        return rol;
+    }
+
+    public Integer getRolId() {
+        return rolId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Instant getExpiracion() {
+        return expiracion;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenPrincipal{" +
+                "idUsuario=" + idUsuario +
+                ", username='" + username + '\'' +
+                ", rol='" + rol + '\'' +
+                ", rolId=" + rolId +
+                ", expiracion=" + expiracion +
+                '}';
+    }
+}
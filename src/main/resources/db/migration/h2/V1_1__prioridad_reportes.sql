@@ -0,0 +1,5 @@
+-- V1_1__prioridad_reportes.sql
+-- Prioridad de los reportes (DetectorUrgencia), fuera del esquema base; va antes de V2,
+-- que la usa en idx_reportes_estado_prioridad.
+
+ALTER TABLE Reportes_Inquilinos ADD COLUMN IF NOT EXISTS prioridad INT;
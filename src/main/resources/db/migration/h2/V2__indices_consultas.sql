@@ -0,0 +1,46 @@
+-- V2__indices_consultas.sql
+-- Índices compuestos para los filtros y órdenes de los repositorios (declarados también en
+-- @Table(indexes = ...) de cada entidad).
+
+-- Pagos
+CREATE INDEX IF NOT EXISTS idx_pagos_contrato_fecha ON Pagos (id_contrato, fecha_pago);
+CREATE INDEX IF NOT EXISTS idx_pagos_inquilino_fecha ON Pagos (id_inquilino, fecha_pago);
+CREATE INDEX IF NOT EXISTS idx_pagos_estado_fecha ON Pagos (estado_pago, fecha_pago);
+CREATE INDEX IF NOT EXISTS idx_pagos_fecha ON Pagos (fecha_pago, id_pago);
+
+-- Contratos
+CREATE INDEX IF NOT EXISTS idx_contratos_estado_fin ON Contratos (estado_contrato, fecha_finalizacion);
+CREATE INDEX IF NOT EXISTS idx_contratos_cuarto_estado ON Contratos (id_cuarto, estado_contrato);
+CREATE INDEX IF NOT EXISTS idx_contratos_inquilino_estado ON Contratos (id_inquilino, estado_contrato);
+CREATE INDEX IF NOT EXISTS idx_contratos_created ON Contratos (created_at);
+
+-- notificaciones
+CREATE INDEX IF NOT EXISTS idx_notificaciones_inquilino_estado ON notificaciones (id_inquilino, estado_notificacion, created_at);
+CREATE INDEX IF NOT EXISTS idx_notificaciones_contrato ON notificaciones (id_contrato, created_at);
+CREATE INDEX IF NOT EXISTS idx_notificaciones_created ON notificaciones (created_at);
+
+-- Historial_Reportes
+CREATE INDEX IF NOT EXISTS idx_historial_reporte_fecha ON Historial_Reportes (id_reporte, fecha_registro);
+CREATE INDEX IF NOT EXISTS idx_historial_fecha ON Historial_Reportes (fecha_registro, id_historial);
+
+-- Reportes_Inquilinos
+CREATE INDEX IF NOT EXISTS idx_reportes_estado_prioridad ON Reportes_Inquilinos (estado_reporte, prioridad, fecha);
+CREATE INDEX IF NOT EXISTS idx_reportes_inquilino_fecha ON Reportes_Inquilinos (id_inquilino, fecha);
+CREATE INDEX IF NOT EXISTS idx_reportes_cuarto_fecha ON Reportes_Inquilinos (id_cuarto, fecha);
+CREATE INDEX IF NOT EXISTS idx_reportes_fecha ON Reportes_Inquilinos (fecha, id_reporte);
+
+-- Mantenimientos
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_cuarto_fecha ON Mantenimientos (id_cuarto, fecha_reporte);
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_estado_fecha ON Mantenimientos (estado_mantenimiento, fecha_reporte);
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_fecha ON Mantenimientos (fecha_reporte, id_mantenimiento);
+
+-- Cuartos
+CREATE INDEX IF NOT EXISTS idx_cuartos_propietario ON Cuartos (id_propietario, created_at);
+CREATE INDEX IF NOT EXISTS idx_cuartos_estado ON Cuartos (estado_cuarto, created_at);
+
+-- Cuarto_Mueble
+CREATE INDEX IF NOT EXISTS idx_cuarto_mueble_cuarto ON Cuarto_Mueble (id_cuarto, id_catalogo_mueble);
+CREATE INDEX IF NOT EXISTS idx_cuarto_mueble_catalogo ON Cuarto_Mueble (id_catalogo_mueble);
+
+-- Catalogo_Muebles
+CREATE INDEX IF NOT EXISTS idx_catalogo_muebles_nombre ON Catalogo_Muebles (nombre_mueble);
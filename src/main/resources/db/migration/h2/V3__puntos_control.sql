@@ -0,0 +1,14 @@
+-- V3__puntos_control.sql
+-- Puntos de control de las tareas programadas (BarridoContratos): última fecha procesada por
+-- cada tarea, para que al reiniciar solo se revisen los contratos cuyas fechas cruzaron un límite
+-- desde entonces.
+
+CREATE TABLE puntos_control (
+    tarea VARCHAR(50) NOT NULL,
+    ultima_fecha DATE NOT NULL,
+    actualizado_en TIMESTAMP(6),
+    PRIMARY KEY (tarea)
+);
+
+-- Contratos activos por fecha de pago (avisos de pago y pagos vencidos)
+CREATE INDEX IF NOT EXISTS idx_contratos_estado_pago ON Contratos (estado_contrato, fecha_pago_establecida);
@@ -0,0 +1,11 @@
+-- V1_1__prioridad_reportes.sql
+-- Prioridad de los reportes (DetectorUrgencia). No forma parte del esquema base: las bases
+-- registradas en la versión 1 pueden tenerla (hbm2ddl update) o no, así que se agrega solo si
+-- falta. Va antes de V2, que la usa en idx_reportes_estado_prioridad.
+
+SET @sql = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE Reportes_Inquilinos ADD COLUMN prioridad INT', 'DO 0')
+           FROM information_schema.columns
+           WHERE table_schema = DATABASE() AND table_name = 'Reportes_Inquilinos' AND column_name = 'prioridad');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,135 @@
+-- V1__esquema_inicial.sql
+-- Esquema base de las 11 entidades (el que generaba hibernate.hbm2ddl.auto=update).
+-- Las bases creadas antes de las migraciones se registran en la versión 1 sin ejecutar este
+-- script (db.migrations.baseline-on-migrate) y continúan desde V1_1. Debe quedar igual que ese
+-- esquema base: lo que se agregue después va en un script versionado posterior.
+
+CREATE TABLE roles (
+    id_roles INT NOT NULL AUTO_INCREMENT,
+    titulo VARCHAR(50) NOT NULL,
+    PRIMARY KEY (id_roles)
+) ENGINE=InnoDB;
+
+CREATE TABLE usuarios (
+    id_usuario INT NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6),
+    email VARCHAR(100) NOT NULL,
+    estado_usuario VARCHAR(20),
+    password VARCHAR(255) NOT NULL,
+    telefono VARCHAR(20),
+    username VARCHAR(50) NOT NULL,
+    rol_id INT NOT NULL,
+    PRIMARY KEY (id_usuario)
+) ENGINE=InnoDB;
+
+CREATE TABLE Cuartos (
+    id_cuarto INT NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6) NOT NULL,
+    descripcion_cuarto TEXT,
+    estado_cuarto VARCHAR(50),
+    id_propietario INT NOT NULL,
+    nombre_cuarto VARCHAR(100) NOT NULL,
+    precio_alquiler DECIMAL(10,2),
+    PRIMARY KEY (id_cuarto)
+) ENGINE=InnoDB;
+
+CREATE TABLE Contratos (
+    id_contrato INT NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6) NOT NULL,
+    estado_contrato VARCHAR(50),
+    fecha_finalizacion DATE,
+    fecha_inicio DATE NOT NULL,
+    fecha_pago_establecida DATE,
+    id_cuarto INT NOT NULL,
+    id_inquilino INT NOT NULL,
+    monto_renta_acordada DECIMAL(10,2),
+    PRIMARY KEY (id_contrato)
+) ENGINE=InnoDB;
+
+CREATE TABLE Pagos (
+    id_pago INT NOT NULL AUTO_INCREMENT,
+    concepto VARCHAR(100),
+    estado_pago VARCHAR(20),
+    fecha_pago DATE NOT NULL,
+    id_contrato INT NOT NULL,
+    id_inquilino INT NOT NULL,
+    metodo_pago VARCHAR(50),
+    monto_pagado DECIMAL(10,2),
+    PRIMARY KEY (id_pago)
+) ENGINE=InnoDB;
+
+CREATE TABLE notificaciones (
+    id_notificacion INT NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6),
+    detalles TEXT,
+    estado_notificacion VARCHAR(20),
+    fecha_utilizacion DATE,
+    id_contrato INT NOT NULL,
+    tipo_notificacion VARCHAR(50),
+    id_inquilino INT NOT NULL,
+    PRIMARY KEY (id_notificacion)
+) ENGINE=InnoDB;
+
+CREATE TABLE Reportes_Inquilinos (
+    id_reporte INT NOT NULL AUTO_INCREMENT,
+    acciones_tomadas TEXT,
+    descripcion TEXT,
+    estado_reporte VARCHAR(50),
+    fecha DATE,
+    fecha_cierre DATE,
+    id_cuarto INT NOT NULL,
+    id_inquilino INT NOT NULL,
+    nombre VARCHAR(100),
+    tipo VARCHAR(50),
+    PRIMARY KEY (id_reporte)
+) ENGINE=InnoDB;
+
+CREATE TABLE Historial_Reportes (
+    id_historial INT NOT NULL AUTO_INCREMENT,
+    descripcion_hist TEXT,
+    fecha_registro DATETIME(6),
+    id_reporte INT NOT NULL,
+    nombre_reporte_hist VARCHAR(100),
+    tipo_reporte_hist VARCHAR(50),
+    usuario_registro VARCHAR(50),
+    PRIMARY KEY (id_historial)
+) ENGINE=InnoDB;
+
+CREATE TABLE Mantenimientos (
+    id_mantenimiento INT NOT NULL AUTO_INCREMENT,
+    costo_mantenimiento DECIMAL(10,2),
+    descripcion_problema TEXT,
+    estado_mantenimiento VARCHAR(50),
+    fecha_atencion DATE,
+    fecha_reporte DATE NOT NULL,
+    id_cuarto INT NOT NULL,
+    PRIMARY KEY (id_mantenimiento)
+) ENGINE=InnoDB;
+
+CREATE TABLE Catalogo_Muebles (
+    id_catalogo_mueble INT NOT NULL AUTO_INCREMENT,
+    descripcion TEXT,
+    estado_mueble VARCHAR(20),
+    nombre_mueble VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id_catalogo_mueble)
+) ENGINE=InnoDB;
+
+CREATE TABLE Cuarto_Mueble (
+    id_cuarto_mueble INT NOT NULL AUTO_INCREMENT,
+    cantidad INT,
+    estado VARCHAR(50),
+    id_catalogo_mueble INT NOT NULL,
+    id_cuarto INT NOT NULL,
+    PRIMARY KEY (id_cuarto_mueble)
+) ENGINE=InnoDB;
+
+-- Restricciones
+ALTER TABLE usuarios ADD CONSTRAINT uk_usuarios_email UNIQUE (email);
+ALTER TABLE usuarios ADD CONSTRAINT uk_usuarios_username UNIQUE (username);
+ALTER TABLE usuarios ADD CONSTRAINT fk_usuarios_rol FOREIGN KEY (rol_id) REFERENCES roles (id_roles);
+ALTER TABLE Cuartos ADD CONSTRAINT fk_cuartos_propietario FOREIGN KEY (id_propietario) REFERENCES usuarios (id_usuario);
+ALTER TABLE Contratos ADD CONSTRAINT fk_contratos_cuarto FOREIGN KEY (id_cuarto) REFERENCES Cuartos (id_cuarto);
+ALTER TABLE Contratos ADD CONSTRAINT fk_contratos_inquilino FOREIGN KEY (id_inquilino) REFERENCES usuarios (id_usuario);
+ALTER TABLE Pagos ADD CONSTRAINT fk_pagos_contrato FOREIGN KEY (id_contrato) REFERENCES Contratos (id_contrato);
+ALTER TABLE Pagos ADD CONSTRAINT fk_pagos_inquilino FOREIGN KEY (id_inquilino) REFERENCES usuarios (id_usuario);
+ALTER TABLE notificaciones ADD CONSTRAINT fk_notificaciones_inquilino FOREIGN KEY (id_inquilino) REFERENCES usuarios (id_usuario);
@@ -0,0 +1,174 @@
+-- V2__indices_consultas.sql
+-- Índices compuestos para los filtros y órdenes de los repositorios (declarados también en
+-- @Table(indexes = ...) de cada entidad).
+--
+-- MySQL no admite CREATE INDEX IF NOT EXISTS: cada índice se crea solo si falta, para que el
+-- script pueda aplicarse sobre bases en las que Hibernate ya los haya creado.
+
+-- Pagos
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_pagos_contrato_fecha ON Pagos (id_contrato, fecha_pago)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Pagos' AND index_name = 'idx_pagos_contrato_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_pagos_inquilino_fecha ON Pagos (id_inquilino, fecha_pago)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Pagos' AND index_name = 'idx_pagos_inquilino_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_pagos_estado_fecha ON Pagos (estado_pago, fecha_pago)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Pagos' AND index_name = 'idx_pagos_estado_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_pagos_fecha ON Pagos (fecha_pago, id_pago)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Pagos' AND index_name = 'idx_pagos_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Contratos
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_contratos_estado_fin ON Contratos (estado_contrato, fecha_finalizacion)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Contratos' AND index_name = 'idx_contratos_estado_fin');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_contratos_cuarto_estado ON Contratos (id_cuarto, estado_contrato)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Contratos' AND index_name = 'idx_contratos_cuarto_estado');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_contratos_inquilino_estado ON Contratos (id_inquilino, estado_contrato)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Contratos' AND index_name = 'idx_contratos_inquilino_estado');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_contratos_created ON Contratos (created_at)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Contratos' AND index_name = 'idx_contratos_created');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- notificaciones
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_notificaciones_inquilino_estado ON notificaciones (id_inquilino, estado_notificacion, created_at)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'notificaciones' AND index_name = 'idx_notificaciones_inquilino_estado');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_notificaciones_contrato ON notificaciones (id_contrato, created_at)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'notificaciones' AND index_name = 'idx_notificaciones_contrato');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_notificaciones_created ON notificaciones (created_at)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'notificaciones' AND index_name = 'idx_notificaciones_created');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Historial_Reportes
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_historial_reporte_fecha ON Historial_Reportes (id_reporte, fecha_registro)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Historial_Reportes' AND index_name = 'idx_historial_reporte_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_historial_fecha ON Historial_Reportes (fecha_registro, id_historial)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Historial_Reportes' AND index_name = 'idx_historial_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Reportes_Inquilinos
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_reportes_estado_prioridad ON Reportes_Inquilinos (estado_reporte, prioridad, fecha)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Reportes_Inquilinos' AND index_name = 'idx_reportes_estado_prioridad');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_reportes_inquilino_fecha ON Reportes_Inquilinos (id_inquilino, fecha)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Reportes_Inquilinos' AND index_name = 'idx_reportes_inquilino_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_reportes_cuarto_fecha ON Reportes_Inquilinos (id_cuarto, fecha)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Reportes_Inquilinos' AND index_name = 'idx_reportes_cuarto_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_reportes_fecha ON Reportes_Inquilinos (fecha, id_reporte)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Reportes_Inquilinos' AND index_name = 'idx_reportes_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Mantenimientos
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_mantenimientos_cuarto_fecha ON Mantenimientos (id_cuarto, fecha_reporte)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Mantenimientos' AND index_name = 'idx_mantenimientos_cuarto_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_mantenimientos_estado_fecha ON Mantenimientos (estado_mantenimiento, fecha_reporte)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Mantenimientos' AND index_name = 'idx_mantenimientos_estado_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_mantenimientos_fecha ON Mantenimientos (fecha_reporte, id_mantenimiento)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Mantenimientos' AND index_name = 'idx_mantenimientos_fecha');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Cuartos
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_cuartos_propietario ON Cuartos (id_propietario, created_at)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Cuartos' AND index_name = 'idx_cuartos_propietario');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_cuartos_estado ON Cuartos (estado_cuarto, created_at)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Cuartos' AND index_name = 'idx_cuartos_estado');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Cuarto_Mueble
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_cuarto_mueble_cuarto ON Cuarto_Mueble (id_cuarto, id_catalogo_mueble)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Cuarto_Mueble' AND index_name = 'idx_cuarto_mueble_cuarto');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_cuarto_mueble_catalogo ON Cuarto_Mueble (id_catalogo_mueble)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Cuarto_Mueble' AND index_name = 'idx_cuarto_mueble_catalogo');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Catalogo_Muebles
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_catalogo_muebles_nombre ON Catalogo_Muebles (nombre_mueble)', 'DO 0')
+           FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'Catalogo_Muebles' AND index_name = 'idx_catalogo_muebles_nombre');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,155 @@
+// ContadorNoLeidasTest.java
+package com.poleth.api.estadisticas;
+
+import static org.junit.Assert.assertEquals;
+
+import com.poleth.api.config.UnitOfWork;
+import com.poleth.api.model.Notificacion;
+import com.poleth.api.model.Usuario;
+import org.junit.After;
+import org.junit.Test;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// El contador es estático: cada prueba usa sus propios inquilinos y una fuente simulada
+// en la que las notificaciones confirmadas se ven en cuanto se registra el cambio
+public class ContadorNoLeidasTest {
+
+    private final Map<Integer, Long> baseDeDatos = new HashMap<>();
+
+    @After
+    public void cerrarUnidadDeTrabajo() {
+        UnitOfWork.end(false);
+    }
+
+    @Test
+    public void unCambioDuranteLaReconciliacionNoSeCuentaDosVeces() {
+        baseDeDatos.put(101, 2L);
+        usar(new FuenteSimulada());
+        assertEquals(2, ContadorNoLeidas.get(101));
+
+        // La nueva notificación se confirma mientras corre la consulta agrupada:
+        // el resultado ya la incluye y además llega su delta
+        AtomicInteger consultas = new AtomicInteger();
+        usar(new FuenteSimulada() {
+            @Override
+            public Map<Integer, Long> contarAgrupado(Collection<Integer> ids) {
+                if (consultas.getAndIncrement() == 0) {
+                    nuevaNoLeida(101);
+                }
+                return super.contarAgrupado(ids);
+            }
+        });
+        ContadorNoLeidas.reconciliar();
+
+        assertEquals(3, ContadorNoLeidas.get(101));
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    public void laReconciliacionCorrigeUnValorDesviado() {
+        baseDeDatos.put(102, 4L);
+        usar(new FuenteSimulada());
+        assertEquals(4, ContadorNoLeidas.get(102));
+
+        baseDeDatos.put(102, 1L);
+        ContadorNoLeidas.reconciliar();
+
+        assertEquals(1, ContadorNoLeidas.get(102));
+    }
+
+    @Test
+    public void unCambioSinConfirmarConservaElValorIncremental() {
+        baseDeDatos.put(103, 1L);
+        usar(new FuenteSimulada());
+        assertEquals(1, ContadorNoLeidas.get(103));
+
+        // Registrado en una petición que aún no termina: la consulta podría verlo o no
+        UnitOfWork.begin();
+        ContadorNoLeidas.registrarCambio(null, huella(103));
+        baseDeDatos.put(103, 2L);
+        ContadorNoLeidas.reconciliar();
+        assertEquals(1, ContadorNoLeidas.get(103));
+
+        UnitOfWork.end(true);
+        assertEquals(2, ContadorNoLeidas.get(103));
+    }
+
+    @Test
+    public void unCambioDeshechoNoAlteraElContador() {
+        baseDeDatos.put(104, 5L);
+        usar(new FuenteSimulada());
+        assertEquals(5, ContadorNoLeidas.get(104));
+
+        UnitOfWork.begin();
+        ContadorNoLeidas.registrarLecturas(104, 3);
+        UnitOfWork.end(false);
+        assertEquals(5, ContadorNoLeidas.get(104));
+
+        // Sin cambios pendientes la reconciliación vuelve a aplicar
+        baseDeDatos.put(104, 6L);
+        ContadorNoLeidas.reconciliar();
+        assertEquals(6, ContadorNoLeidas.get(104));
+    }
+
+    @Test
+    public void unCambioDuranteLaPrimeraCargaRepiteLaConsulta() {
+        baseDeDatos.put(105, 7L);
+        AtomicInteger consultas = new AtomicInteger();
+        usar(new FuenteSimulada() {
+            @Override
+            public long contar(Integer idInquilino) {
+                long valor = super.contar(idInquilino);
+                if (consultas.getAndIncrement() == 0) {
+                    nuevaNoLeida(idInquilino);
+                }
+                return valor;
+            }
+        });
+
+        assertEquals(8, ContadorNoLeidas.get(105));
+        assertEquals(2, consultas.get());
+
+        ContadorNoLeidas.registrarLecturas(105, 8);
+        assertEquals(0, ContadorNoLeidas.get(105));
+    }
+
+    private void usar(ContadorNoLeidas.Fuente fuente) {
+        ContadorNoLeidas.usarFuente(fuente);
+    }
+
+    // Confirma una notificación no leída fuera de una unidad de trabajo
+    private void nuevaNoLeida(Integer idInquilino) {
+        baseDeDatos.merge(idInquilino, 1L, Long::sum);
+        ContadorNoLeidas.registrarCambio(null, huella(idInquilino));
+    }
+
+    private static ContadorNoLeidas.Huella huella(Integer idInquilino) {
+        Usuario inquilino = new Usuario();
+        inquilino.setIdUsuario(idInquilino);
+        Notificacion notificacion = new Notificacion();
+        notificacion.setInquilino(inquilino);
+        notificacion.setEstadoNotificacion(ContadorNoLeidas.NO_LEIDO);
+        return ContadorNoLeidas.huella(notificacion);
+    }
+
+    private class FuenteSimulada implements ContadorNoLeidas.Fuente {
+        @Override
+        public long contar(Integer idInquilino) {
+            return baseDeDatos.getOrDefault(idInquilino, 0L);
+        }
+
+        @Override
+        public Map<Integer, Long> contarAgrupado(Collection<Integer> ids) {
+            Map<Integer, Long> conteos = new HashMap<>();
+            for (Integer id : ids) {
+                if (baseDeDatos.containsKey(id)) {
+                    conteos.put(id, baseDeDatos.get(id));
+                }
+            }
+            return conteos;
+        }
+    }
+}
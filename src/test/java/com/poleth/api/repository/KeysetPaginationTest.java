@@ -0,0 +1,79 @@
+// KeysetPaginationTest.java
+package com.poleth.api.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.poleth.api.dto.PaginaCursor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.Test;
+
+public class KeysetPaginationTest {
+
+    @Test
+    public void cursorConFechaIdaYVuelta() {
+        LocalDateTime fecha = LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123_000_000);
+        String cursor = KeysetPagination.codificar(fecha, 42);
+
+        String[] partes = KeysetPagination.decodificar(cursor);
+        assertArrayEquals(new String[]{fecha.toString(), "42"}, partes);
+        assertEquals(fecha, LocalDateTime.parse(partes[0]));
+    }
+
+    @Test
+    public void cursorConFechaSinHora() {
+        String[] partes = KeysetPagination.decodificar(KeysetPagination.codificar(LocalDate.of(2024, 1, 31), 7));
+        assertEquals(LocalDate.of(2024, 1, 31), LocalDate.parse(partes[0]));
+        assertEquals("7", partes[1]);
+    }
+
+    @Test
+    public void cursorSinFecha() {
+        String[] partes = KeysetPagination.decodificar(KeysetPagination.codificar(null, 5));
+        assertArrayEquals(new String[]{"", "5"}, partes);
+    }
+
+    @Test
+    public void cursorEsSeguroParaUrl() {
+        String cursor = KeysetPagination.codificar(LocalDateTime.of(2024, 12, 31, 23, 59, 59), Integer.MAX_VALUE);
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+        assertEquals(String.valueOf(Integer.MAX_VALUE), KeysetPagination.decodificar(cursor)[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cursorQueNoEsBase64EsInvalido() {
+        KeysetPagination.decodificar("no es base64!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cursorSinSeparadorEsInvalido() {
+        KeysetPagination.decodificar("c2luc2VwYXJhZG9y");
+    }
+
+    @Test
+    public void paginaSinSiguienteCursorNoTieneMas() {
+        PaginaCursor<String> ultima = new PaginaCursor<>(List.of("a"), null, 20);
+        assertFalse(ultima.isHayMas());
+        assertNull(ultima.getSiguienteCursor());
+
+        PaginaCursor<String> intermedia = new PaginaCursor<>(List.of("a"), KeysetPagination.codificar(null, 1), 1);
+        assertTrue(intermedia.isHayMas());
+    }
+
+    @Test
+    public void parseLimite() {
+        assertEquals(PaginaCursor.LIMITE_POR_DEFECTO, PaginaCursor.parseLimite(null));
+        assertEquals(PaginaCursor.LIMITE_POR_DEFECTO, PaginaCursor.parseLimite(" "));
+        assertEquals(50, PaginaCursor.parseLimite("50"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseLimiteFueraDeRango() {
+        PaginaCursor.parseLimite(String.valueOf(PaginaCursor.LIMITE_MAXIMO + 1));
+    }
+}
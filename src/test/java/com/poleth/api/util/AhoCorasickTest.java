@@ -0,0 +1,79 @@
+// AhoCorasickTest.java
+package com.poleth.api.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class AhoCorasickTest {
+
+    private static AhoCorasick automata(Object... palabrasYPesos) {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        for (int i = 0; i < palabrasYPesos.length; i += 2) {
+            pesos.put((String) palabrasYPesos[i], (Integer) palabrasYPesos[i + 1]);
+        }
+        return new AhoCorasick(pesos);
+    }
+
+    @Test
+    public void devuelveCeroSinPalabrasNiTexto() {
+        AhoCorasick automata = automata("urgente", 2);
+        assertEquals(0, automata.mayorPeso("La ventana no cierra bien"));
+        assertEquals(0, automata.mayorPeso(""));
+        assertEquals(0, automata.mayorPeso(null));
+    }
+
+    @Test
+    public void encuentraPalabrasSolapadas() {
+        // "he" y "she" terminan en la misma posición; "hers" se solapa con ambas
+        AhoCorasick automata = automata("he", 1, "she", 2, "hers", 3);
+        assertEquals(2, automata.mayorPeso("she"));
+        assertEquals(3, automata.mayorPeso("hers"));
+        assertEquals(1, automata.mayorPeso("he"));
+    }
+
+    @Test
+    public void encuentraPalabrasPorElEnlaceDeFallo() {
+        // "fuga de gas" falla tras "fuga de agua" parcial y debe seguir encontrando "gas"
+        AhoCorasick automata = automata("fuga de agua", 2, "gas", 3);
+        assertEquals(3, automata.mayorPeso("fuga de gas en la cocina"));
+        assertEquals(2, automata.mayorPeso("hay una fuga de agua"));
+    }
+
+    @Test
+    public void soloCoincideAlInicioDeUnaPalabra() {
+        AhoCorasick automata = automata("urgente", 2);
+        assertEquals(0, automata.mayorPeso("el grupo insurgente"));
+        assertEquals(2, automata.mayorPeso("es urgente"));
+        assertEquals(2, automata.mayorPeso("casos urgentes"));
+        assertEquals(2, automata.mayorPeso("(urgente) revisar"));
+        assertEquals(2, automata.mayorPeso("urgente"));
+    }
+
+    @Test
+    public void ignoraAcentosYMayusculas() {
+        AhoCorasick automata = automata("emergencia", 3, "electricidad", 1);
+        assertEquals(3, automata.mayorPeso("¡EMERGÉNCIA en el edificio!"));
+        assertEquals(1, automata.mayorPeso("Falla de Electricidád"));
+
+        AhoCorasick conAcento = automata("pánico", 2);
+        assertEquals(2, conAcento.mayorPeso("panico en el pasillo"));
+    }
+
+    @Test
+    public void devuelveElMayorPeso() {
+        AhoCorasick automata = automata("urgente", 2, "emergencia", 3, "inmediato", 2);
+        assertEquals(3, automata.mayorPeso("urgente: emergencia, atención inmediata"));
+        assertEquals(3, automata.mayorPeso("emergencia y luego urgente"));
+        assertEquals(2, automata.mayorPeso("urgente e inmediato"));
+    }
+
+    @Test
+    public void normalizarConservaLaLongitud() {
+        assertEquals("emergencia", AhoCorasick.normalizar("Emergéncia"));
+        assertEquals("pinguino", AhoCorasick.normalizar("PINGÜINO"));
+        assertEquals("Año".length(), AhoCorasick.normalizar("Año").length());
+    }
+}
@@ -0,0 +1,37 @@
+// DetectorUrgenciaTest.java
+package com.poleth.api.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+// Usa las palabras de reportes.urgencia.palabras (emergencia:3, urgente:2, inmediato:2)
+public class DetectorUrgenciaTest {
+
+    @Test
+    public void sinPalabrasClaveNoEsUrgente() {
+        assertEquals(DetectorUrgencia.SIN_URGENCIA, DetectorUrgencia.prioridad("Cambiar el foco del baño"));
+        assertEquals(DetectorUrgencia.SIN_URGENCIA, DetectorUrgencia.prioridad(null));
+    }
+
+    @Test
+    public void noCoincideDentroDeOtraPalabra() {
+        assertEquals(DetectorUrgencia.SIN_URGENCIA, DetectorUrgencia.prioridad("Un libro sobre el movimiento insurgente"));
+    }
+
+    @Test
+    public void calculaElMayorPesoSinImportarAcentos() {
+        assertEquals(2, DetectorUrgencia.prioridad("Es URGENTE revisar la puerta"));
+        assertEquals(3, DetectorUrgencia.prioridad("Urgente: emergéncia por fuga de gas"));
+        assertEquals(2, DetectorUrgencia.prioridad("Se requiere atención inmediata... inmediato"));
+    }
+
+    @Test
+    public void esUrgenteSoloConPrioridadPositiva() {
+        assertTrue(DetectorUrgencia.esUrgente(2));
+        assertFalse(DetectorUrgencia.esUrgente(DetectorUrgencia.SIN_URGENCIA));
+        assertFalse(DetectorUrgencia.esUrgente(null));
+    }
+}